@@ -0,0 +1,38 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * Provides counts of the local symbol tables written by an {@link IonWriter}.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of the binary writers built
+ * by {@link com.amazon.ion.system.IonBinaryWriterBuilder#build(java.io.OutputStream)}.
+ *
+ */
+public interface LocalSymbolTableStatistics
+{
+    /**
+     * Gets the number of times the writer has started a new local symbol
+     * table because the previous one reached the limits configured by
+     * {@link com.amazon.ion.system.IonBinaryWriterBuilder#setLocalSymbolTableLimits(int, int)}.
+     *
+     * @return the number of rollovers since the writer was constructed.
+     */
+    public long getRolloverCount();
+}
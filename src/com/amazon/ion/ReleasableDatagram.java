@@ -0,0 +1,47 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * Discards the content of an {@link IonDatagram} all at once, so that its
+ * memory can be reused.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of the datagrams created by
+ * systems built by {@link com.amazon.ion.system.IonSystemBuilder}, via
+ * {@link com.amazon.ion.facet.Facets#asFacet(Class, Object)}.
+ *
+ */
+public interface ReleasableDatagram
+{
+    /**
+     * Discards the entire content of this datagram, which is left empty.
+     * When the datagram's system was built with
+     * {@linkplain com.amazon.ion.system.IonSystemBuilder#setChildArrayRecyclingEnabled(boolean)
+     * child array recycling} enabled, the memory held by the datagram's
+     * mutable containers is reused by the next values loaded on the calling
+     * thread. Read-only containers within the datagram are left intact,
+     * since clones may share their children.
+     * <p>
+     * <b>None of the mutable values that were in this datagram may be used
+     * after this call.</b>
+     *
+     * @throws ReadOnlyValueException if this datagram is read-only.
+     */
+    public void release();
+}
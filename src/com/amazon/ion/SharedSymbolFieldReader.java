@@ -0,0 +1,64 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * An {@link IonReader} facet that identifies struct fields by their symbol
+ * IDs in a shared symbol table, rather than by their text.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * Unlike {@link IonReader#getFieldId()}, whose result depends on the local
+ * symbol table in effect, the IDs used here are stable for a given shared
+ * table, so decoders for a fixed schema can match them as constants.
+ * When binary data imports the shared table, fields are matched by
+ * comparing their encoded symbol IDs, without resolving their text.
+ * Otherwise, and for text data, each field's text is looked up in the
+ * shared table.
+ * <p>
+ * Instances keep state about the symbol tables seen, so callers should
+ * reuse one instance for many lookups against the same reader.
+ */
+public interface SharedSymbolFieldReader
+{
+    /**
+     * Gets the symbol ID of the current field name within a shared table.
+     *
+     * @param sharedTable the shared symbol table defining the IDs.
+     *
+     * @return the ID of the field name within {@code sharedTable}, or
+     * {@link SymbolTable#UNKNOWN_SYMBOL_ID} if the reader isn't positioned
+     * on a field or the shared table doesn't declare its name.
+     */
+    public int getFieldId(SymbolTable sharedTable);
+
+
+    /**
+     * Advances the reader to the next field of the current struct whose
+     * name has one of the given symbol IDs within a shared table, skipping
+     * other fields.
+     *
+     * @param sharedTable the shared symbol table defining the IDs.
+     * @param sids the IDs of the fields to find, within {@code sharedTable}.
+     *
+     * @return the type of the field found, or null if the end of the struct
+     * was reached first.
+     *
+     * @throws IllegalStateException if the reader isn't in a struct.
+     */
+    public IonType seekField(SymbolTable sharedTable, int[] sids);
+}
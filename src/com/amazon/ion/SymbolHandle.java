@@ -0,0 +1,40 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.ion;
+
+/**
+ * An opaque handle to symbol text, created by a {@link SymbolHandleWriter}
+ * so that the text is resolved to a symbol ID once rather than on every
+ * write.
+ * <p>
+ * The writer resolves the handle when it's first used, and remembers the ID
+ * for as long as its local symbol table lasts. When the writer starts a new
+ * local symbol table, as after {@link IonWriter#finish()}, the handle is
+ * resolved again on its next use.
+ * <p>
+ * Instances may only be used with the writer that created them, and are
+ * not safe for use by multiple threads.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ *
+ */
+public interface SymbolHandle
+{
+    /**
+     * @return the text of the symbol; not null.
+     */
+    public String getText();
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.ion;
+
+import java.io.IOException;
+
+/**
+ * Writes symbols through {@link SymbolHandle}s, so that serializers which
+ * write the same field names, annotations and symbol values over and over
+ * can resolve each symbol's text once, up front.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of the binary writers built
+ * by {@link com.amazon.ion.system.IonBinaryWriterBuilder#build(java.io.OutputStream)}.
+ *
+ */
+public interface SymbolHandleWriter
+{
+    /**
+     * Creates a handle for symbol text. The handle isn't resolved, and no
+     * symbol is added to the local symbol table, until the handle is first
+     * used.
+     *
+     * @param text the symbol text; must not be null.
+     *
+     * @return a new handle, usable only with this writer.
+     */
+    public SymbolHandle newSymbolHandle(String text);
+
+    /**
+     * Sets the current field name to the handle's symbol.
+     *
+     * @throws IllegalArgumentException if the handle wasn't created by this
+     * writer.
+     *
+     * @see IonWriter#setFieldName(String)
+     */
+    public void setFieldNameHandle(SymbolHandle handle);
+
+    /**
+     * Adds the handle's symbol to the annotations of the current value.
+     *
+     * @throws IllegalArgumentException if the handle wasn't created by this
+     * writer.
+     *
+     * @see IonWriter#addTypeAnnotation(String)
+     */
+    public void addTypeAnnotationHandle(SymbolHandle handle);
+
+    /**
+     * Writes the handle's symbol as a symbol value.
+     *
+     * @throws IllegalArgumentException if the handle wasn't created by this
+     * writer.
+     *
+     * @see IonWriter#writeSymbol(String)
+     */
+    public void writeSymbolHandle(SymbolHandle handle)
+        throws IOException;
+}
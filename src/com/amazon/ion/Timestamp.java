@@ -961,6 +961,11 @@ public final class Timestamp
             throw fail(in);
         }
 
+        Timestamp fixedWidth = valueOfFixedWidth(in, length);
+        if (fixedWidth != null) {
+            return fixedWidth;
+        }
+
         int year  = 1;
         int month = 1;
         int day   = 1;
@@ -1115,6 +1120,115 @@ public final class Timestamp
         return ts;
     }
 
+    /**
+     * Parses the common fixed-width forms {@code yyyy-mm-ddThh:mm[:ss[.fff]]}
+     * followed by {@code Z} or {@code +hh:mm}/{@code -hh:mm}, with nothing
+     * after the offset. The fields are read straight out of the input and
+     * the fraction (up to 18 digits) is built from its unscaled value, so
+     * no intermediate strings are created.
+     *
+     * @return {@code null} if the input isn't in one of the fixed-width
+     * forms, in which case the general parser must handle it (and report
+     * any errors).
+     */
+    private static Timestamp valueOfFixedWidth(CharSequence in, int length)
+    {
+        if (length < END_OF_MINUTES + 1
+            || in.charAt(END_OF_YEAR)  != '-'
+            || in.charAt(END_OF_MONTH) != '-'
+            || in.charAt(END_OF_DAY)   != 'T'
+            || in.charAt(13)           != ':')
+        {
+            return null;
+        }
+
+        int year   = fixed_digits(in, 0, 4);
+        int month  = fixed_digits(in, END_OF_YEAR + 1, 2);
+        int day    = fixed_digits(in, END_OF_MONTH + 1, 2);
+        int hour   = fixed_digits(in, 11, 2);
+        int minute = fixed_digits(in, 14, 2);
+        if ((year | month | day | hour | minute) < 0) return null;
+
+        int seconds = 0;
+        BigDecimal fraction = null;
+        Precision precision = Precision.MINUTE;
+        int pos = END_OF_MINUTES;
+
+        if (in.charAt(pos) == ':')
+        {
+            if (length < END_OF_SECONDS + 1) return null;
+            seconds = fixed_digits(in, 17, 2);
+            if (seconds < 0) return null;
+            precision = Precision.SECOND;
+            pos = END_OF_SECONDS;
+
+            if (in.charAt(pos) == '.')
+            {
+                pos++;
+                long unscaled = 0;
+                int scale = 0;
+                while (pos < length) {
+                    int digit = in.charAt(pos) - '0';
+                    if (digit < 0 || digit > 9) break;
+                    unscaled = unscaled * 10 + digit;
+                    scale++;
+                    pos++;
+                }
+                if (scale == 0 || scale > 18) return null;
+                fraction = BigDecimal.valueOf(unscaled, scale);
+            }
+        }
+
+        Integer offset;
+        char timezone_start = pos < length ? in.charAt(pos) : '\n';
+        if (timezone_start == 'Z') {
+            if (pos + 1 != length) return null;
+            offset = 0;
+        }
+        else if (timezone_start == '+' || timezone_start == '-') {
+            if (pos + 6 != length || in.charAt(pos + 3) != ':') return null;
+            int tzdHours   = fixed_digits(in, pos + 1, 2);
+            int tzdMinutes = fixed_digits(in, pos + 4, 2);
+            if (tzdHours < 0 || tzdHours > 23 || tzdMinutes < 0 || tzdMinutes > 59) {
+                return null;
+            }
+            int temp = tzdHours * 60 + tzdMinutes;
+            if (timezone_start == '-') {
+                if (temp == 0) {
+                    offset = null;
+                }
+                else {
+                    offset = -temp;
+                }
+            }
+            else {
+                offset = temp;
+            }
+        }
+        else {
+            return null;
+        }
+
+        return new Timestamp(precision, year, month, day,
+                             hour, minute, seconds, fraction, offset, APPLY_OFFSET_YES);
+    }
+
+    /**
+     * Reads exactly {@code length} ASCII digits.
+     *
+     * @return the value, or -1 if any of the characters isn't an ASCII digit.
+     */
+    private static int fixed_digits(CharSequence in, int start, int length)
+    {
+        int value = 0;
+        for (int ii = start; ii < start + length; ii++) {
+            int digit = in.charAt(ii) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
     private static int read_digits(CharSequence in, int start, int length,
                                    int terminator, String field)
     {
@@ -2079,17 +2193,49 @@ public final class Timestamp
     public void print(Appendable out)
         throws IOException
     {
-        // we have to make a copy to preserve the "immutable" contract
-        // on Timestamp and we don't want someone reading the calendar
-        // member while we've shifted it around.
-        Timestamp adjusted = this;
-
-        // Adjust UTC time back to local time
-        if (this._offset != null && this._offset.intValue() != 0) {
-            adjusted = make_localtime();
+        // Adjust UTC time back to local time. This is done on local copies
+        // of the fields rather than on a new Timestamp so that printing
+        // doesn't allocate.
+        int year   = _year;
+        int month  = _month;
+        int day    = _day;
+        int hour   = _hour;
+        int minute = _minute;
+
+        if (_offset != null && _offset.intValue() != 0) {
+            // Local offsets are less than a day, so the adjustment moves the
+            // date by at most one day.
+            int minutes = hour * 60 + minute + _offset.intValue();
+            if (minutes < 0) {
+                minutes += 24 * 60;
+                day--;
+                if (day < 1) {
+                    month--;
+                    if (month < 1) {
+                        month = 12;
+                        year--;
+                    }
+                    day = last_day_in_month(year, month);
+                }
+            }
+            else if (minutes >= 24 * 60) {
+                minutes -= 24 * 60;
+                day++;
+                if (day > last_day_in_month(year, month)) {
+                    day = 1;
+                    month++;
+                    if (month > 12) {
+                        month = 1;
+                        year++;
+                    }
+                }
+            }
+            hour   = minutes / 60;
+            minute = minutes - hour * 60;
         }
 
-        print(out, adjusted);
+        print(out, _precision, year, month, day, hour, minute, _second,
+              _fraction, _offset);
     }
 
 
@@ -2123,9 +2269,9 @@ public final class Timestamp
             case SECOND:
             case FRACTION:
             {
-                Timestamp ztime = this.clone();
-                ztime._offset = UTC_OFFSET;
-                ztime.print(out);
+                // The fields are already in UTC.
+                print(out, _precision, _year, _month, _day, _hour, _minute,
+                      _second, _fraction, UTC_OFFSET);
                 break;
             }
         }
@@ -2133,64 +2279,58 @@ public final class Timestamp
 
 
     /**
-     * helper for print(out) and printZ(out) so that printZ can create
-     * a zulu time and pass it directly and print can apply the local
-     * offset and adjust the various fields (without breaking the
-     * contract to be immutable).
+     * helper for print(out) and printZ(out) so that each can pass the
+     * fields adjusted to the desired local offset without breaking the
+     * contract to be immutable. Characters are appended one at a time,
+     * so when {@code out} is a {@link com.amazon.ion.util._Private_FastAppendable} (as it is for
+     * the text writers) no intermediate strings are built.
      * @param out destination for the text image of the value
-     * @param adjusted the time value with the fields adjusted to match the desired text output
      * @throws IOException
      */
-    private static void print(Appendable out, Timestamp adjusted)
+    private static void print(Appendable out, Precision precision,
+                              int year, int month, int day,
+                              int hour, int minute, int second,
+                              BigDecimal fraction, Integer offset)
         throws IOException
     {
-        // null is our first "guess" to get it out of the way
-        if (adjusted == null) {
-            out.append("null.timestamp");
-            return;
-        }
-
-        // so we have a real value - we'll start with the date portion
-        // which we always have
-        print_digits(out, adjusted._year, 4);
-        if (adjusted._precision == Precision.YEAR) {
-            assert adjusted._offset == UNKNOWN_OFFSET;
-            out.append("T");
+        // we'll start with the date portion which we always have
+        print_digits(out, year, 4);
+        if (precision == Precision.YEAR) {
+            assert offset == UNKNOWN_OFFSET;
+            out.append('T');
             return;
         }
 
-        out.append("-");
-        print_digits(out, adjusted._month, 2);  // convert calendar months to a base 1 value
-        if (adjusted._precision == Precision.MONTH) {
-            assert adjusted._offset == UNKNOWN_OFFSET;
-            out.append("T");
+        out.append('-');
+        print_digits(out, month, 2);
+        if (precision == Precision.MONTH) {
+            assert offset == UNKNOWN_OFFSET;
+            out.append('T');
             return;
         }
 
-        out.append("-");
-        print_digits(out, adjusted._day, 2);
-        if (adjusted._precision == Precision.DAY) {
-            assert adjusted._offset == UNKNOWN_OFFSET;
-            // out.append("T");
+        out.append('-');
+        print_digits(out, day, 2);
+        if (precision == Precision.DAY) {
+            assert offset == UNKNOWN_OFFSET;
             return;
         }
 
-        out.append("T");
-        print_digits(out, adjusted._hour, 2);
-        out.append(":");
-        print_digits(out, adjusted._minute, 2);
+        out.append('T');
+        print_digits(out, hour, 2);
+        out.append(':');
+        print_digits(out, minute, 2);
         // ok, so how much time do we have ?
-        if (adjusted._precision == Precision.SECOND) {
-            out.append(":");
-            print_digits(out, adjusted._second, 2);
-            if (adjusted._fraction != null) {
-                print_fractional_digits(out, adjusted._fraction);
+        if (precision == Precision.SECOND) {
+            out.append(':');
+            print_digits(out, second, 2);
+            if (fraction != null) {
+                print_fractional_digits(out, fraction);
             }
         }
 
-        if (adjusted._offset != UNKNOWN_OFFSET) {
-            int min, hour;
-            min = adjusted._offset;
+        if (offset != UNKNOWN_OFFSET) {
+            int min = offset;
             if (min == 0) {
                 out.append('Z');
             }
@@ -2202,38 +2342,52 @@ public final class Timestamp
                 else {
                     out.append('+');
                 }
-                hour = min / 60;
-                min = min - hour*60;
-                print_digits(out, hour, 2);
-                out.append(":");
+                int hours = min / 60;
+                min = min - hours*60;
+                print_digits(out, hours, 2);
+                out.append(':');
                 print_digits(out, min, 2);
             }
         }
         else {
-            out.append("-00:00");
+            out.append('-');
+            out.append('0');
+            out.append('0');
+            out.append(':');
+            out.append('0');
+            out.append('0');
+        }
+    }
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
         }
     }
-    private static void print_digits(Appendable out, int value, int length)
+
+    /** Prints the low {@code length} decimal digits of a non-negative value. */
+    private static void print_digits(Appendable out, long value, int length)
         throws IOException
     {
-        char temp[] = new char[length];
         while (length > 0) {
             length--;
-            int next = value / 10;
-            temp[length] =  (char)('0' + (value - next*10));
-            value = next;
-        }
-        while (length > 0) {
-            length--;
-            temp[length] =  '0';
-        }
-        for (char c : temp) {
-            out.append(c);
+            out.append((char) ('0' + (value / POWERS_OF_TEN[length]) % 10));
         }
     }
+
     private static void print_fractional_digits(Appendable out, BigDecimal value)
         throws IOException
     {
+        int scale = value.scale();
+        if (scale > 0 && scale < POWERS_OF_TEN.length) {
+            // value is in [0, 1), so its unscaled value has at most scale digits
+            out.append('.');
+            print_digits(out, value.unscaledValue().longValue(), scale);
+            return;
+        }
+
         String temp = value.toPlainString(); // crude, but it works
         if (temp.charAt(0) == '0') { // this should always be true
             temp = temp.substring(1);
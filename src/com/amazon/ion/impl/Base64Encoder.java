@@ -144,6 +144,80 @@ final class Base64Encoder
 
     private Base64Encoder() {}
 
+    /** Base64 characters for each 6-bit value, as chars for bulk encoding. */
+    private final static char[] Base64EncodingChars = init64Chars(Base64EncodingIntToChar);
+
+    static private char[] init64Chars(int[] intToChar)
+    {
+        char[] output = new char[intToChar.length];
+        for (int ii=0; ii<intToChar.length; ii++) {
+            output[ii] = (char) intToChar[ii];
+        }
+        return output;
+    }
+
+    /**
+     * Returns the number of characters needed to encode {@code len} bytes,
+     * including padding.
+     */
+    final static int encodedLength(int len)
+    {
+        return ((len + 2) / 3) * 4;
+    }
+
+    /**
+     * Encodes a range of bytes into a character array, three bytes to four
+     * characters at a time, padding the final group if {@code len} isn't a
+     * multiple of three. Callers encoding a long value in pieces must use
+     * pieces that are multiples of three bytes, except for the last.
+     *
+     * @param dst must have room for {@link #encodedLength(int)} characters
+     * starting at {@code dstStart}.
+     *
+     * @return the number of characters written.
+     */
+    final static int encode(byte[] src, int srcStart, int len,
+                            char[] dst, int dstStart)
+    {
+        final char[] chars = Base64EncodingChars;
+        int ii = srcStart;
+        int jj = dstStart;
+        int groupsEnd = srcStart + (len - len % 3);
+        while (ii < groupsEnd) {
+            int bits = ((src[ii] & 0xff) << 16)
+                     | ((src[ii + 1] & 0xff) << 8)
+                     |  (src[ii + 2] & 0xff);
+            ii += 3;
+            dst[jj]     = chars[bits >>> 18];
+            dst[jj + 1] = chars[(bits >>> 12) & 0x3f];
+            dst[jj + 2] = chars[(bits >>> 6) & 0x3f];
+            dst[jj + 3] = chars[bits & 0x3f];
+            jj += 4;
+        }
+
+        switch (len % 3) {
+        case 1: {
+            int bits = (src[ii] & 0xff) << 16;
+            dst[jj]     = chars[bits >>> 18];
+            dst[jj + 1] = chars[(bits >>> 12) & 0x3f];
+            dst[jj + 2] = Base64EncodingTerminator;
+            dst[jj + 3] = Base64EncodingTerminator;
+            jj += 4;
+            break;
+        }
+        case 2: {
+            int bits = ((src[ii] & 0xff) << 16) | ((src[ii + 1] & 0xff) << 8);
+            dst[jj]     = chars[bits >>> 18];
+            dst[jj + 1] = chars[(bits >>> 12) & 0x3f];
+            dst[jj + 2] = chars[(bits >>> 6) & 0x3f];
+            dst[jj + 3] = Base64EncodingTerminator;
+            jj += 4;
+            break;
+        }
+        }
+        return jj - dstStart;
+    }
+
     /*********************************************************************
      *
      * BinaryStream, reads a text input and decodes the printable characters
@@ -25,6 +25,7 @@ import com.amazon.ion.IonType;
 import com.amazon.ion.OffsetSpan;
 import com.amazon.ion.RawValueSpanProvider;
 import com.amazon.ion.SeekableReader;
+import com.amazon.ion.SharedSymbolFieldReader;
 import com.amazon.ion.Span;
 import com.amazon.ion.SpanProvider;
 import com.amazon.ion.SymbolTable;
@@ -34,6 +35,7 @@ import com.amazon.ion.impl.UnifiedInputStreamX.FromByteArray;
 import com.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 final class IonReaderBinaryUserX
@@ -343,6 +345,16 @@ final class IonReaderBinaryUserX
             return facetType.cast(new SpanProviderFacet());
         }
 
+        if (facetType == _Private_EncodedLengthReader.class)
+        {
+            return facetType.cast(new EncodedLengthReaderFacet());
+        }
+
+        if (facetType == SharedSymbolFieldReader.class)
+        {
+            return facetType.cast(new SharedSymbolFieldReaderFacet(this, true));
+        }
+
         // TODO amzn/ion-java/issues/17 support seeking over InputStream
         if (_input instanceof FromByteArray)
         {
@@ -354,6 +366,10 @@ final class IonReaderBinaryUserX
             {
                 return facetType.cast(new RawValueSpanProviderFacet());
             }
+            if (facetType == _Private_EncodedValueReader.class)
+            {
+                return facetType.cast(new EncodedValueReaderFacet());
+            }
         }
 
         if (facetType == _Private_ByteTransferReader.class)
@@ -386,6 +402,29 @@ final class IonReaderBinaryUserX
         }
     }
 
+    private class EncodedLengthReaderFacet
+        implements _Private_EncodedLengthReader
+    {
+        public long getEncodedLength()
+        {
+            return (getType() == null) ? -1 : _position_len;
+        }
+    }
+
+    private class EncodedValueReaderFacet
+        implements _Private_EncodedValueReader
+    {
+        public ByteBuffer getEncodedValue()
+        {
+            if (getType() == null) return null;
+
+            ByteBuffer bytes = ByteBuffer.wrap(_input._bytes,
+                                               (int) _position_start,
+                                               (int) _position_len);
+            return bytes.asReadOnlyBuffer();
+        }
+    }
+
     private class RawValueSpanProviderFacet implements RawValueSpanProvider
     {
 
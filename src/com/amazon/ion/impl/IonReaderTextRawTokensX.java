@@ -2531,6 +2531,80 @@ final class IonReaderTextRawTokensX
         }
         return b;
     }
+    /**
+     * Decodes up to {@code len} bytes of the current blob into
+     * {@code buffer}. Whole groups of four Base64 characters are decoded
+     * straight out of the input page; whitespace, padding, page boundaries
+     * and the end of the blob are left to {@link #read_base64_byte()}.
+     *
+     * @return the number of bytes decoded, which is less than {@code len}
+     * only when the end of the blob was reached.
+     */
+    public final int read_base64_bytes(byte[] buffer, int offset, int len)
+        throws IOException
+    {
+        int start = offset;
+        int end = offset + len;
+        while (offset < end) {
+            if (_base64_prefetch_count < 1 && end - offset >= 3) {
+                offset = decode_base64_groups(buffer, offset, end);
+                if (offset == end) break;
+            }
+            int c = read_base64_byte();
+            if (c < 0) break;
+            buffer[offset++] = (byte)c;
+        }
+        return offset - start;
+    }
+    private final int decode_base64_groups(byte[] buffer, int offset, int end)
+    {
+        final int[] table = BASE64_CHAR_TO_BIN;
+        final UnifiedInputStreamX stream = _stream;
+        int pos = stream._pos;
+        int limit = stream._limit;
+
+        if (stream._is_byte_data) {
+            final byte[] src = stream._bytes;
+            while (end - offset >= 3 && limit - pos >= 4) {
+                int b1 = table[src[pos]     & 0xff];
+                int b2 = table[src[pos + 1] & 0xff];
+                int b3 = table[src[pos + 2] & 0xff];
+                int b4 = table[src[pos + 3] & 0xff];
+                // padding, whitespace and delimiters all map to -1
+                if ((b1 | b2 | b3 | b4) < 0) break;
+                int bits = (b1 << 18) | (b2 << 12) | (b3 << 6) | b4;
+                buffer[offset]     = (byte)(bits >> 16);
+                buffer[offset + 1] = (byte)(bits >> 8);
+                buffer[offset + 2] = (byte)bits;
+                offset += 3;
+                pos += 4;
+            }
+        }
+        else {
+            final char[] src = stream._chars;
+            while (end - offset >= 3 && limit - pos >= 4) {
+                int c1 = src[pos];
+                int c2 = src[pos + 1];
+                int c3 = src[pos + 2];
+                int c4 = src[pos + 3];
+                if (!IonTokenConstsX.is8bitValue(c1 | c2 | c3 | c4)) break;
+                int b1 = table[c1];
+                int b2 = table[c2];
+                int b3 = table[c3];
+                int b4 = table[c4];
+                if ((b1 | b2 | b3 | b4) < 0) break;
+                int bits = (b1 << 18) | (b2 << 12) | (b3 << 6) | b4;
+                buffer[offset]     = (byte)(bits >> 16);
+                buffer[offset + 1] = (byte)(bits >> 8);
+                buffer[offset + 2] = (byte)bits;
+                offset += 3;
+                pos += 4;
+            }
+        }
+
+        stream._pos = pos;
+        return offset;
+    }
     private final int read_base64_byte_helper() throws IOException
     {
         // if there's any data left to read (the normal case)
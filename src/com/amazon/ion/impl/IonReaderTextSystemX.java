@@ -859,10 +859,11 @@ class IonReaderTextSystemX
         switch (_lob_token) {
         // BLOB
         case IonTokenConstsX.TOKEN_OPEN_DOUBLE_BRACE:
-            while (len-- > 0) {
-                c = _scanner.read_base64_byte();
-                if (c < 0) break;
-                buffer[offset++] = (byte)c;
+            int decoded = _scanner.read_base64_bytes(buffer, offset, len);
+            offset += decoded;
+            if (len > 0 && decoded == len) {
+                // filled the buffer, there may be more to come
+                c = 0;
             }
             break;
         // CLOB
@@ -22,6 +22,7 @@ import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonType;
 import com.amazon.ion.OffsetSpan;
 import com.amazon.ion.SeekableReader;
+import com.amazon.ion.SharedSymbolFieldReader;
 import com.amazon.ion.Span;
 import com.amazon.ion.SpanProvider;
 import com.amazon.ion.SymbolTable;
@@ -410,6 +411,11 @@ class IonReaderTextUserX
             return facetType.cast(new SeekableReaderFacet());
         }
 
+        if (facetType == SharedSymbolFieldReader.class)
+        {
+            return facetType.cast(new SharedSymbolFieldReaderFacet(this, false));
+        }
+
         return super.asFacet(facetType);
     }
 
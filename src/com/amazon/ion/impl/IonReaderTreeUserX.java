@@ -27,6 +27,7 @@ import com.amazon.ion.IonSymbol;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.SeekableReader;
+import com.amazon.ion.SharedSymbolFieldReader;
 import com.amazon.ion.Span;
 import com.amazon.ion.SpanProvider;
 import com.amazon.ion.SymbolTable;
@@ -228,6 +229,11 @@ final class IonReaderTreeUserX
             return facetType.cast(new SeekableReaderFacet());
         }
 
+        if (facetType == SharedSymbolFieldReader.class)
+        {
+            return facetType.cast(new SharedSymbolFieldReaderFacet(this, false));
+        }
+
         return super.asFacet(facetType);
     }
 
@@ -28,7 +28,6 @@ import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.system.IonTextWriterBuilder.LstMinimizing;
 import com.amazon.ion.util.IonTextUtils;
-import com.amazon.ion.util.IonTextUtils.SymbolVariant;
 import com.amazon.ion.util._Private_FastAppendable;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -46,6 +45,15 @@ class IonWriterSystemText
 
     private final _Private_IonTextAppender _output;
 
+    /** Line breaks when pretty-printing; null otherwise. */
+    private final PrettyLayoutAppendable.Indentation _indentation;
+
+    /**
+     * Lays out containers when pretty-printing with a compact container
+     * width; null otherwise.
+     */
+    private final PrettyLayoutAppendable _layout;
+
     /** Ensure we don't use a closed {@link #output} stream. */
     private boolean _closed;
 
@@ -84,6 +92,32 @@ class IonWriterSystemText
               options.getInitialIvmHandling(),
               options.getIvmMinimizing());
 
+        if (options.isPrettyPrintOn())
+        {
+            _indentation =
+                new PrettyLayoutAppendable.Indentation(options.lineSeparator());
+
+            // Markup callbacks write around the appendable we're given, so
+            // we can't hold text back from them.
+            int width = (options.getCallbackBuilder() == null
+                             ? options.getCompactContainerWidth()
+                             : 0);
+            if (width > 0)
+            {
+                _layout = new PrettyLayoutAppendable(out, _indentation, width);
+                out = _layout;
+            }
+            else
+            {
+                _layout = null;
+            }
+        }
+        else
+        {
+            _indentation = null;
+            _layout = null;
+        }
+
         _output =
             _Private_IonTextAppender.forFastAppendable(out,
                                                        options.getCharset());
@@ -220,18 +254,23 @@ class IonWriterSystemText
         return (topType == tidSexp);
     }
 
-    void printLeadingWhiteSpace() throws IOException {
-        for (int ii=0; ii<_top; ii++) {
-            _output.appendAscii(' ');
-            _output.appendAscii(' ');
+    private void lineBreak(boolean spaced) throws IOException {
+        if (_layout != null) {
+            _layout.lineBreak(_top, spaced);
+        }
+        else {
+            _output.appendAscii(_indentation.forDepth(_top));
         }
     }
+
     void closeCollection(char closeChar) throws IOException {
-       if (_options.isPrettyPrintOn()) {
-           _output.appendAscii(_options.lineSeparator());
-           printLeadingWhiteSpace();
+       if (_indentation != null) {
+           lineBreak(false);
        }
        _output.appendAscii(closeChar);
+       if (_layout != null) {
+           _layout.endContainer();
+       }
     }
 
 
@@ -270,29 +309,7 @@ class IonWriterSystemText
         }
         else
         {
-            SymbolVariant variant = IonTextUtils.symbolVariant(value);
-            switch (variant)
-            {
-                case IDENTIFIER:
-                {
-                    _output.appendAscii(value);
-                    break;
-                }
-                case OPERATOR:
-                {
-                    if (containerIsSexp())
-                    {
-                        _output.appendAscii(value);
-                        break;
-                    }
-                    // else fall through...
-                }
-                case QUOTED:
-                {
-                    _output.printQuotedSymbol(value);
-                    break;
-                }
-            }
+            _output.printSymbolCached(value, containerIsSexp());
         }
     }
 
@@ -327,21 +344,20 @@ class IonWriterSystemText
             _output.appendAscii(Integer.toString(ann.getSid()));
         }
         else {
-            _output.printSymbol(name);
+            _output.printSymbolCached(name, false);
         }
     }
 
     boolean writeSeparator(boolean followingLongString)
         throws IOException
     {
-        if (_options.isPrettyPrintOn()) {
+        if (_indentation != null) {
             if (_pending_separator && !IonTextUtils.isAllWhitespace(_separator_character)) {
                 // Only bother if the separator is non-whitespace.
                 _output.appendAscii(_separator_character);
                 followingLongString = false;
             }
-            _output.appendAscii(_options.lineSeparator());
-            printLeadingWhiteSpace();
+            lineBreak(_pending_separator);
         }
         else if (_pending_separator) {
             _output.appendAscii(_separator_character);
@@ -497,6 +513,9 @@ class IonWriterSystemText
         }
 
         push(tid);
+        if (_layout != null) {
+            _layout.startContainer();
+        }
         _output.appendAscii(opener);
         _pending_separator = false;
         _following_long_string = false;
@@ -641,12 +660,12 @@ class IonWriterSystemText
         {
             // Timestamp is ASCII-safe so this is easy
             _output.appendAscii('"');
-            _output.appendAscii(value.toString());
+            _output.printTimestamp(value);
             _output.appendAscii('"');
         }
         else
         {
-            _output.appendAscii(value.toString());
+            _output.printTimestamp(value);
         }
 
         closeValue();
@@ -112,8 +112,14 @@ class LocalSymbolTable
 
     /**
      * Whether this symbol table is read only, and thus, immutable.
+     * <p>
+     * This is set within the monitor, after every change to the symbols.
+     * Threads that see it set can therefore read the symbols without taking
+     * the monitor, which read-only tables shared by many threads rely on.
+     * Mutable tables are still read and written within the monitor, since
+     * {@link #mySymbolsMap} can't be read while another thread adds to it.
      */
-    private boolean isReadOnly;
+    private volatile boolean isReadOnly;
 
     /**
      * The local symbol names declared in this symtab; never null.
@@ -318,9 +324,20 @@ class LocalSymbolTable
         }
         reader.stepOut();
         if (isAppend && currentSymbolTable.isLocalTable()) {
+            LocalSymbolTable currentLocalSymbolTable = (LocalSymbolTable) currentSymbolTable;
+            if (currentLocalSymbolTable.isReadOnly()) {
+                // The current table may be shared, as by a symbol table
+                // cache, so the result is a new table with its symbols
+                // followed by the appended ones.
+                List<String> appended = new ArrayList<String>(symbolsListOut);
+                symbolsListOut.clear();
+                symbolsListOut.addAll(Arrays.asList(currentLocalSymbolTable.mySymbolNames)
+                                            .subList(0, currentLocalSymbolTable.mySymbolsCount));
+                symbolsListOut.addAll(appended);
+                return currentLocalSymbolTable.myImportsList;
+            }
             // Because the current symbol table is a local symbol table (i.e. not the system symbol table), it can
             // be appended in-place.
-            LocalSymbolTable currentLocalSymbolTable = (LocalSymbolTable) currentSymbolTable;
             for (String newSymbol : symbolsListOut) {
                 currentLocalSymbolTable.putSymbol(newSymbol);
             }
@@ -359,7 +376,7 @@ class LocalSymbolTable
         return false;
     }
 
-    public synchronized boolean isReadOnly()
+    public boolean isReadOnly()
     {
         return isReadOnly;
     }
@@ -374,10 +391,17 @@ class LocalSymbolTable
         return myImportsList.getMaxId();
     }
 
-    public synchronized int getMaxId()
+    public int getMaxId()
     {
-        int maxid = mySymbolsCount + myImportsList.getMaxId();
-        return maxid;
+        if (isReadOnly)
+        {
+            return mySymbolsCount + myImportsList.getMaxId();
+        }
+        synchronized (this)
+        {
+            int maxid = mySymbolsCount + myImportsList.getMaxId();
+            return maxid;
+        }
     }
 
     public int getVersion()
@@ -396,9 +420,16 @@ class LocalSymbolTable
         return system_table.getIonVersionId();
     }
 
-    public synchronized Iterator<String> iterateDeclaredSymbolNames()
+    public Iterator<String> iterateDeclaredSymbolNames()
     {
-        return new SymbolIterator(mySymbolNames, mySymbolsCount);
+        if (isReadOnly)
+        {
+            return new SymbolIterator(mySymbolNames, mySymbolsCount);
+        }
+        synchronized (this)
+        {
+            return new SymbolIterator(mySymbolNames, mySymbolsCount);
+        }
     }
 
     public String findKnownSymbol(int id)
@@ -419,10 +450,17 @@ class LocalSymbolTable
             int offset = id - myFirstLocalSid;
 
             String[] names;
-            synchronized (this)
+            if (isReadOnly)
             {
                 names = mySymbolNames;
             }
+            else
+            {
+                synchronized (this)
+                {
+                    names = mySymbolNames;
+                }
+            }
 
             if (offset < names.length)
             {
@@ -450,10 +488,17 @@ class LocalSymbolTable
     private int findLocalSymbol(String name)
     {
         Integer isid;
-        synchronized (this)
+        if (isReadOnly)
         {
             isid = mySymbolsMap.get(name);
         }
+        else
+        {
+            synchronized (this)
+            {
+                isid = mySymbolsMap.get(name);
+            }
+        }
 
         if (isid != null)
         {
@@ -464,16 +509,26 @@ class LocalSymbolTable
     }
 
 
-    public synchronized SymbolToken intern(String text)
+    public SymbolToken intern(String text)
     {
-        SymbolToken is = find(text);
-        if (is == null)
+        if (isReadOnly)
+        {
+            SymbolToken is = find(text);
+            if (is != null) return is;
+            // Otherwise fail as below.
+        }
+
+        synchronized (this)
         {
-            validateSymbol(text);
-            int sid = putSymbol(text);
-            is = new SymbolTokenImpl(text, sid);
+            SymbolToken is = find(text);
+            if (is == null)
+            {
+                validateSymbol(text);
+                int sid = putSymbol(text);
+                is = new SymbolTokenImpl(text, sid);
+            }
+            return is;
         }
-        return is;
     }
 
     public SymbolToken find(String text)
@@ -488,11 +543,19 @@ class LocalSymbolTable
         {
             Integer  sid;
             String[] names;
-            synchronized (this)
+            if (isReadOnly)
             {
                 sid = mySymbolsMap.get(text);
                 names = mySymbolNames;
             }
+            else
+            {
+                synchronized (this)
+                {
+                    sid = mySymbolsMap.get(text);
+                    names = mySymbolNames;
+                }
+            }
 
             if (sid != null)
             {
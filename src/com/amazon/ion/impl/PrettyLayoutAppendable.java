@@ -0,0 +1,479 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.impl._Private_IonConstants.isHighSurrogate;
+import static com.amazon.ion.impl._Private_IonConstants.isLowSurrogate;
+
+import com.amazon.ion.util._Private_FastAppendable;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Line-breaking layer used by {@link IonWriterSystemText} when pretty-printing
+ * with a compact container width.
+ * <p>
+ * Line breaks are requested through {@link #lineBreak(int, boolean)} and are
+ * rendered as the line separator followed by a precomputed
+ * {@link Indentation} for the given depth, so each break is a single append.
+ * <p>
+ * When a positive width is given, containers are laid out in a single pass
+ * with bounded lookahead: output from the start of a container is held back
+ * until either the container ends, in which case it's written on one line,
+ * or its single-line rendering exceeds the width, in which case the held text
+ * is written with line breaks and the innermost container still open gets its
+ * own chance to fit. At most roughly {@code width} characters are buffered.
+ */
+final class PrettyLayoutAppendable
+    implements _Private_FastAppendable, Closeable, Flushable
+{
+    private static final String INDENT = "  ";
+
+    /**
+     * Line separator plus indentation, indexed by depth; grown on demand.
+     */
+    static final class Indentation
+    {
+        private final String myLineSeparator;
+        private String[] myIndents = new String[0];
+
+        Indentation(CharSequence lineSeparator)
+        {
+            myLineSeparator = lineSeparator.toString();
+        }
+
+        String forDepth(int depth)
+        {
+            if (depth >= myIndents.length)
+            {
+                String[] temp = new String[Math.max(depth + 1, myIndents.length * 2)];
+                System.arraycopy(myIndents, 0, temp, 0, myIndents.length);
+                myIndents = temp;
+            }
+            String indent = myIndents[depth];
+            if (indent == null)
+            {
+                StringBuilder b = new StringBuilder(myLineSeparator.length() + depth * INDENT.length());
+                b.append(myLineSeparator);
+                for (int i = 0; i < depth; i++)
+                {
+                    b.append(INDENT);
+                }
+                indent = b.toString();
+                myIndents[depth] = indent;
+            }
+            return indent;
+        }
+    }
+
+    private final _Private_FastAppendable myOut;
+    private final Indentation myIndentation;
+    private final int myWidth;
+
+    /** Text held back while deciding whether a container fits on one line. */
+    private final StringBuilder myBuffer = new StringBuilder();
+
+    /**
+     * Pending line breaks within {@link #myBuffer}, in order. Breaks inside
+     * a container that ended while held are marked compact, since such a
+     * container fit on one line.
+     */
+    private int[]     myBreakOffsets = new int[16];
+    private int[]     myBreakDepths  = new int[16];
+    private boolean[] myBreakSpaced  = new boolean[16];
+    private boolean[] myBreakCompact = new boolean[16];
+    private int       myBreakCount;
+
+    /**
+     * Open containers, outermost first. Offsets are -1 for containers whose
+     * start has already been written out.
+     */
+    private int[] myOpenOffsets = new int[10];
+    private int[] myOpenBreaks  = new int[10];
+    private int   myOpenCount;
+
+    /**
+     * Index in the open-container stack of the outermost container that may
+     * still be written on one line, or -1 when nothing is being held back.
+     */
+    private int myRoot = -1;
+
+    /** Single-line width of the held text, starting from the root's opener. */
+    private int myRootWidth;
+
+
+    /**
+     * @param width the width within which a container is written on one
+     * line; zero or less disables single-line containers.
+     */
+    PrettyLayoutAppendable(_Private_FastAppendable out,
+                           Indentation indentation,
+                           int width)
+    {
+        out.getClass(); // Efficient null check
+
+        myOut = out;
+        myIndentation = indentation;
+        myWidth = width;
+    }
+
+
+    /**
+     * Called immediately before a container's opening delimiter is written.
+     */
+    void startContainer()
+    {
+        if (myOpenCount == myOpenOffsets.length)
+        {
+            int newlen = myOpenCount * 2;
+            int[] temp1 = new int[newlen];
+            int[] temp2 = new int[newlen];
+            System.arraycopy(myOpenOffsets, 0, temp1, 0, myOpenCount);
+            System.arraycopy(myOpenBreaks,  0, temp2, 0, myOpenCount);
+            myOpenOffsets = temp1;
+            myOpenBreaks  = temp2;
+        }
+
+        if (myWidth > 0 && myRoot < 0)
+        {
+            myRoot = myOpenCount;
+            myRootWidth = 0;
+        }
+
+        myOpenOffsets[myOpenCount] = (myRoot < 0 ? -1 : myBuffer.length());
+        myOpenBreaks [myOpenCount] = myBreakCount;
+        myOpenCount++;
+    }
+
+    /**
+     * Called immediately after a container's closing delimiter is written.
+     */
+    void endContainer()
+        throws IOException
+    {
+        myOpenCount--;
+        if (myOpenCount == myRoot)
+        {
+            // The root fit within the width, or we'd have moved on from it.
+            writeHeld(myBuffer.length(), myBreakCount, false);
+            reset();
+        }
+        else if (myOpenOffsets[myOpenCount] >= 0)
+        {
+            // A nested container ended while held, so it fits regardless of
+            // what happens to its parent.
+            for (int b = myOpenBreaks[myOpenCount]; b < myBreakCount; b++)
+            {
+                myBreakCompact[b] = true;
+            }
+        }
+    }
+
+    /**
+     * Requests a line break followed by indentation for the given depth.
+     *
+     * @param spaced whether a single-line rendering needs a space here,
+     * that is, whether this break separates two values.
+     */
+    void lineBreak(int depth, boolean spaced)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.appendAscii(myIndentation.forDepth(depth));
+            return;
+        }
+
+        if (myBreakCount == myBreakOffsets.length)
+        {
+            int newlen = myBreakCount * 2;
+            int[] temp1 = new int[newlen];
+            int[] temp2 = new int[newlen];
+            boolean[] temp3 = new boolean[newlen];
+            boolean[] temp4 = new boolean[newlen];
+            System.arraycopy(myBreakOffsets, 0, temp1, 0, myBreakCount);
+            System.arraycopy(myBreakDepths,  0, temp2, 0, myBreakCount);
+            System.arraycopy(myBreakSpaced,  0, temp3, 0, myBreakCount);
+            System.arraycopy(myBreakCompact, 0, temp4, 0, myBreakCount);
+            myBreakOffsets = temp1;
+            myBreakDepths  = temp2;
+            myBreakSpaced  = temp3;
+            myBreakCompact = temp4;
+        }
+        myBreakOffsets[myBreakCount] = myBuffer.length();
+        myBreakDepths [myBreakCount] = depth;
+        myBreakSpaced [myBreakCount] = spaced;
+        myBreakCompact[myBreakCount] = false;
+        myBreakCount++;
+
+        if (spaced)
+        {
+            myRootWidth++;
+            checkWidth();
+        }
+    }
+
+
+    private void reset()
+    {
+        myBuffer.setLength(0);
+        myBreakCount = 0;
+        myRoot = -1;
+        myRootWidth = 0;
+    }
+
+    /**
+     * Gives up on single-line rendering for roots that no longer fit,
+     * writing their held text with line breaks.
+     */
+    private void checkWidth()
+        throws IOException
+    {
+        while (myRoot >= 0 && myRootWidth > myWidth)
+        {
+            int next = myRoot + 1;
+            if (next < myOpenCount)
+            {
+                // Write everything up to the next open container, which
+                // becomes the new root.
+                int offset = myOpenOffsets[next];
+                int breaks = myOpenBreaks[next];
+                writeHeld(offset, breaks, true);
+                myOpenOffsets[myRoot] = -1;
+                myRoot = next;
+
+                myRootWidth = myBuffer.length() - offset;
+                for (int i = breaks; i < myBreakCount; i++)
+                {
+                    if (myBreakSpaced[i]) myRootWidth++;
+                }
+            }
+            else
+            {
+                writeHeld(myBuffer.length(), myBreakCount, true);
+                myOpenOffsets[myRoot] = -1;
+                reset();
+            }
+        }
+    }
+
+    /**
+     * Writes held text from the root's opener up to the given offset,
+     * rendering the line breaks before {@code breakLimit}.
+     */
+    private void writeHeld(int end, int breakLimit, boolean pretty)
+        throws IOException
+    {
+        int pos = myOpenOffsets[myRoot];
+        int b = myOpenBreaks[myRoot];
+        for (; b < breakLimit; b++)
+        {
+            int offset = myBreakOffsets[b];
+            writeText(pos, offset);
+            pos = offset;
+            if (pretty && !myBreakCompact[b])
+            {
+                myOut.appendAscii(myIndentation.forDepth(myBreakDepths[b]));
+            }
+            else if (myBreakSpaced[b])
+            {
+                myOut.appendAscii(' ');
+            }
+        }
+        writeText(pos, end);
+    }
+
+    private void writeText(int start, int end)
+        throws IOException
+    {
+        StringBuilder buf = myBuffer;
+        int i = start;
+        while (i < end)
+        {
+            int j = i;
+            while (j < end && buf.charAt(j) < 0x80) j++;
+            if (j > i)
+            {
+                myOut.appendAscii(buf, i, j);
+                i = j;
+                continue;
+            }
+
+            char c = buf.charAt(i++);
+            if (isHighSurrogate(c) && i < end && isLowSurrogate(buf.charAt(i)))
+            {
+                myOut.appendUtf16Surrogate(c, buf.charAt(i++));
+            }
+            else
+            {
+                myOut.appendUtf16(c);
+            }
+        }
+    }
+
+    private void held(int length)
+        throws IOException
+    {
+        myRootWidth += length;
+        checkWidth();
+    }
+
+
+    //=========================================================================
+    // _Private_FastAppendable methods
+
+    public Appendable append(char c)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.append(c);
+        }
+        else
+        {
+            myBuffer.append(c);
+            held(1);
+        }
+        return this;
+    }
+
+    public Appendable append(CharSequence csq)
+        throws IOException
+    {
+        append(csq, 0, csq.length());
+        return this;
+    }
+
+    public Appendable append(CharSequence csq, int start, int end)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.append(csq, start, end);
+        }
+        else
+        {
+            myBuffer.append(csq, start, end);
+            held(end - start);
+        }
+        return this;
+    }
+
+    public void appendAscii(char c)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.appendAscii(c);
+        }
+        else
+        {
+            myBuffer.append(c);
+            held(1);
+        }
+    }
+
+    public void appendAscii(CharSequence csq)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.appendAscii(csq);
+        }
+        else
+        {
+            myBuffer.append(csq);
+            held(csq.length());
+        }
+    }
+
+    public void appendAscii(CharSequence csq, int start, int end)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.appendAscii(csq, start, end);
+        }
+        else
+        {
+            myBuffer.append(csq, start, end);
+            held(end - start);
+        }
+    }
+
+    public void appendUtf16(char c)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.appendUtf16(c);
+        }
+        else
+        {
+            myBuffer.append(c);
+            held(1);
+        }
+    }
+
+    public void appendUtf16Surrogate(char leadSurrogate, char trailSurrogate)
+        throws IOException
+    {
+        if (myRoot < 0)
+        {
+            myOut.appendUtf16Surrogate(leadSurrogate, trailSurrogate);
+        }
+        else
+        {
+            myBuffer.append(leadSurrogate).append(trailSurrogate);
+            held(1);
+        }
+    }
+
+
+    /**
+     * Flushes the underlying output. Text held back for an unfinished
+     * container stays buffered until its layout is decided.
+     */
+    public void flush()
+        throws IOException
+    {
+        if (myOut instanceof Flushable)
+        {
+            ((Flushable) myOut).flush();
+        }
+    }
+
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            if (myRoot >= 0)
+            {
+                writeHeld(myBuffer.length(), myBreakCount, true);
+                reset();
+            }
+        }
+        finally
+        {
+            if (myOut instanceof Closeable)
+            {
+                ((Closeable) myOut).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SharedSymbolFieldReader;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import java.util.Arrays;
+
+
+/**
+ * Implements {@link SharedSymbolFieldReader} over the public API of a
+ * reader.
+ * <p>
+ * When the reader's field IDs refer to its current symbol table, local IDs
+ * in the range of an import of the shared table are translated by offset.
+ * Other local IDs are resolved to text once per symbol table and
+ * remembered, since a local symbol may repeat a shared symbol's text.
+ */
+final class SharedSymbolFieldReaderFacet
+    implements SharedSymbolFieldReader
+{
+    /** Marks local IDs that haven't been resolved. */
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+
+    private final IonReader myReader;
+    private final boolean   myUseLocalIds;
+
+    // Translation state for one pair of local and shared tables.
+    private SymbolTable mySymtab;
+    private SymbolTable mySharedTable;
+    private int         myOffset;
+    private int         myLimit;
+    private int[]       myResolved;
+
+
+    /**
+     * @param useLocalIds whether the IDs of the reader's field name symbols
+     * are in its current symbol table; if false, field text is used.
+     */
+    SharedSymbolFieldReaderFacet(IonReader reader, boolean useLocalIds)
+    {
+        myReader = reader;
+        myUseLocalIds = useLocalIds;
+    }
+
+
+    public int getFieldId(SymbolTable sharedTable)
+    {
+        SymbolToken name = myReader.getFieldNameSymbol();
+        if (name == null) return UNKNOWN_SYMBOL_ID;
+
+        if (myUseLocalIds)
+        {
+            int localSid = name.getSid();
+            if (localSid > 0)
+            {
+                return translate(localSid, sharedTable);
+            }
+        }
+
+        if (name.getText() == null) return UNKNOWN_SYMBOL_ID;
+
+        return sharedTable.findSymbol(name.getText());
+    }
+
+
+    public IonType seekField(SymbolTable sharedTable, int[] sids)
+    {
+        if (! myReader.isInStruct())
+        {
+            throw new IllegalStateException("Reader is not in a struct");
+        }
+
+        IonType type;
+        while ((type = myReader.next()) != null)
+        {
+            int sid = getFieldId(sharedTable);
+            if (sid > 0)
+            {
+                for (int i = 0; i < sids.length; i++)
+                {
+                    if (sids[i] == sid) return type;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    private int translate(int localSid, SymbolTable sharedTable)
+    {
+        SymbolTable symtab = myReader.getSymbolTable();
+        if (symtab != mySymtab || sharedTable != mySharedTable)
+        {
+            prepare(symtab, sharedTable);
+        }
+
+        if (localSid > myOffset && localSid <= myLimit)
+        {
+            return localSid - myOffset;
+        }
+
+        if (localSid >= myResolved.length)
+        {
+            // The local table may have grown, as when writing.
+            int length = Math.max(localSid + 1, myResolved.length * 2);
+            int oldLength = myResolved.length;
+            myResolved = Arrays.copyOf(myResolved, length);
+            Arrays.fill(myResolved, oldLength, length, UNRESOLVED);
+        }
+
+        int sid = myResolved[localSid];
+        if (sid == UNRESOLVED)
+        {
+            String text = symtab.findKnownSymbol(localSid);
+            sid = (text == null ? UNKNOWN_SYMBOL_ID
+                                : sharedTable.findSymbol(text));
+            myResolved[localSid] = sid;
+        }
+        return sid;
+    }
+
+    /**
+     * Finds where the shared table is imported by the local table, if at
+     * all, and forgets the IDs resolved against other tables.
+     */
+    private void prepare(SymbolTable symtab, SymbolTable sharedTable)
+    {
+        mySymtab = symtab;
+        mySharedTable = sharedTable;
+        myOffset = 0;
+        myLimit = 0;
+
+        SymbolTable[] imports = symtab.getImportedTables();
+        if (imports != null)
+        {
+            SymbolTable system = symtab.getSystemSymbolTable();
+            int offset = (system == null ? 0 : system.getMaxId());
+            for (SymbolTable imported : imports)
+            {
+                if (isSameTable(imported, sharedTable))
+                {
+                    myOffset = offset;
+                    myLimit = offset + Math.min(imported.getMaxId(),
+                                                sharedTable.getMaxId());
+                    break;
+                }
+                offset += imported.getMaxId();
+            }
+        }
+
+        myResolved = new int[symtab.getMaxId() + 1];
+        Arrays.fill(myResolved, UNRESOLVED);
+    }
+
+    private static boolean isSameTable(SymbolTable imported,
+                                       SymbolTable sharedTable)
+    {
+        if (imported == sharedTable) return true;
+
+        return ! imported.isSubstitute()
+            && imported.getVersion() == sharedTable.getVersion()
+            && imported.getName().equals(sharedTable.getName());
+    }
+}
@@ -36,10 +36,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * An <em>immutable</em> shared symbol table, supporting (non-system) shared
@@ -68,22 +66,10 @@ final class SharedSymbolTable
 
     /**
      * The <b>singleton</b> instance of Ion 1.0 system symbol table.
-     * <p>
-     * TODO amzn/ion-java/issues/34 Optimize system symtabs by using our custom backing impl.
      */
-    private static final SymbolTable ION_1_0_SYSTEM_SYMTAB;
-    static
-    {
-        Map<String, Integer> systemSymbolsMap = new HashMap<String, Integer>();
-
-        for (int i = 0; i < SYSTEM_SYMBOLS.length; i++)
-        {
-            systemSymbolsMap.put(SYSTEM_SYMBOLS[i], i+1);
-        }
-
-        ION_1_0_SYSTEM_SYMTAB =
-            new SharedSymbolTable(ION, 1, SYSTEM_SYMBOLS, systemSymbolsMap);
-    }
+    private static final SymbolTable ION_1_0_SYSTEM_SYMTAB =
+        new SharedSymbolTable(ION, 1, SYSTEM_SYMBOLS,
+                              new _Private_SymbolTextMap(SYSTEM_SYMBOLS));
 
     /**
      * The name of this shared symbol table. If this is a system symbol
@@ -109,7 +95,7 @@ final class SharedSymbolTable
     /**
      * Map of symbol names to symbol ids of declared symbols.
      */
-    private final Map<String, Integer>          mySymbolsMap;
+    private final _Private_SymbolTextMap        mySymbolsMap;
 
     //==========================================================================
     // Private constructor(s) and static factory methods
@@ -117,7 +103,7 @@ final class SharedSymbolTable
 
     private SharedSymbolTable(String name, int version,
                               List<String> symbolsList,
-                              Map<String, Integer> symbolsMap)
+                              _Private_SymbolTextMap symbolsMap)
     {
         myName          = name;
         myVersion       = version;
@@ -129,7 +115,7 @@ final class SharedSymbolTable
 
     private SharedSymbolTable(String name, int version,
                               String[] symbolNames,
-                              Map<String, Integer> symbolsMap)
+                              _Private_SymbolTextMap symbolsMap)
     {
         myName          = name;
         myVersion       = version;
@@ -166,7 +152,8 @@ final class SharedSymbolTable
         }
 
         List<String> symbolsList = new ArrayList<String>();
-        Map<String, Integer> symbolsMap = new HashMap<String, Integer>();
+        _Private_SymbolTextMap symbolsMap = new _Private_SymbolTextMap(
+            priorSymtab == null ? 0 : priorSymtab.getMaxId());
 
         assert version ==
             (priorSymtab == null ? 1 : priorSymtab.getVersion() + 1);
@@ -303,17 +290,9 @@ final class SharedSymbolTable
         // least 1, treat it as 1.
         version = (version < 1) ? 1 : version;
 
-        Map<String, Integer> symbolsMap = null;
-        if (! symbolsList.isEmpty())
-        {
-            symbolsMap = new HashMap<String, Integer>();
-            transferNonExistingSymbols(symbolsList, symbolsMap);
-        }
-        else
-        {
-            // Empty Map is more efficient than an empty HashMap
-            symbolsMap = Collections.emptyMap();
-        }
+        _Private_SymbolTextMap symbolsMap =
+            new _Private_SymbolTextMap(symbolsList.size());
+        transferNonExistingSymbols(symbolsList, symbolsMap);
 
         // We have all necessary data, pass it over to the private constructor.
         return new SharedSymbolTable(name, version, symbolsList, symbolsMap);
@@ -344,20 +323,12 @@ final class SharedSymbolTable
     // Static methods relating to construction
     //==========================================================================
 
-    private static void putToMapIfNotThere(Map<String, Integer> symbolsMap,
+    private static void putToMapIfNotThere(_Private_SymbolTextMap symbolsMap,
                                            String text, int sid)
     {
-        // When there's a duplicate mapping for the symbol text, don't
-        // replace the lower sid. This pattern avoids double-lookup in the
-        // common scenario and only performs a second lookup when there's
-        // a duplicate.
-        Integer extantSid = symbolsMap.put(text, sid);
-        if (extantSid != null)
-        {
-            // We always insert symbols with increasing sids
-            assert extantSid < sid;
-            symbolsMap.put(text, extantSid);
-        }
+        // When there's a duplicate mapping for the symbol text, the lower
+        // sid is kept. We always insert symbols with increasing sids.
+        symbolsMap.add(text, sid);
     }
 
     /**
@@ -368,7 +339,7 @@ final class SharedSymbolTable
     private static void
     prepSymbolsListAndMap(SymbolTable priorSymtab, Iterator<String> symbols,
                           List<String> symbolsList,
-                          Map<String, Integer> symbolsMap)
+                          _Private_SymbolTextMap symbolsMap)
     {
         int sid = 1;
 
@@ -399,9 +370,8 @@ final class SharedSymbolTable
         {
             String text = symbols.next();
             // TODO amzn/ion-java/issues/12 What about empty symbols?
-            if (symbolsMap.get(text) == null)
+            if (symbolsMap.add(text, sid))
             {
-                putToMapIfNotThere(symbolsMap, text, sid);
                 symbolsList.add(text);
                 sid++;
             }
@@ -414,7 +384,7 @@ final class SharedSymbolTable
      */
     private static void
     transferNonExistingSymbols(List<String> symbolsList,
-                               Map<String, Integer> symbolsMap)
+                               _Private_SymbolTextMap symbolsMap)
     {
         int sid = 1;
         for (String text : symbolsList)
@@ -528,11 +498,9 @@ final class SharedSymbolTable
     {
         text.getClass(); // fast null check
 
-        Integer sid = mySymbolsMap.get(text);
-        if (sid != null)
+        int sid = mySymbolsMap.get(text);
+        if (sid != UNKNOWN_SYMBOL_ID)
         {
-            assert sid != UNKNOWN_SYMBOL_ID;
-
             int offset = sid - 1;
             String internedText = mySymbolNames[offset];
 
@@ -546,13 +514,7 @@ final class SharedSymbolTable
 
     public int findSymbol(String name)
     {
-        Integer sid = mySymbolsMap.get(name);
-        if (sid != null)
-        {
-            return sid;
-        }
-
-        return UNKNOWN_SYMBOL_ID;
+        return mySymbolsMap.get(name);
     }
 
     public String findKnownSymbol(int id)
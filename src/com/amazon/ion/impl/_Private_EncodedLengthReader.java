@@ -0,0 +1,33 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonReader;
+
+/**
+ * An {@link IonReader} {@linkplain com.amazon.ion.facet facet} of binary
+ * readers that reports how many bytes encode the current value.
+ * Loaders use this to size containers before reading their children.
+ */
+public interface _Private_EncodedLengthReader
+{
+    /**
+     * @return the number of bytes encoding the current value, including its
+     * type descriptor, length and annotations but not its field name;
+     * or -1 if there's no current value.
+     */
+    public long getEncodedLength();
+}
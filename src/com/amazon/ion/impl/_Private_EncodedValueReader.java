@@ -0,0 +1,35 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonReader;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link IonReader} {@linkplain com.amazon.ion.facet facet} of binary
+ * readers over byte arrays that exposes the bytes encoding the current
+ * value. Symbol table caches use this to recognize tables they've already
+ * built.
+ */
+public interface _Private_EncodedValueReader
+{
+    /**
+     * @return a read-only view of the bytes encoding the current value,
+     * including its type descriptor, length and annotations but not its
+     * field name; or null if there's no current value. The view is valid
+     * only until the reader moves.
+     */
+    public ByteBuffer getEncodedValue();
+}
@@ -223,6 +223,21 @@ public class _Private_IonBinaryWriterBuilder
         return b;
     }
 
+    @Override
+    public void setLocalSymbolTableLimits(int maxSymbols, int maxBytes)
+    {
+        super.setLocalSymbolTableLimits(maxSymbols, maxBytes);
+        myBinaryWriterBuilder.withLocalSymbolTableLimits(maxSymbols, maxBytes);
+    }
+
+    @Override
+    public _Private_IonBinaryWriterBuilder withLocalSymbolTableLimits(int maxSymbols, int maxBytes)
+    {
+        _Private_IonBinaryWriterBuilder b = mutable();
+        b.setLocalSymbolTableLimits(maxSymbols, maxBytes);
+        return b;
+    }
+
     @Override
     public void setIsFloatBinary32Enabled(boolean enabled) {
         mutationCheck();
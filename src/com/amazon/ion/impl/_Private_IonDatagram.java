@@ -16,13 +16,14 @@
 package com.amazon.ion.impl;
 
 import com.amazon.ion.IonDatagram;
+import com.amazon.ion.ReleasableDatagram;
 import com.amazon.ion.SymbolTable;
 
 /**
  * NOT FOR APPLICATION USE!
  */
 public interface _Private_IonDatagram
-    extends _Private_IonValue, IonDatagram
+    extends _Private_IonValue, IonDatagram, ReleasableDatagram
 {
     void appendTrailingSymbolTable(SymbolTable symtab);
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.SymbolToken;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * Internal, private, interfaces for looking up the fields of an IonStruct.
+ */
+public interface _Private_IonStruct
+    extends IonStruct
+{
+    /**
+     * Gets the value of a field in this struct, identified by a symbol.
+     * If the symbol has text, this is equivalent to {@link #get(String)}.
+     * Otherwise only fields whose names have unknown text are matched, on
+     * their symbol ID.
+     *
+     * @param fieldName the desired field.
+     * @return the value of the field, or <code>null</code> if it doesn't
+     * exist in this struct, or if this is {@code null.struct}.
+     * @throws NullPointerException if the <code>fieldName</code>
+     * is <code>null</code>.
+     * @throws IllegalArgumentException
+     *   if {@code fieldName} has neither text nor a symbol ID.
+     */
+    public IonValue getField(SymbolToken fieldName);
+}
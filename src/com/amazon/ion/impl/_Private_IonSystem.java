@@ -74,4 +74,13 @@ public interface _Private_IonSystem
      * @see IonSystemBuilder#isStreamCopyOptimized()
      */
     public boolean isStreamCopyOptimized();
+
+    /**
+     * Drops the container child arrays kept for reuse by the calling thread,
+     * as when a pooled thread is done loading data for a while.
+     * Has no effect unless child array recycling is enabled.
+     *
+     * @see IonSystemBuilder#setChildArrayRecyclingEnabled(boolean)
+     */
+    public void discardRecycledChildArrays();
 }
@@ -21,10 +21,11 @@ import static com.amazon.ion.impl._Private_IonConstants.isLowSurrogate;
 import static com.amazon.ion.impl._Private_IonConstants.makeUnicodeScalar;
 
 import com.amazon.ion.Decimal;
-import com.amazon.ion.impl.Base64Encoder.TextStream;
+import com.amazon.ion.Timestamp;
 import com.amazon.ion.system.IonTextWriterBuilder;
+import com.amazon.ion.util.IonTextUtils;
+import com.amazon.ion.util.IonTextUtils.SymbolVariant;
 import com.amazon.ion.util._Private_FastAppendable;
-import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
@@ -570,32 +571,144 @@ public final class _Private_IonTextAppender
         }
     }
 
+    /**
+     * Number of slots in the symbol rendering cache; must be a power of two.
+     */
+    private static final int SYMBOL_CACHE_SIZE = 512;
+
+    /**
+     * Direct-mapped cache of recently printed symbol text, indexed by the
+     * identity hash of the String. Allocated on first use.
+     */
+    private String[] mySymbolCacheKeys;
+    private SymbolVariant[] mySymbolCacheVariants;
+    /**
+     * The single-quoted, escaped rendering of each cached symbol, or null if
+     * the symbol never needs quotes or its rendering isn't pure ASCII.
+     */
+    private String[] mySymbolCacheQuoted;
+
+    /**
+     * Renders quoted symbols into {@link #myScratch} on cache misses.
+     * Allocated on first use.
+     */
+    private StringBuilder myScratch;
+    private _Private_IonTextAppender myScratchRenderer;
+
+    /**
+     * Print the text of a symbol, quoting it only when needed. The quoting
+     * decision and the escaped form are cached per String instance, so
+     * repeated field names and annotations are emitted with a single append.
+     *
+     * @param text must not be null.
+     * @param unquotedOperators indicates whether operator symbols like
+     * <code>!=</code> may be written without quotes, which is only the case
+     * inside s-expressions.
+     * @throws IOException
+     */
+    public final void printSymbolCached(String text, boolean unquotedOperators)
+        throws IOException
+    {
+        String[] keys = mySymbolCacheKeys;
+        if (keys == null)
+        {
+            keys = mySymbolCacheKeys = new String[SYMBOL_CACHE_SIZE];
+            mySymbolCacheVariants = new SymbolVariant[SYMBOL_CACHE_SIZE];
+            mySymbolCacheQuoted = new String[SYMBOL_CACHE_SIZE];
+        }
+
+        int slot = System.identityHashCode(text) & (SYMBOL_CACHE_SIZE - 1);
+        if (keys[slot] != text)
+        {
+            SymbolVariant variant = IonTextUtils.symbolVariant(text);
+            mySymbolCacheVariants[slot] = variant;
+            mySymbolCacheQuoted[slot] =
+                (variant == SymbolVariant.IDENTIFIER ? null : renderQuotedSymbol(text));
+            keys[slot] = text;
+        }
+
+        SymbolVariant variant = mySymbolCacheVariants[slot];
+        if (variant == SymbolVariant.IDENTIFIER
+            || (variant == SymbolVariant.OPERATOR && unquotedOperators))
+        {
+            appendAscii(text);
+        }
+        else
+        {
+            String quoted = mySymbolCacheQuoted[slot];
+            if (quoted != null)
+            {
+                appendAscii(quoted);
+            }
+            else
+            {
+                printQuotedSymbol(text);
+            }
+        }
+    }
+
+    /**
+     * @return the quoted and escaped text, or null if it contains non-ASCII
+     * characters and so can't be appended as ASCII.
+     */
+    private String renderQuotedSymbol(String text)
+        throws IOException
+    {
+        StringBuilder buf = myScratch;
+        if (buf == null)
+        {
+            buf = myScratch = new StringBuilder();
+            myScratchRenderer =
+                new _Private_IonTextAppender(new AppendableFastAppendable(buf),
+                                             escapeNonAscii);
+        }
+        buf.setLength(0);
+        myScratchRenderer.printQuotedSymbol(text);
+        for (int i = 0; i < buf.length(); i++)
+        {
+            if (buf.charAt(i) >= 0x80) return null;
+        }
+        return buf.toString();
+    }
+
     private final void printCodePoints(CharSequence text, String[] escapes)
         throws IOException
     {
         int len = text.length();
         for (int i = 0; i < len; ++i)
         {
-            // Find a span of non-escaped ASCII code points so we can write
-            // them as quickly as possible.
+            // Find a span of code points that are written unchanged so we can
+            // hand them to the appendable in one call. When we aren't escaping
+            // non-ASCII, that span includes BMP characters the appendable can
+            // encode in bulk; surrogates always take the slow path below so
+            // that unmatched ones are detected.
             char c = 0;
             int j;
+            boolean ascii = true;
             for (j = i; j < len; ++j) {
                 c = text.charAt(j);
+                if (c < 0x80) {
+                    if (escapes[c] != null) break;
+                }
                 // The escapes array always includes U+80 through U+FF.
-                if (c >= 0x100 || escapes[c] != null)
-                {
-                    // c is escaped and/or outside ASCII range.
-                    if (j > i) {
-                        appendAscii(text, i, j);
-                        i = j;
-                    }
+                else if (escapeNonAscii || c <= 0x9F
+                         || (c >= 0xD800 && c < 0xE000)) {
                     break;
                 }
+                else {
+                    ascii = false;
+                }
+            }
+            if (j > i) {
+                if (ascii) {
+                    appendAscii(text, i, j);
+                } else {
+                    myAppendable.append(text, i, j);
+                }
+                i = j;
             }
             if (j == len) {
-                // we've reached the end of sequence; append it and break
-                appendAscii(text, i, j);
+                // we've reached the end of sequence
                 break;
             }
 
@@ -872,10 +985,35 @@ public final class _Private_IonTextAppender
     }
 
 
+    //=========================================================================
+    // Timestamps
+
+
+    /**
+     * Prints the Ion text of a non-null timestamp directly to the output,
+     * without building an intermediate string.
+     */
+    public void printTimestamp(Timestamp value)
+        throws IOException
+    {
+        value.print(myAppendable);
+    }
+
+
     //=========================================================================
     // LOBs
 
 
+    /**
+     * Bytes encoded per append when printing blobs; a multiple of three so
+     * that only the last chunk is padded.
+     */
+    private static final int BASE64_CHUNK_BYTES = 3 * 1024;
+
+    /** ONLY FOR USE BY {@link #printBlob}; allocated on first use. */
+    private char[] _base64Buffer;
+    private CharBuffer _base64CharBuffer;
+
     public void printBlob(_Private_IonTextWriterBuilder _options,
                           byte[] value, int start, int len)
         throws IOException
@@ -886,15 +1024,6 @@ public final class _Private_IonTextAppender
             return;
         }
 
-        @SuppressWarnings("resource")
-        TextStream ts =
-            new TextStream(new ByteArrayInputStream(value, start, len));
-
-        // base64 encoding is 6 bits per char so
-        // it evens out at 3 bytes in 4 characters
-        char[] buf = new char[_options.isPrettyPrintOn() ? 80 : 400];
-        CharBuffer cb = CharBuffer.wrap(buf);
-
         if (_options._blob_as_string)
         {
             appendAscii('"');
@@ -908,12 +1037,18 @@ public final class _Private_IonTextAppender
             }
         }
 
-        for (;;)
+        if (_base64Buffer == null)
+        {
+            _base64Buffer = new char[Base64Encoder.encodedLength(BASE64_CHUNK_BYTES)];
+            _base64CharBuffer = CharBuffer.wrap(_base64Buffer);
+        }
+
+        int end = start + len;
+        for (int pos = start; pos < end; pos += BASE64_CHUNK_BYTES)
         {
-            // TODO is it better to fill up the CharBuffer before outputting?
-            int clen = ts.read(buf, 0, buf.length);
-            if (clen < 1) break;
-            appendAscii(cb, 0, clen);
+            int chunk = Math.min(end - pos, BASE64_CHUNK_BYTES);
+            int clen = Base64Encoder.encode(value, pos, chunk, _base64Buffer, 0);
+            appendAscii(_base64CharBuffer, 0, clen);
         }
 
         if (_options._blob_as_string)
@@ -21,6 +21,7 @@ import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl.bin._Private_PooledUtf8FastAppendable;
 import com.amazon.ion.system.IonSystemBuilder;
 import com.amazon.ion.system.IonTextWriterBuilder;
 import com.amazon.ion.system.SimpleCatalog;
@@ -232,7 +233,10 @@ public class _Private_IonTextWriterBuilder
     {
         _Private_IonTextWriterBuilder b = fillDefaults();
 
-        _Private_FastAppendable fast = new OutputStreamFastAppendable(out);
+        // Encode straight into a pooled block; it's returned to the pool when
+        // the writer is closed.
+        _Private_FastAppendable fast =
+            _Private_PooledUtf8FastAppendable.forOutputStream(out);
 
         return b.build(fast);
     }
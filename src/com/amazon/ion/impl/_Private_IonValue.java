@@ -93,6 +93,14 @@ public interface _Private_IonValue
      */
     public SymbolTable getAssignedSymbolTable();
 
+    /**
+     * Returns this value's hash code if it has already been computed and
+     * cached, which happens only once the value is read-only.
+     *
+     * @return the cached {@link #hashCode()}, or zero if there isn't one.
+     */
+    public int cachedHashCode();
+
     public void dump(PrintWriter out);
 
     public String validate();
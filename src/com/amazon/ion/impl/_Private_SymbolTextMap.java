@@ -0,0 +1,174 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * Maps symbol text to symbol IDs for symbol tables that don't change once
+ * built. Entries are held in flat, open-addressed arrays along with the
+ * hash of their text, so a lookup usually takes one probe, compares hashes
+ * before text, and doesn't box the symbol ID.
+ * <p>
+ * Instances aren't safe for use by multiple threads while being filled,
+ * but are once they're safely published and no longer modified.
+ */
+public final class _Private_SymbolTextMap
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private String[] myTexts;
+    private int[]    myHashes;
+    private int[]    mySids;
+    private int      mySize;
+
+
+    /**
+     * @param expectedSize the number of symbols that may be added without
+     * growing the map.
+     */
+    public _Private_SymbolTextMap(int expectedSize)
+    {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2 && capacity > 0)
+        {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Creates a map of the given symbols, where the symbol at index {@code i}
+     * has the ID {@code i + 1}. Null elements are skipped, and the lowest ID
+     * is kept for duplicate text.
+     */
+    public _Private_SymbolTextMap(String[] symbols)
+    {
+        this(symbols.length);
+        for (int i = 0; i < symbols.length; i++)
+        {
+            if (symbols[i] != null)
+            {
+                add(symbols[i], i + 1);
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        myTexts  = new String[capacity];
+        myHashes = new int[capacity];
+        mySids   = new int[capacity];
+    }
+
+    private static int spread(int hash)
+    {
+        // Strings with similar text have similar low bits.
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * Maps text to a symbol ID, unless the text is already mapped.
+     *
+     * @return true if the mapping was added; false if the text was already
+     * mapped, in which case the map is unchanged.
+     */
+    public boolean add(String text, int sid)
+    {
+        // Keep the arrays at most half full so probe sequences stay short.
+        if ((mySize + 1) * 2 > myTexts.length)
+        {
+            grow();
+        }
+
+        int hash = text.hashCode();
+        int mask = myTexts.length - 1;
+        int i = spread(hash) & mask;
+        String extant;
+        while ((extant = myTexts[i]) != null)
+        {
+            if (myHashes[i] == hash && extant.equals(text))
+            {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        myTexts[i]  = text;
+        myHashes[i] = hash;
+        mySids[i]   = sid;
+        mySize++;
+        return true;
+    }
+
+    private void grow()
+    {
+        String[] texts = myTexts;
+        int[]    hashes = myHashes;
+        int[]    sids = mySids;
+        allocate(texts.length * 2);
+
+        int mask = myTexts.length - 1;
+        for (int j = 0; j < texts.length; j++)
+        {
+            if (texts[j] != null)
+            {
+                int i = spread(hashes[j]) & mask;
+                while (myTexts[i] != null)
+                {
+                    i = (i + 1) & mask;
+                }
+                myTexts[i]  = texts[j];
+                myHashes[i] = hashes[j];
+                mySids[i]   = sids[j];
+            }
+        }
+    }
+
+
+    /**
+     * @return the symbol ID mapped from the text, or
+     * {@link com.amazon.ion.SymbolTable#UNKNOWN_SYMBOL_ID} if there's none.
+     */
+    public int get(String text)
+    {
+        int hash = text.hashCode();
+        String[] texts = myTexts;
+        int mask = texts.length - 1;
+        int i = spread(hash) & mask;
+        String extant;
+        while ((extant = texts[i]) != null)
+        {
+            if (myHashes[i] == hash && (extant == text || extant.equals(text)))
+            {
+                return mySids[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return UNKNOWN_SYMBOL_ID;
+    }
+
+    /**
+     * @return the number of symbols mapped.
+     */
+    public int size()
+    {
+        return mySize;
+    }
+}
@@ -833,6 +833,15 @@ public final class _Private_Utils
         return new LocalSymbolTableAsStruct.Factory(imageFactory);
     }
 
+    /**
+     * @return the factory that readers use to build local symbol tables,
+     * unless given another.
+     */
+    public static _Private_LocalSymbolTableFactory defaultLstFactory()
+    {
+        return LocalSymbolTable.DEFAULT_LST_FACTORY;
+    }
+
     /**
      * Returns a minimal symtab that, either system or local depending on the
      * given values, that supports representation as an IonStruct. If the
@@ -33,6 +33,9 @@ import static java.util.Collections.unmodifiableList;
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonType;
+import com.amazon.ion.LocalSymbolTableStatistics;
+import com.amazon.ion.SymbolHandle;
+import com.amazon.ion.SymbolHandleWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
@@ -54,7 +57,8 @@ import java.util.Map;
 
 /** Wraps {@link IonRawBinaryWriter} with symbol table management. */
 @SuppressWarnings("deprecation")
-/*package*/ final class IonManagedBinaryWriter extends AbstractIonWriter implements _Private_IonManagedWriter
+/*package*/ final class IonManagedBinaryWriter extends AbstractIonWriter
+    implements _Private_IonManagedWriter, LocalSymbolTableStatistics, SymbolHandleWriter
 {
     private interface SymbolResolver
     {
@@ -160,10 +164,10 @@ import java.util.Map;
                             {
                                 for (final ImportTablePosition tableImport : imports)
                                 {
-                                    final SymbolToken token = tableImport.table.find(text);
-                                    if (token != null)
+                                    final int sid = tableImport.table.findSymbol(text);
+                                    if (sid > 0)
                                     {
-                                        return symbol(text, token.getSid() + tableImport.startId - 1);
+                                        return symbol(text, sid + tableImport.startId - 1);
                                     }
                                 }
                                 return null;
@@ -186,9 +190,11 @@ import java.util.Map;
         public final List<SymbolTable>          parents;
         public final SymbolResolver             importedSymbols;
         public final int                        localSidStart;
+        /*package*/ final ImportedSymbolResolverMode mode;
 
         /*package*/ ImportedSymbolContext(final ImportedSymbolResolverMode mode, final List<SymbolTable> imports)
         {
+            this.mode = mode;
 
             final List<SymbolTable> mutableParents = new ArrayList<SymbolTable>(imports.size());
 
@@ -215,10 +221,125 @@ import java.util.Map;
             this.importedSymbols = builder.build();
             this.localSidStart = maxSid;
         }
+
+        /** Imports with more symbols than this are delegated to rather than copied. */
+        /*package*/ static final int MAX_FLAT_SYMBOLS = 1 << 18;
+
+        /*package*/ static ImportedSymbolResolverMode chooseMode(final List<SymbolTable> imports)
+        {
+            int tableCount = 0;
+            long symbolCount = 0;
+            for (final SymbolTable st : imports)
+            {
+                if (!st.isSystemTable())
+                {
+                    tableCount++;
+                    symbolCount += st.getMaxId();
+                }
+            }
+            return tableCount > 1 && symbolCount <= MAX_FLAT_SYMBOLS
+                ? ImportedSymbolResolverMode.FLAT
+                : ImportedSymbolResolverMode.DELEGATE;
+        }
     }
     /*package*/ static final ImportedSymbolContext ONLY_SYSTEM_IMPORTS =
         new ImportedSymbolContext(ImportedSymbolResolverMode.FLAT, Collections.<SymbolTable>emptyList());
 
+    /**
+     * Shares import contexts among the writers of one builder and its copies, keyed by the identity of the
+     * imported tables, which are immutable.
+     * A context is first built to delegate to its tables, and is flattened only when the same tables are
+     * imported again, so imports that are used once never pay for the copy.
+     * The least recently used contexts are dropped once the cache is full.
+     */
+    /*package*/ static final class ImportedSymbolContextCache
+    {
+        /** The most contexts kept by one cache. */
+        /*package*/ static final int MAX_CACHED_CONTEXTS = 64;
+
+        /** Identifies a list of imports by the identity of its tables, which are immutable. */
+        private static final class ImportsKey
+        {
+            private final SymbolTable[] tables;
+            private final int           hash;
+
+            ImportsKey(final List<SymbolTable> imports)
+            {
+                tables = imports.toArray(new SymbolTable[imports.size()]);
+                int h = 1;
+                for (final SymbolTable table : tables)
+                {
+                    h = 31 * h + System.identityHashCode(table);
+                }
+                hash = h;
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(final Object other)
+            {
+                final SymbolTable[] otherTables = ((ImportsKey) other).tables;
+                if (otherTables.length != tables.length)
+                {
+                    return false;
+                }
+                for (int i = 0; i < tables.length; i++)
+                {
+                    if (otherTables[i] != tables[i])
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        private final Map<ImportsKey, ImportedSymbolContext> contexts =
+            new LinkedHashMap<ImportsKey, ImportedSymbolContext>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<ImportsKey, ImportedSymbolContext> eldest)
+                {
+                    return size() > MAX_CACHED_CONTEXTS;
+                }
+            };
+
+        /**
+         * Returns an import context for the given imports, building it the first time.
+         * Symbols are flattened into one map once the imports are reused, when there are several imports of
+         * moderate total size, so a lookup takes one probe instead of one per import.
+         */
+        /*package*/ synchronized ImportedSymbolContext forImports(final List<SymbolTable> imports)
+        {
+            if (imports.isEmpty())
+            {
+                return ONLY_SYSTEM_IMPORTS;
+            }
+
+            final ImportsKey key = new ImportsKey(imports);
+            ImportedSymbolContext context = contexts.get(key);
+            if (context == null)
+            {
+                context = new ImportedSymbolContext(ImportedSymbolResolverMode.DELEGATE, imports);
+                contexts.put(key, context);
+            }
+            else if (context.mode == ImportedSymbolResolverMode.DELEGATE
+                     && ImportedSymbolContext.chooseMode(imports) == ImportedSymbolResolverMode.FLAT)
+            {
+                context = new ImportedSymbolContext(ImportedSymbolResolverMode.FLAT, imports);
+                contexts.put(key, context);
+            }
+            return context;
+        }
+    }
+
     private enum SymbolState {
         SYSTEM_SYMBOLS
         {
@@ -379,8 +500,7 @@ import java.util.Map;
                         self.finish();
 
                         // replace the symbol table context with the user provided one
-                        // TODO determine if the resolver mode should be configurable for this use case
-                        self.imports = new ImportedSymbolContext(ImportedSymbolResolverMode.DELEGATE, self.userImports);
+                        self.imports = self.importContexts.forImports(self.userImports);
                     }
 
                     // explicitly start the local symbol table with no version marker
@@ -642,6 +762,7 @@ import java.util.Map;
 
     private final IonCatalog                    catalog;
     private final ImportedSymbolContext         bootstrapImports;
+    private final ImportedSymbolContextCache    importContexts;
 
     private ImportedSymbolContext               imports;
     private final Map<String, SymbolToken>      locals;
@@ -654,6 +775,16 @@ import java.util.Map;
     private UserState                           userState;
     private SymbolState                         symbolState;
 
+    // identifies the symbol table context that symbol handles were resolved in
+    private long                                symbolContext;
+
+    // bounds on the local symbols of one context, or zero when unbounded
+    private final int                           localSymbolLimit;
+    private final int                           localSymbolTableByteLimit;
+    private int                                 localsByteSize;
+    private boolean                             rolloverPending;
+    private long                                rolloverCount;
+
     // local symbol table management for when user writes a local symbol table through us
     private long                                userSymbolTablePosition;
     private final List<SymbolTable>             userImports;
@@ -692,11 +823,18 @@ import java.util.Map;
 
         this.catalog = builder.catalog;
         this.bootstrapImports = builder.imports;
+        this.importContexts = builder.importContexts;
 
         this.locals = new LinkedHashMap<String, SymbolToken>();
         this.localsLocked = false;
         this.localSymbolTableView = new LocalSymbolTableView();
         this.symbolState = SymbolState.SYSTEM_SYMBOLS;
+        this.symbolContext = 0L;
+        this.localSymbolLimit = builder.localSymbolLimit;
+        this.localSymbolTableByteLimit = builder.localSymbolTableByteLimit;
+        this.localsByteSize = 0;
+        this.rolloverPending = false;
+        this.rolloverCount = 0L;
         this.closed = false;
 
         this.userState = UserState.NORMAL;
@@ -714,9 +852,7 @@ import java.util.Map;
         {
             // build import context from seeded LST
             final List<SymbolTable> lstImportList = Arrays.asList(lst.getImportedTables());
-            // TODO determine if the resolver mode should be configurable for this use case
-            final ImportedSymbolContext lstImports = new ImportedSymbolContext(ImportedSymbolResolverMode.DELEGATE, lstImportList);
-            this.imports = lstImports;
+            this.imports = importContexts.forImports(lstImportList);
 
             // intern all of the local symbols provided from LST
             final Iterator<String> symbolIter = lst.iterateDeclaredSymbolNames();
@@ -854,6 +990,7 @@ import java.util.Map;
                 locals.put(text, token);
 
                 symbols.writeString(text);
+                checkLocalSymbolLimits(text);
             }
             return token;
         }
@@ -863,6 +1000,75 @@ import java.util.Map;
         }
     }
 
+    /**
+     * Marks the local symbol table as due to be rolled over once the current
+     * top-level value is written, if it has reached its configured limits.
+     */
+    private void checkLocalSymbolLimits(final String text)
+    {
+        if (localSymbolTableByteLimit > 0)
+        {
+            // approximates the encoded size as the text plus a one-byte type descriptor
+            localsByteSize += utf8Length(text) + 1;
+            if (localsByteSize >= localSymbolTableByteLimit)
+            {
+                rolloverPending = true;
+            }
+        }
+        if (localSymbolLimit > 0 && locals.size() >= localSymbolLimit)
+        {
+            rolloverPending = true;
+        }
+    }
+
+    private static int utf8Length(final String text)
+    {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            final char c = text.charAt(i);
+            if (c < 0x80)
+            {
+                length += 1;
+            }
+            else if (c < 0x800 || (c >= 0xD800 && c <= 0xDFFF))
+            {
+                // each half of a surrogate pair accounts for two of its four bytes
+                length += 2;
+            }
+            else
+            {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /** Starts a new local symbol table between top-level values when the current one is full. */
+    private void rolloverIfNeeded() throws IOException
+    {
+        if (rolloverPending && getDepth() == 0)
+        {
+            rolloverCount++;
+            finish();
+        }
+    }
+
+    public long getRolloverCount()
+    {
+        return rolloverCount;
+    }
+
+    @Override
+    public <T> T asFacet(final Class<T> facetType)
+    {
+        if (facetType == LocalSymbolTableStatistics.class || facetType == SymbolHandleWriter.class)
+        {
+            return facetType.cast(this);
+        }
+        return super.asFacet(facetType);
+    }
+
     private SymbolToken intern(final SymbolToken token)
     {
         if (token == null)
@@ -885,6 +1091,31 @@ import java.util.Map;
         return token;
     }
 
+    private SymbolToken resolve(final SymbolHandle symbolHandle)
+    {
+        if (!(symbolHandle instanceof SymbolHandleImpl) || ((SymbolHandleImpl) symbolHandle).owner != this)
+        {
+            throw new IllegalArgumentException("Symbol handle was not created by this writer: " + symbolHandle);
+        }
+        final SymbolHandleImpl handle = (SymbolHandleImpl) symbolHandle;
+        if (handle.context != symbolContext)
+        {
+            // the local symbols were reset since the handle was last resolved
+            handle.token = intern(handle.text);
+            handle.context = symbolContext;
+        }
+        return handle.token;
+    }
+
+    public SymbolHandle newSymbolHandle(final String text)
+    {
+        if (text == null)
+        {
+            throw new NullPointerException("Null symbol text is not allowed.");
+        }
+        return new SymbolHandleImpl(this, text);
+    }
+
     public SymbolTable getSymbolTable()
     {
         if (symbolState == SymbolState.SYSTEM_SYMBOLS && imports.parents.isEmpty())
@@ -914,6 +1145,15 @@ import java.util.Map;
         user.setFieldNameSymbol(token);
     }
 
+    public void setFieldNameHandle(final SymbolHandle handle)
+    {
+        if (!isInStruct())
+        {
+            throw new IllegalStateException("IonWriter.setFieldName() must be called before writing a value into a struct.");
+        }
+        user.setFieldNameSymbol(resolve(handle));
+    }
+
     public void setFieldNameSymbol(SymbolToken token)
     {
         token = intern(token);
@@ -964,6 +1204,11 @@ import java.util.Map;
         user.addTypeAnnotationSymbol(token);
     }
 
+    public void addTypeAnnotationHandle(final SymbolHandle handle)
+    {
+        user.addTypeAnnotationSymbol(resolve(handle));
+    }
+
     // Container Manipulation
 
     public void stepIn(final IonType containerType) throws IOException
@@ -976,6 +1221,7 @@ import java.util.Map;
     {
         user.stepOut();
         userState.afterStepOut(this);
+        rolloverIfNeeded();
     }
 
     public boolean isInStruct()
@@ -988,43 +1234,51 @@ import java.util.Map;
     public void writeNull() throws IOException
     {
         user.writeNull();
+        rolloverIfNeeded();
     }
 
     public void writeNull(final IonType type) throws IOException
     {
         user.writeNull(type);
+        rolloverIfNeeded();
     }
 
     public void writeBool(final boolean value) throws IOException
     {
         user.writeBool(value);
+        rolloverIfNeeded();
     }
 
     public void writeInt(long value) throws IOException
     {
         userState.writeInt(this, value);
         user.writeInt(value);
+        rolloverIfNeeded();
     }
 
     public void writeInt(final BigInteger value) throws IOException
     {
         userState.writeInt(this, value);
         user.writeInt(value);
+        rolloverIfNeeded();
     }
 
     public void writeFloat(final double value) throws IOException
     {
         user.writeFloat(value);
+        rolloverIfNeeded();
     }
 
     public void writeDecimal(final BigDecimal value) throws IOException
     {
         user.writeDecimal(value);
+        rolloverIfNeeded();
     }
 
     public void writeTimestamp(final Timestamp value) throws IOException
     {
         user.writeTimestamp(value);
+        rolloverIfNeeded();
     }
 
     public void writeSymbol(String content) throws IOException
@@ -1060,38 +1314,57 @@ import java.util.Map;
         token = intern(token);
         userState.writeSymbolToken(this, token);
         user.writeSymbolToken(token);
+        rolloverIfNeeded();
+    }
+
+    public void writeSymbolHandle(final SymbolHandle handle) throws IOException
+    {
+        final SymbolToken token = resolve(handle);
+        if (handleIVM(token.getSid()))
+        {
+            return;
+        }
+        userState.writeSymbolToken(this, token);
+        user.writeSymbolToken(token);
+        rolloverIfNeeded();
     }
 
     public void writeString(final String value) throws IOException
     {
         userState.writeString(this, value);
         user.writeString(value);
+        rolloverIfNeeded();
     }
 
     public void writeClob(byte[] data) throws IOException
     {
         user.writeClob(data);
+        rolloverIfNeeded();
     }
 
     public void writeClob(final byte[] data, final int offset, final int length) throws IOException
     {
         user.writeClob(data, offset, length);
+        rolloverIfNeeded();
     }
 
     public void writeBlob(byte[] data) throws IOException
     {
         user.writeBlob(data);
+        rolloverIfNeeded();
     }
 
     public void writeBlob(final byte[] data, final int offset, final int length) throws IOException
     {
         user.writeBlob(data, offset, length);
+        rolloverIfNeeded();
     }
 
     @Override
     public void writeString(byte[] data, int offset, int length) throws IOException
     {
         user.writeString(data, offset, length);
+        rolloverIfNeeded();
     }
 
     public void writeBytes(byte[] data, int off, int len) throws IOException
@@ -1099,6 +1372,7 @@ import java.util.Map;
         // this is a raw transfer--we basically have to dump the symbol table since we don't have much context
         startLocalSymbolTableIfNeeded(/*writeIVM*/ true);
         user.writeBytes(data, off, len);
+        rolloverIfNeeded();
     }
 
     // Stream Terminators
@@ -1138,6 +1412,9 @@ import java.util.Map;
         localsLocked = false;
         symbolState = SymbolState.SYSTEM_SYMBOLS;
         imports = bootstrapImports;
+        symbolContext++;
+        localsByteSize = 0;
+        rolloverPending = false;
     }
 
     public void close() throws IOException
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import com.amazon.ion.SymbolHandle;
+import com.amazon.ion.SymbolToken;
+
+/**
+ * A {@link SymbolHandle} created by an {@link IonManagedBinaryWriter}, which
+ * remembers the symbol it was last resolved to.
+ */
+final class SymbolHandleImpl
+    implements SymbolHandle
+{
+    final Object        owner;
+    final String        text;
+
+    /**
+     * The owner's symbol table context when {@link #token} was resolved,
+     * or -1 if it hasn't been.
+     */
+    long                context;
+    SymbolToken         token;
+
+    SymbolHandleImpl(final Object owner, final String text)
+    {
+        this.owner = owner;
+        this.text = text;
+        this.context = -1;
+    }
+
+    public String getText()
+    {
+        return text;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SymbolHandle::" + text;
+    }
+}
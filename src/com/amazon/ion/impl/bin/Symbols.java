@@ -15,6 +15,7 @@
 
 package com.amazon.ion.impl.bin;
 
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
 import static com.amazon.ion.SystemSymbols.IMPORTS;
 import static com.amazon.ion.SystemSymbols.IMPORTS_SID;
 import static com.amazon.ion.SystemSymbols.ION;
@@ -36,16 +37,14 @@ import static com.amazon.ion.SystemSymbols.VERSION;
 import static com.amazon.ion.SystemSymbols.VERSION_SID;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
-import static java.util.Collections.unmodifiableMap;
 
 import com.amazon.ion.IonException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
+import com.amazon.ion.impl._Private_SymbolTextMap;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -131,14 +130,20 @@ import java.util.NoSuchElementException;
         return SYSTEM_TOKENS.get(sid - 1);
     }
 
-    private static final Map<String, SymbolToken> SYSTEM_TOKEN_MAP;
+    private static final _Private_SymbolTextMap SYSTEM_SID_MAP;
     static {
-        final Map<String, SymbolToken> symbols = new HashMap<String, SymbolToken>();
+        SYSTEM_SID_MAP = new _Private_SymbolTextMap(SYSTEM_TOKENS.size());
         for (final SymbolToken token : SYSTEM_TOKENS)
         {
-            symbols.put(token.getText(), token);
+            SYSTEM_SID_MAP.add(token.getText(), token.getSid());
         }
-        SYSTEM_TOKEN_MAP = unmodifiableMap(symbols);
+    }
+
+    /** Returns the system symbol token with the given text, or <code>null</code> if there is none. */
+    private static SymbolToken findSystemSymbol(final String text)
+    {
+        final int sid = SYSTEM_SID_MAP.get(text);
+        return sid == UNKNOWN_SYMBOL_ID ? null : SYSTEM_TOKENS.get(sid - 1);
     }
 
     private static SymbolTable SYSTEM_SYMBOL_TABLE = new AbstractSymbolTable(ION, 1)
@@ -180,7 +185,7 @@ import java.util.NoSuchElementException;
 
         public SymbolToken intern(final String text)
         {
-            final SymbolToken token = SYSTEM_TOKEN_MAP.get(text);
+            final SymbolToken token = findSystemSymbol(text);
             if (token == null)
             {
                 throw new IonException("Cannot intern new symbol into system symbol table");
@@ -204,7 +209,7 @@ import java.util.NoSuchElementException;
 
         public SymbolToken find(String text)
         {
-            return SYSTEM_TOKEN_MAP.get(text);
+            return findSystemSymbol(text);
         }
 
         public SymbolTable getSystemSymbolTable()
@@ -27,6 +27,7 @@ import com.amazon.ion.SystemSymbols;
 import com.amazon.ion.impl.bin.AbstractIonWriter.WriteValueOptimization;
 import com.amazon.ion.impl.bin.IonBinaryWriterAdapter.Factory;
 import com.amazon.ion.impl.bin.IonManagedBinaryWriter.ImportedSymbolContext;
+import com.amazon.ion.impl.bin.IonManagedBinaryWriter.ImportedSymbolContextCache;
 import com.amazon.ion.impl.bin.IonManagedBinaryWriter.ImportedSymbolResolverMode;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.PreallocationMode;
 import com.amazon.ion.system.SimpleCatalog;
@@ -79,6 +80,9 @@ public final class _Private_IonManagedBinaryWriterBuilder
     /*package*/ volatile SymbolTable            initialSymbolTable;
     /*package*/ volatile boolean                isLocalSymbolTableAppendEnabled;
     /*package*/ volatile boolean                isFloatBinary32Enabled;
+    /*package*/ volatile int                    localSymbolLimit;
+    /*package*/ volatile int                    localSymbolTableByteLimit;
+    /*package*/ final    ImportedSymbolContextCache importContexts;
 
     private _Private_IonManagedBinaryWriterBuilder(final BlockAllocatorProvider provider)
     {
@@ -91,6 +95,9 @@ public final class _Private_IonManagedBinaryWriterBuilder
         this.optimization = WriteValueOptimization.NONE;
         this.isLocalSymbolTableAppendEnabled = false;
         this.isFloatBinary32Enabled = false;
+        this.localSymbolLimit = 0;
+        this.localSymbolTableByteLimit = 0;
+        this.importContexts = new ImportedSymbolContextCache();
     }
 
     private _Private_IonManagedBinaryWriterBuilder(final _Private_IonManagedBinaryWriterBuilder other)
@@ -105,6 +112,9 @@ public final class _Private_IonManagedBinaryWriterBuilder
         this.initialSymbolTable = other.initialSymbolTable;
         this.isLocalSymbolTableAppendEnabled = other.isLocalSymbolTableAppendEnabled;
         this.isFloatBinary32Enabled = other.isFloatBinary32Enabled;
+        this.localSymbolLimit = other.localSymbolLimit;
+        this.localSymbolTableByteLimit = other.localSymbolTableByteLimit;
+        this.importContexts = other.importContexts;
     }
 
     public _Private_IonManagedBinaryWriterBuilder copy()
@@ -143,9 +153,14 @@ public final class _Private_IonManagedBinaryWriterBuilder
         return this;
     }
 
+    /**
+     * Adds imports. The resolved imports are shared with copies of this builder that use the same tables,
+     * and are flattened when they're reused and that makes lookup more efficient.
+     */
     public _Private_IonManagedBinaryWriterBuilder withImports(final List<SymbolTable> tables)
     {
-        return withImports(ImportedSymbolResolverMode.DELEGATE, tables);
+        imports = importContexts.forImports(tables);
+        return this;
     }
 
     /**
@@ -218,6 +233,24 @@ public final class _Private_IonManagedBinaryWriterBuilder
         return this;
     }
 
+    /**
+     * Bounds the local symbol table of built writers. Once either limit is reached, the writer finishes the current
+     * segment after the top-level value being written, starting a new local symbol table for subsequent values.
+     *
+     * @param maxSymbols the number of local symbols at which to roll over, or zero for no limit.
+     * @param maxBytes the approximate encoded size of the local symbols at which to roll over, or zero for no limit.
+     */
+    public _Private_IonManagedBinaryWriterBuilder withLocalSymbolTableLimits(final int maxSymbols, final int maxBytes)
+    {
+        if (maxSymbols < 0 || maxBytes < 0)
+        {
+            throw new IllegalArgumentException("Local symbol table limits cannot be negative: " + maxSymbols + ", " + maxBytes);
+        }
+        localSymbolLimit = maxSymbols;
+        localSymbolTableByteLimit = maxBytes;
+        return this;
+    }
+
     public _Private_IonManagedBinaryWriterBuilder withInitialSymbolTable(SymbolTable symbolTable)
     {
         if (symbolTable != null)
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import com.amazon.ion.util._Private_FastAppendable;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * Adapts an {@link OutputStream} to implement {@link _Private_FastAppendable}, encoding UTF-8 directly into a
+ * single {@link Block} vended by a {@link BlockAllocatorProvider}. The block is written to the stream whenever it
+ * fills and is handed back to its allocator when this instance is closed, so text writers built over the default
+ * provider share the same free list as the binary writers.
+ * <p>
+ * <b>This always outputs UTF-8!</b>
+ * <p>
+ * This class is <b>not</b> thread-safe.
+ */
+public final class _Private_PooledUtf8FastAppendable
+    implements _Private_FastAppendable, Closeable, Flushable
+{
+    private static final BlockAllocatorProvider DEFAULT_PROVIDER = PooledBlockAllocatorProvider.getInstance();
+
+    /** Used in place of the block's data once this instance is closed so that all writes take the slow path. */
+    private static final byte[] CLOSED_BUFFER = new byte[0];
+
+    private static final char HIGH_SURROGATE_FIRST = 0xD800;
+    private static final char HIGH_SURROGATE_LAST  = 0xDBFF;
+    private static final char LOW_SURROGATE_FIRST  = 0xDC00;
+    private static final char LOW_SURROGATE_LAST   = 0xDFFF;
+
+    private final OutputStream out;
+    private final BlockAllocator allocator;
+    private Block block;
+
+    /** Alias of {@link Block#data} for the current block. */
+    private byte[] buffer;
+
+    /** Position in {@link #buffer} where we'll write the next byte. */
+    private int pos;
+
+    /*package*/ _Private_PooledUtf8FastAppendable(final BlockAllocatorProvider provider,
+                                                  final int blockSize,
+                                                  final OutputStream out)
+    {
+        out.getClass(); // Efficient null check
+
+        this.out = out;
+        this.allocator = provider.vendAllocator(blockSize);
+        this.block = allocator.allocateBlock();
+        this.buffer = block.data;
+        this.pos = 0;
+    }
+
+    /**
+     * Creates an appendable over the shared {@link PooledBlockAllocatorProvider} using the same block size as the
+     * binary writer.
+     */
+    public static _Private_PooledUtf8FastAppendable forOutputStream(final OutputStream out)
+    {
+        return new _Private_PooledUtf8FastAppendable(
+            DEFAULT_PROVIDER,
+            _Private_IonManagedBinaryWriterBuilder.DEFAULT_BLOCK_SIZE,
+            out
+        );
+    }
+
+    /** Writes the buffered bytes to the stream, emptying the block. */
+    private void drain() throws IOException
+    {
+        if (block == null)
+        {
+            throw new IOException("Cannot write to a closed appendable");
+        }
+        if (pos > 0)
+        {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+    }
+
+    // ------------------- FastAppendable Appendable Methods -------------------
+
+    public Appendable append(final char c) throws IOException
+    {
+        if (c < 0x80)
+        {
+            appendAscii(c);
+        }
+        else
+        {
+            appendUtf16(c);
+        }
+        return this;
+    }
+
+    public Appendable append(final CharSequence csq) throws IOException
+    {
+        append(csq, 0, csq.length());
+        return this;
+    }
+
+    /**
+     * Encodes the given range as UTF-8 in a single pass, reserving room for the worst case of each character
+     * rather than dispatching on every character. Paired surrogates are combined into a single four-octet
+     * sequence.
+     *
+     * @throws IllegalArgumentException if the range contains an unmatched surrogate. The characters before it
+     *         have already been appended.
+     */
+    public Appendable append(final CharSequence csq, int start, final int end) throws IOException
+    {
+        while (start < end)
+        {
+            // Leave room for the widest sequence we may emit for one character.
+            if (buffer.length - pos < 4)
+            {
+                drain();
+            }
+            final byte[] buf = buffer;
+            final int limit = buf.length - 3;
+            int p = pos;
+            while (start < end && p < limit)
+            {
+                final char c = csq.charAt(start++);
+                if (c < 0x80)
+                {
+                    buf[p++] = (byte) c;
+                }
+                else if (c < 0x800)
+                {
+                    buf[p++] = (byte) (0xC0 | (c >> 6));
+                    buf[p++] = (byte) (0x80 | (c & 0x3F));
+                }
+                else if (c >= HIGH_SURROGATE_FIRST && c <= LOW_SURROGATE_LAST)
+                {
+                    if (c > HIGH_SURROGATE_LAST
+                        || start == end
+                        || csq.charAt(start) < LOW_SURROGATE_FIRST
+                        || csq.charAt(start) > LOW_SURROGATE_LAST)
+                    {
+                        pos = p;
+                        throw unmatchedSurrogate(c, start - 1);
+                    }
+                    final int cp = Character.toCodePoint(c, csq.charAt(start++));
+                    buf[p++] = (byte) (0xF0 | (cp >> 18));
+                    buf[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[p++] = (byte) (0x80 | (cp & 0x3F));
+                }
+                else
+                {
+                    buf[p++] = (byte) (0xE0 | (c >> 12));
+                    buf[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[p++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            pos = p;
+        }
+        return this;
+    }
+
+    private static IllegalArgumentException unmatchedSurrogate(final char c, final int index)
+    {
+        final String which = c <= HIGH_SURROGATE_LAST ? "leading" : "trailing";
+        return new IllegalArgumentException(
+            "text is invalid UTF-16. It contains an unmatched " + which
+            + " surrogate 0x" + Integer.toHexString(c) + " at index " + index
+        );
+    }
+
+    public void appendAscii(final char c) throws IOException
+    {
+        if (pos == buffer.length)
+        {
+            drain();
+        }
+        assert c < 0x80;
+        buffer[pos++] = (byte) c;
+    }
+
+    public void appendAscii(final CharSequence csq) throws IOException
+    {
+        appendAscii(csq, 0, csq.length());
+    }
+
+    @SuppressWarnings("deprecation")
+    public void appendAscii(final CharSequence csq, int start, final int end) throws IOException
+    {
+        while (start < end)
+        {
+            if (pos == buffer.length)
+            {
+                drain();
+            }
+            final int amount = Math.min(end - start, buffer.length - pos);
+            if (csq instanceof String)
+            {
+                // Using deprecated String.getBytes intentionally, since it is
+                // correct behavior in this case, and much faster.
+                ((String) csq).getBytes(start, start + amount, buffer, pos);
+                pos += amount;
+                start += amount;
+            }
+            else
+            {
+                final byte[] buf = buffer;
+                int p = pos;
+                final int stop = start + amount;
+                while (start < stop)
+                {
+                    final char c = csq.charAt(start++);
+                    assert c < 0x80;
+                    buf[p++] = (byte) c;
+                }
+                pos = p;
+            }
+        }
+    }
+
+    public void appendUtf16(final char c) throws IOException
+    {
+        assert c >= 0x80;
+
+        if (pos > buffer.length - 3)
+        {
+            drain();
+        }
+
+        if (c < 0x800)
+        {
+            buffer[pos++] = (byte) (0xC0 | (c >> 6));
+            buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else
+        {
+            buffer[pos++] = (byte) (0xE0 | (c >> 12));
+            buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    public void appendUtf16Surrogate(final char leadSurrogate, final char trailSurrogate) throws IOException
+    {
+        // Here we must convert a UTF-16 surrogate pair to UTF-8 bytes.
+        final int c = Character.toCodePoint(leadSurrogate, trailSurrogate);
+        assert c >= 0x10000;
+
+        if (pos > buffer.length - 4)
+        {
+            drain();
+        }
+
+        buffer[pos++] = (byte) (0xF0 | (c >> 18));
+        buffer[pos++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+        buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+    }
+
+    public void flush() throws IOException
+    {
+        if (block != null && pos > 0)
+        {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+        out.flush();
+    }
+
+    public void close() throws IOException
+    {
+        if (block == null)
+        {
+            return;
+        }
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            // return the block even if flushing failed so we never leak it
+            block.close();
+            allocator.close();
+            block = null;
+            buffer = CLOSED_BUFFER;
+            pos = 0;
+            out.close();
+        }
+    }
+}
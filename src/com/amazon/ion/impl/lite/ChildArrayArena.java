@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+/**
+ * One thread's supply of container child arrays for reuse, filled by
+ * {@link IonDatagramLite#release()} and drained as containers grow.
+ * Only short arrays are kept, since those make up the bulk of the
+ * allocation when many small documents are loaded and discarded, and their
+ * total length is bounded so that an idle thread holds little memory.
+ * <p>
+ * <b>Instances of this class are not safe for use by multiple threads.</b>
+ */
+final class ChildArrayArena
+{
+    /** Longer arrays are left to the garbage collector. */
+    static final int MAX_RECYCLED_LENGTH = 64;
+
+    /**
+     * The most array slots, over all lengths, that are kept: at most a few
+     * hundred kilobytes.
+     */
+    static final int MAX_RECYCLED_SLOTS = 32 * 1024;
+
+    private final IonValueLite[][][] myFree =
+        new IonValueLite[MAX_RECYCLED_LENGTH + 1][][];
+    private final int[] myFreeCounts = new int[MAX_RECYCLED_LENGTH + 1];
+    private int myFreeSlots;
+
+
+    /**
+     * @return an array of the given length, all null.
+     */
+    IonValueLite[] allocate(int length)
+    {
+        if (length <= MAX_RECYCLED_LENGTH) {
+            int count = myFreeCounts[length];
+            if (count != 0) {
+                count--;
+                IonValueLite[] array = myFree[length][count];
+                myFree[length][count] = null;
+                myFreeCounts[length] = count;
+                myFreeSlots -= length;
+                return array;
+            }
+        }
+        return new IonValueLite[length];
+    }
+
+    /**
+     * Keeps an array for reuse, if there's room for it.
+     *
+     * @param array must be all null, and no longer used by anything.
+     */
+    void recycle(IonValueLite[] array)
+    {
+        int length = array.length;
+        if (length == 0 || length > MAX_RECYCLED_LENGTH) return;
+        if (myFreeSlots + length > MAX_RECYCLED_SLOTS) return;
+
+        IonValueLite[][] free = myFree[length];
+        int count = myFreeCounts[length];
+        if (free == null) {
+            free = myFree[length] = new IonValueLite[16][];
+        }
+        else if (count == free.length) {
+            IonValueLite[][] temp = new IonValueLite[count * 2][];
+            System.arraycopy(free, 0, temp, 0, count);
+            free = myFree[length] = temp;
+        }
+        free[count] = array;
+        myFreeCounts[length] = count + 1;
+        myFreeSlots += length;
+    }
+
+    /**
+     * @return the total length of the arrays kept for reuse.
+     */
+    int getFreeSlots()
+    {
+        return myFreeSlots;
+    }
+}
@@ -20,6 +20,7 @@ import com.amazon.ion.IonContainer;
 import com.amazon.ion.IonDatagram;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
 import com.amazon.ion.NullValueException;
 import com.amazon.ion.ReadOnlyValueException;
 import com.amazon.ion.SymbolTable;
@@ -27,9 +28,11 @@ import com.amazon.ion.ValueVisitor;
 import com.amazon.ion.impl._Private_IonConstants;
 import com.amazon.ion.impl._Private_IonContainer;
 import com.amazon.ion.impl._Private_Utils;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 abstract class IonContainerLite
@@ -48,6 +51,23 @@ abstract class IonContainerLite
     // context, but the parent context will always be able to provide the IonSystem without further delegation.
     protected IonSystemLite  ionSystem;
 
+    /**
+     * The children of a container that was loaded lazily, packed into a
+     * primitive array, or cloned from a read-only container; or null once
+     * they have been materialized into {@link #_children}.
+     * Everything that looks at the children goes through
+     * {@link #get_child_count()}, {@link #get_child(int)} or one of the
+     * few places that call {@link #materialize()} directly.
+     */
+    private LazyChildren _lazyChildren;
+
+    /**
+     * The hash code of this container, cached once it's read-only; zero if
+     * it hasn't been computed yet. Like {@link String#hashCode()}, racing
+     * threads may each compute it, but they all store the same value.
+     */
+    private int _lockedHashCode;
+
     protected IonContainerLite(ContainerlessContext context, boolean isNull)
     {
         // we'll let IonValueLite handle this work as we always need to know
@@ -59,6 +79,29 @@ abstract class IonContainerLite
     IonContainerLite(IonContainerLite existing, IonContext context, boolean isStruct) {
         super(existing, context);
         this.ionSystem = existing.getSystem();
+        if (existing._lazyChildren != null
+            && existing._lazyChildren.isSharedByClones()) {
+            // For example, existing is itself an untouched clone of a
+            // read-only container, so this one can share that container too.
+            _lazyChildren = existing._lazyChildren;
+            _isSymbolIdPresent(existing._isSymbolIdPresent());
+            return;
+        }
+        existing.materialize();
+        if (existing._isLocked() && existing._child_count != 0
+            && !(this instanceof IonDatagramLite)) {
+            // A read-only container can't change under us, so its children
+            // are only copied if and when this clone's children are needed.
+            // Cloning a large template and changing a few of its values
+            // then copies just the containers on the paths to those values.
+            _lazyChildren = new ClonedChildren(existing, isStruct);
+            _isSymbolIdPresent(existing._isSymbolIdPresent());
+            return;
+        }
+        copyChildren(existing, isStruct);
+    }
+
+    private void copyChildren(IonContainerLite existing, boolean isStruct) {
         boolean retainingSIDs = false;
         int childCount = existing._child_count;
         this._child_count = childCount;
@@ -97,6 +140,45 @@ abstract class IonContainerLite
         }
     }
 
+    /**
+     * The children of a clone of a read-only container, copied from that
+     * container on first access. Nested containers are again cloned lazily.
+     */
+    private static final class ClonedChildren
+        extends LazyChildren
+    {
+        private final IonContainerLite myOriginal;
+        private final boolean          myIsStruct;
+
+        ClonedChildren(IonContainerLite original, boolean isStruct)
+        {
+            myOriginal = original;
+            myIsStruct = isStruct;
+        }
+
+        @Override
+        boolean isSharedByClones()
+        {
+            return true;
+        }
+
+        @Override
+        void loadChildren(IonContainerLite container)
+        {
+            container.copyChildren(myOriginal, myIsStruct);
+        }
+
+        @Override
+        void writeTo(IonWriter writer, boolean annotated)
+            throws IOException
+        {
+            writer.stepIn(myOriginal.getType());
+            myOriginal.writeChildren(writer, myOriginal,
+                                     new LazySymbolTableProvider(myOriginal));
+            writer.stepOut();
+        }
+    }
+
     // See the comment on the `ionSystem` member field for more information.
     @Override
     public IonSystemLite getSystem() {
@@ -110,6 +192,34 @@ abstract class IonContainerLite
     public abstract IonContainer clone();
 
 
+    @Override
+    final int hashCode(SymbolTableProvider symbolTableProvider)
+    {
+        if (!_isLocked()) return computeHashCode(symbolTableProvider);
+
+        int hash = _lockedHashCode;
+        if (hash == 0)
+        {
+            hash = computeHashCode(symbolTableProvider);
+            _lockedHashCode = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the hash code of this container from its children.
+     * Read-only containers do this at most once; see
+     * {@link #hashCode(SymbolTableProvider)}.
+     */
+    abstract int computeHashCode(SymbolTableProvider symbolTableProvider);
+
+    @Override
+    public final int cachedHashCode()
+    {
+        return _isLocked() ? _lockedHashCode : 0;
+    }
+
+
     public void clear()
     {
         checkForLock();
@@ -120,6 +230,12 @@ abstract class IonContainerLite
             assert _child_count == 0;
             _isNullValue(false);
         }
+        else if (_lazyChildren != null)
+        {
+            // No need to decode children that are about to be dropped.
+            _lazyChildren = null;
+            structuralModificationCount++;
+        }
         else if (!isEmpty())
         {
             detachAllChildren();
@@ -201,6 +317,7 @@ abstract class IonContainerLite
             if (_isLocked() && !readOnly) {
                 throw new IllegalStateException("you can't open an updatable iterator on a read only value");
             }
+            materialize();
             if (index < 0 || index > _child_count) {
                 throw new IndexOutOfBoundsException(Integer.toString(index));
             }
@@ -405,15 +522,28 @@ abstract class IonContainerLite
     }
 
     @Override
-    void makeReadOnlyInternal()
+    public void makeReadOnly()
+    {
+        if (!_isLocked()) {
+            // Field names are shared across the whole tree.
+            makeReadOnlyInternal(new HashMap<String, String>());
+        }
+    }
+
+    @Override
+    void makeReadOnlyInternal(Map<String, String> fieldNames)
     {
         if (_isLocked()) return;
 
+        // Read-only values may be shared across threads, so they mustn't
+        // decode anything on access.
+        materialize();
         if (_children != null) {
             for (int ii=0; ii<_child_count; ii++) {
                 IonValueLite child = _children[ii];
-                child.makeReadOnlyInternal();
+                child.makeReadOnlyInternal(fieldNames);
             }
+            trimToSize();
         }
         // we don't need to call our copy of clear symbol ID's
         // which recurses since the calls to child.makeReadOnly
@@ -422,6 +552,7 @@ abstract class IonContainerLite
         // to call the base clear which will clear out the symbol
         // table reference if one exists.
         super.clearSymbolIDValues();
+        compactForReadOnly(fieldNames);
         _isLocked(true);
     }
 
@@ -644,7 +775,144 @@ abstract class IonContainerLite
     }
 
     /**
-     * This is overriden in {@link IonStructLite} to add the {@link HashMap} of
+     * Grows the child array to hold at least the given number of children,
+     * for callers that know roughly how many are coming. Only the array is
+     * sized from the guess; call {@link #finishCapacityLoad()} once the
+     * children are added.
+     */
+    final void ensureCapacity(int capacity)
+    {
+        int length = (_children == null) ? 0 : _children.length;
+        if (capacity > length) {
+            resizeChildren(capacity);
+        }
+    }
+
+    /**
+     * Finishes loading children into an array sized by
+     * {@link #ensureCapacity(int)}: trims the array if the guess was well
+     * off, then builds any index from the children actually loaded.
+     */
+    final void finishCapacityLoad()
+    {
+        if (_children != null
+            && _children.length - _child_count > _child_count >> 3) {
+            // The guess was well off; loaded values rarely grow.
+            trimToSize();
+        }
+        if (_child_count > initialSize()) {
+            transitionToLargeSize(_child_count);
+        }
+    }
+
+    /**
+     * Moves the children into a new array of the given length, which must
+     * be able to hold them all.
+     */
+    private void resizeChildren(int length)
+    {
+        IonValueLite[] temp = ionSystem.newChildArray(length);
+        if (_children != null) {
+            System.arraycopy(_children, 0, temp, 0, _child_count);
+            ionSystem.recycleChildArray(_children);
+        }
+        _children = temp;
+    }
+
+    /**
+     * Empties this container and every mutable container within it, without
+     * detaching the children, and hands the child arrays back to the
+     * system for reuse. Nothing mutable in the tree may be used afterwards.
+     * <p>
+     * Read-only containers are left alone: clones made by
+     * {@link #clone()} copy their children on first access, and read-only
+     * trees cache their hash codes.
+     */
+    void releaseChildren()
+    {
+        _lazyChildren = null;
+        if (_children != null) {
+            for (int i = 0; i < _child_count; i++) {
+                IonValueLite child = _children[i];
+                if (child instanceof IonContainerLite && !child._isLocked()) {
+                    ((IonContainerLite) child).releaseChildren();
+                }
+            }
+            ionSystem.recycleChildArray(_children);
+            _children = null;
+        }
+        _child_count = 0;
+        structuralModificationCount++;
+    }
+
+    /**
+     * Drops the spare capacity of the child array, for containers that
+     * won't grow any more.
+     */
+    final void trimToSize()
+    {
+        if (_child_count == 0) {
+            _children = null;
+        }
+        else if (_children.length > _child_count) {
+            IonValueLite[] temp = new IonValueLite[_child_count];
+            System.arraycopy(_children, 0, temp, 0, _child_count);
+            _children = temp;
+        }
+    }
+
+    /**
+     * Defers loading this container's children until they're first needed.
+     * The container must be empty and not null.
+     */
+    final void setLazyChildren(LazyChildren children)
+    {
+        assert _child_count == 0 && !_isNullValue();
+        _lazyChildren = children;
+    }
+
+    /**
+     * @return true if this container's children haven't been created yet.
+     */
+    final boolean isLazy()
+    {
+        return _lazyChildren != null;
+    }
+
+    /**
+     * Creates this container's children if that hasn't been done yet.
+     */
+    final void materialize()
+    {
+        LazyChildren children = _lazyChildren;
+        if (children != null)
+        {
+            // Cleared first, since adding the children checks for it.
+            _lazyChildren = null;
+            children.loadChildren(this);
+        }
+    }
+
+    /**
+     * Writes this container's children straight from their encoded form, or
+     * from the container they were cloned from, if they haven't been
+     * materialized. Encoded bytes are copied when the writer allows.
+     *
+     * @return false if the children have been materialized, in which case
+     * nothing was written.
+     */
+    final boolean writeLazyBodyTo(IonWriter writer)
+        throws IOException
+    {
+        LazyChildren children = _lazyChildren;
+        if (children == null) return false;
+
+        children.writeTo(writer, hasTypeAnnotations());
+        return true;
+    }
+
+    /**
+     * This is overriden in {@link IonStructLite} to add the index of
      * field names when the struct becomes moderately large.
      *
      * @param size
@@ -655,10 +923,12 @@ abstract class IonContainerLite
     }
 
     public final int get_child_count() {
+        if (_lazyChildren != null) materialize();
         return _child_count;
     }
 
     public final IonValueLite get_child(int idx) {
+        if (_lazyChildren != null) materialize();
         if (idx < 0 || idx >= _child_count) {
             throw new IndexOutOfBoundsException(Integer.toString(idx));
         }
@@ -693,11 +963,7 @@ abstract class IonContainerLite
             int old_len = (_children == null) ? 0 : _children.length;
             int new_len = this.nextSize(old_len, true);
             assert(new_len > idx);
-            IonValueLite[] temp = new IonValueLite[new_len];
-            if (old_len > 0) {
-                System.arraycopy(_children, 0, temp, 0, old_len);
-            }
-            _children = temp;
+            resizeChildren(new_len);
         }
         if (idx < _child_count) {
             System.arraycopy(_children, idx, _children, idx+1, _child_count-idx);
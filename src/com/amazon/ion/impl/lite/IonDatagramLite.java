@@ -38,7 +38,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -160,10 +162,15 @@ final class IonDatagramLite
         }
 
         if (_children != null) {
+            // Field names are shared across the whole datagram.
+            Map<String, String> fieldNames = new HashMap<String, String>();
             for (int ii=0; ii<_child_count; ii++) {
                 IonValueLite child = _children[ii];
-                child.makeReadOnly();
+                if (!child._isLocked()) {
+                    child.makeReadOnlyInternal(fieldNames);
+                }
             }
+            trimToSize();
         }
         _isLocked(true);
     }
@@ -319,12 +326,20 @@ final class IonDatagramLite
     }
 
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider) {
+    int computeHashCode(SymbolTableProvider symbolTableProvider) {
         String message = "IonDatagrams do not need a resolved Symbol table use #hashCode()";
         throw new UnsupportedOperationException(message);
     }
 
 
+    public void release()
+    {
+        checkForLock();
+        releaseChildren();
+        _pending_symbol_table = null;
+        _pending_symbol_table_idx = -1;
+    }
+
     @Override
     public <T extends IonValue> T[] extract(Class<T> type)
     {
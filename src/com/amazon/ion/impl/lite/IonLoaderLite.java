@@ -24,6 +24,8 @@ import com.amazon.ion.IonLoader;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonWriterFactory;
 import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
 import java.io.File;
@@ -122,8 +124,46 @@ final class IonLoaderLite
         }
     }
 
+    /**
+     * Loads binary data into a datagram whose top-level containers decode
+     * their children on first access.
+     *
+     * @return a new datagram, or null if the data can't be loaded lazily.
+     */
+    private IonDatagramLite load_lazily(byte[] ionData)
+    {
+        LazyBinarySource source =
+            LazyBinarySource.forData(_system, ionData, 0, ionData.length);
+        if (source == null) return null;
+
+        IonReader reader = makeReader(_catalog, ionData, 0, ionData.length, _lstFactory);
+        SpanProvider spans = reader.asFacet(SpanProvider.class);
+
+        IonDatagramLite datagram = new IonDatagramLite(_system, _catalog);
+        SymbolTable symtab = null;
+        while (reader.next() != null)
+        {
+            SymbolTable current = reader.getSymbolTable();
+            if (current != symtab)
+            {
+                // Tells the datagram which symbols the next value uses,
+                // as the tree writer does when it sees a new symbol table.
+                datagram.appendTrailingSymbolTable(current);
+                symtab = current;
+            }
+            datagram.add(_system.newValue(reader, source, spans));
+        }
+        return datagram;
+    }
+
     public IonDatagram load(byte[] ionData) throws IonException
     {
+        if (_system.isLazyMaterializationEnabled())
+        {
+            IonDatagram datagram = load_lazily(ionData);
+            if (datagram != null) return datagram;
+        }
+
         IonReader reader = makeReader(_catalog, ionData, 0, ionData.length, _lstFactory);
         try {
             return load(reader);
@@ -414,7 +414,7 @@ abstract class IonSequenceLite
         {
             writer.writeNull(type);
         }
-        else
+        else if (!writeLazyBodyTo(writer))
         {
             writer.stepIn(type);
             writeChildren(writer, this, symbolTableProvider);
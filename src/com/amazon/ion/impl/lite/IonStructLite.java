@@ -15,6 +15,8 @@
 
 package com.amazon.ion.impl.lite;
 
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
 import com.amazon.ion.ContainedValueException;
 import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonType;
@@ -24,14 +26,13 @@ import com.amazon.ion.SymbolToken;
 import com.amazon.ion.ValueFactory;
 import com.amazon.ion.ValueVisitor;
 import com.amazon.ion.impl._Private_CurriedValueFactory;
+import com.amazon.ion.impl._Private_IonStruct;
 import com.amazon.ion.util.Equivalence;
 import com.amazon.ion.UnknownSymbolException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,7 +41,7 @@ import java.util.Set;
 
 final class IonStructLite
     extends IonContainerLite
-    implements IonStruct
+    implements _Private_IonStruct
 {
     private static final int HASH_SIGNATURE =
         IonType.STRUCT.toString().hashCode();
@@ -54,14 +55,14 @@ final class IonStructLite
     private IonStructLite(IonStructLite existing, IonContext context)
     {
         super(existing, context, true);
-        // field map can be shallow cloned due to it dealing with String and Integer
-        // values - both of which are immutable constructs and so safe to retain as references
-        this._field_map = null == existing._field_map ? null : new HashMap<String, Integer>(existing._field_map);
+        // field map can be shallow cloned due to it dealing with String and int
+        // values - both of which are immutable and so safe to retain
+        this._field_map = null == existing._field_map ? null : new StructFieldIndex(existing._field_map);
         this._field_map_duplicate_count = existing._field_map_duplicate_count;
         this.hasNullFieldName = existing.hasNullFieldName;
     }
 
-    private Map<String, Integer> _field_map;
+    private StructFieldIndex _field_map;
     private boolean hasNullFieldName = false;
 
     public int                      _field_map_duplicate_count;
@@ -90,31 +91,35 @@ final class IonStructLite
     {
         int size = (_children == null) ? 0 : _children.length;
 
-        _field_map = new HashMap<String, Integer>(size);
+        _field_map = new StructFieldIndex(size);
         _field_map_duplicate_count = 0;
 
         int count = get_child_count();
         for (int ii=0; ii<count; ii++) {
             IonValueLite v = get_child(ii);
-            SymbolToken fieldNameSymbol = v.getFieldNameSymbol();
-            String name = fieldNameSymbol.getText();
-            if (_field_map.get(name) != null) {
+            // this causes the map to have the largest index value stored
+            if (_field_map.put(v._fieldtext(), v._fieldsid(), ii) >= 0) {
                 _field_map_duplicate_count++;
             }
-            _field_map.put(name, ii); // this causes the map to have the largest index value stored
         }
         return;
     }
-    private void add_field(String fieldName, int newFieldIdx)
+    /**
+     * @param text the field name, which may not be set on the field yet;
+     * if null, the field's symbol ID is used.
+     */
+    private void add_field(String text, IonValueLite field)
     {
-        Integer idx = _field_map.get(fieldName);
-        if (idx != null) {
+        int sid = field._fieldsid();
+        int newFieldIdx = field._elementid();
+        int idx = _field_map.get(text, sid);
+        if (idx >= 0) {
             _field_map_duplicate_count++;
-            if (idx.intValue() > newFieldIdx) {
-                newFieldIdx = idx.intValue();
+            if (idx > newFieldIdx) {
+                newFieldIdx = idx;
             }
         }
-        _field_map.put(fieldName, newFieldIdx);
+        _field_map.put(text, sid, newFieldIdx);
     }
     private void remove_field(String fieldName, int lowest_idx, int copies)
     {
@@ -122,18 +127,19 @@ final class IonStructLite
             return;
         }
 
-        Integer field_idx = _field_map.get(fieldName);
-        assert(field_idx != null);
-        _field_map.remove(fieldName);
+        assert(_field_map.get(fieldName, UNKNOWN_SYMBOL_ID) >= 0);
+        _field_map.remove(fieldName, UNKNOWN_SYMBOL_ID);
         _field_map_duplicate_count -= (copies - 1);
     }
 
-    private void remove_field_from_field_map(String fieldName, int idx)
+    private void remove_field_from_field_map(IonValueLite field, int idx)
     {
-        Integer field_idx = _field_map.get(fieldName);
-        assert(field_idx != null);
+        String text = field._fieldtext();
+        int sid = field._fieldsid();
+        int field_idx = _field_map.get(text, sid);
+        assert(field_idx >= 0);
 
-        if (field_idx.intValue() != idx) {
+        if (field_idx != idx) {
             // if the map has a different index, this must
             // be a duplicate, and this copy isn't in the map
             assert(_field_map_duplicate_count > 0);
@@ -143,24 +149,24 @@ final class IonStructLite
             // if we have any duplicates we have to check
             // every time since we don't track which field
             // is duplicated - so any dup can be expensive
-            int ii = find_last_duplicate(fieldName, idx);
+            int ii = find_last_duplicate(text, sid, idx);
 
             if (ii == -1) {
                 // this is the last copy of this key
-                _field_map.remove(fieldName);
+                _field_map.remove(text, sid);
             }
             else {
                 // replaces this fields (the one being
                 // removed) array idx in the map with
                 // the preceding duplicates index
-                _field_map.put(fieldName, ii);
+                _field_map.put(text, sid, ii);
                 _field_map_duplicate_count--;
             }
         }
         else {
             // since there are not dup's we can just update
             // the map by removing this fieldname
-            _field_map.remove(fieldName);
+            _field_map.remove(text, sid);
         }
     }
 
@@ -178,13 +184,14 @@ final class IonStructLite
 
         for (int ii=removed_idx; ii<get_child_count(); ii++) {
             IonValueLite value = get_child(ii);
-            String  field_name = value.getFieldName();
-            Integer map_idx = _field_map.get(field_name);
-            if (map_idx.intValue() != ii) {
+            String  field_name = value._fieldtext();
+            int     field_sid = value._fieldsid();
+            int map_idx = _field_map.get(field_name, field_sid);
+            if (map_idx != ii) {
                 // if this is a field that to the right of
                 // the removed (in process of removing) value
                 // we need to patch the index value
-                _field_map.put(field_name, ii);
+                _field_map.put(field_name, field_sid, ii);
             }
         }
     }
@@ -199,15 +206,16 @@ final class IonStructLite
         }
 
         out.println("   dups: "+_field_map_duplicate_count);
-        Iterator<Entry<String, Integer>> it = _field_map.entrySet().iterator();
         out.print("   map: [");
         boolean first = true;
-        while (it.hasNext()) {
-            Entry<String, Integer> e = it.next();
+        for (int slot = 0; slot < _field_map.slotCount(); slot++) {
+            if (!_field_map.isUsed(slot)) continue;
             if (!first) {
                 out.print(",");
             }
-            out.print(e.getKey()+":"+e.getValue());
+            String key = _field_map.keyAt(slot);
+            out.print((key != null ? key : "$" + _field_map.sidAt(slot))
+                      + ":" + _field_map.valueAt(slot));
             first = false;
         }
         out.println("]");
@@ -220,37 +228,59 @@ final class IonStructLite
             return null;
         }
         String error = "";
-        Iterator<Entry<String, Integer>> it = _field_map.entrySet().iterator();
-        while (it.hasNext()) {
-            Entry<String, Integer> e = it.next();
-            int idx = e.getValue().intValue();
+        for (int slot = 0; slot < _field_map.slotCount(); slot++) {
+            if (!_field_map.isUsed(slot)) continue;
+            String key = _field_map.keyAt(slot);
+            int idx = _field_map.valueAt(slot);
             IonValueLite v = (idx >= 0 && idx < get_child_count()) ? get_child(idx) : null;
-            if (v == null || idx != v._elementid() || (e.getKey().equals(v.getFieldName()) == false)) {
-                error += "map entry ["+e+"] doesn't match list value ["+v+"]\n";
+            if (v == null || idx != v._elementid()
+                || !is_same_field(v, key, _field_map.sidAt(slot))) {
+                error += "map entry ["+key+"="+idx+"] doesn't match list value ["+v+"]\n";
             }
         }
 
         return (error == "") ? null : error;
     }
 
-    private int find_last_duplicate(String fieldName, int existing_idx)
+    /**
+     * @return the number of slots in the field index, or zero if this struct
+     * has no index.
+     */
+    final int fieldIndexSlotCount()
+    {
+        return (_field_map == null) ? 0 : _field_map.slotCount();
+    }
+
+    /**
+     * Matches a field against a field map key: the text when it's known,
+     * otherwise the symbol ID of a field whose text is unknown.
+     */
+    private static boolean is_same_field(IonValueLite field, String text, int sid)
+    {
+        if (text != null) {
+            return text.equals(field._fieldtext());
+        }
+        return field._fieldtext() == null && field._fieldsid() == sid;
+    }
+
+    private int find_last_duplicate(String text, int sid, int existing_idx)
     {
         for (int ii=existing_idx; ii>0; ) {
             ii--;
             IonValueLite field = get_child(ii);
-            if (fieldName.equals(field.getFieldName())) {
+            if (is_same_field(field, text, sid)) {
                 return ii;
             }
         }
-        assert(there_is_only_one(fieldName, existing_idx));
+        assert(there_is_only_one(text, sid, existing_idx));
         return -1;
     }
-    private boolean there_is_only_one(String fieldName, int existing_idx)
+    private boolean there_is_only_one(String text, int sid, int existing_idx)
     {
         int count = 0;
         for (int ii=0; ii<get_child_count(); ii++) {
             IonValueLite v = get_child(ii);
-            if (v.getFieldName().equals(fieldName)) {
+            if (is_same_field(v, text, sid)) {
                 count++;
             }
         }
@@ -293,7 +323,7 @@ final class IonStructLite
      *          {@link Object#hashCode()} and {@link Object#equals(Object)}.
      */
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider)
+    int computeHashCode(SymbolTableProvider symbolTableProvider)
     {
         final int nameHashSalt  = 16777619; // prime to salt name of each Field
         final int valueHashSalt = 8191;     // prime to salt value of each Field
@@ -411,6 +441,39 @@ final class IonStructLite
 
         return field;
     }
+    public IonValue getField(SymbolToken fieldName)
+    {
+        String text = fieldName.getText();
+        if (text != null)
+        {
+            return get(text);
+        }
+
+        int sid = fieldName.getSid();
+        if (sid < 0)
+        {
+            throw new IllegalArgumentException("fieldName has no text or ID");
+        }
+
+        // Only fields with unknown text are matched by ID, since the ID of
+        // known text depends on the symbol table in effect.
+        if (isNullValue()) {
+            return null;
+        }
+        if (_field_map != null) {
+            int idx = _field_map.get(null, sid);
+            return (idx < 0) ? null : get_child(idx);
+        }
+        int size = get_child_count();
+        for (int ii = 0; ii < size; ii++) {
+            IonValueLite field = get_child(ii);
+            if (field._fieldtext() == null && field._fieldsid() == sid) {
+                return field;
+            }
+        }
+        return null;
+    }
+
     private int find_field_helper(String fieldName)
     {
         validateFieldName(fieldName);
@@ -419,10 +482,7 @@ final class IonStructLite
             // nothing to see here, move along
         }
         else if (_field_map != null) {
-            Integer idx = _field_map.get(fieldName);
-            if (idx != null) {
-                return idx.intValue();
-            }
+            return _field_map.get(fieldName, UNKNOWN_SYMBOL_ID);
         }
         else {
             int ii, size = get_child_count();
@@ -436,6 +496,20 @@ final class IonStructLite
         return -1;
     }
 
+    @Override
+    void makeReadOnlyInternal(Map<String, String> fieldNames)
+    {
+        if (_isLocked()) return;
+
+        super.makeReadOnlyInternal(fieldNames);
+
+        // The children now have shared field names, so re-index them to
+        // match by reference, at a size that leaves no room for growth.
+        if (_field_map != null) {
+            build_field_map();
+        }
+    }
+
     @Override
     public void clear()
     {
@@ -444,6 +518,15 @@ final class IonStructLite
         _field_map_duplicate_count = 0;
     }
 
+    @Override
+    void releaseChildren()
+    {
+        super.releaseChildren();
+        _field_map = null;
+        _field_map_duplicate_count = 0;
+        hasNullFieldName = false;
+    }
+
     @Override
     public boolean add(IonValue child)
         throws NullPointerException, IllegalArgumentException,
@@ -487,7 +570,7 @@ final class IonStructLite
 
         // if we have a hash map we need to update it now
         if (_field_map != null) {
-            add_field(fieldName, child._elementid());
+            add_field(fieldName, child);
         }
     }
 
@@ -574,10 +657,10 @@ final class IonStructLite
             // we have a map and no duplicates so the index
             // (aka map) is all we need to find the only
             // value associated with fieldName, if there is one
-            Integer idx = _field_map.get(fieldName);
-            if (idx != null) {
-                lowestRemovedIndex = idx.intValue();
-                remove_field_from_field_map(fieldName, lowestRemovedIndex);
+            int idx = _field_map.get(fieldName, UNKNOWN_SYMBOL_ID);
+            if (idx >= 0) {
+                lowestRemovedIndex = idx;
+                remove_field_from_field_map(get_child(idx), lowestRemovedIndex);
                 remove_child(lowestRemovedIndex);
                 any_removed = true;
             }
@@ -652,7 +735,7 @@ final class IonStructLite
                 assert(concrete_idx == idx);
 
                 if (_field_map != null) {
-                    remove_field_from_field_map(concrete.getFieldName(), idx);
+                    remove_field_from_field_map(concrete, idx);
                 }
                 super.remove();
 
@@ -680,7 +763,7 @@ final class IonStructLite
         // index value of the remove field to be
         // correct and unchanged.
         if (_field_map != null) {
-            remove_field_from_field_map(fieldName, idx);
+            remove_field_from_field_map((IonValueLite) field, idx);
         }
 
         super.remove(field);
@@ -714,7 +797,7 @@ final class IonStructLite
         // index value of the remove field to be
         // correct and unchanged.
         if (_field_map != null) {
-            remove_field_from_field_map(concrete.getFieldName(), idx);
+            remove_field_from_field_map(concrete, idx);
         }
 
         super.remove(concrete);
@@ -803,7 +886,7 @@ final class IonStructLite
         {
             writer.writeNull(IonType.STRUCT);
         }
-        else
+        else if (!writeLazyBodyTo(writer))
         {
             writer.stepIn(IonType.STRUCT);
             writeChildren(writer, this, symbolTableProvider);
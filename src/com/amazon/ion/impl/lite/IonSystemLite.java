@@ -38,10 +38,12 @@ import com.amazon.ion.IonTimestamp;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.SpanProvider;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.UnexpectedEofException;
 import com.amazon.ion.UnsupportedIonVersionException;
+import com.amazon.ion.impl._Private_EncodedLengthReader;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
 import com.amazon.ion.impl._Private_IonSystem;
 import com.amazon.ion.impl._Private_IonWriterFactory;
@@ -49,12 +51,14 @@ import com.amazon.ion.impl._Private_ScalarConversions.CantConvertException;
 import com.amazon.ion.impl._Private_Utils;
 import com.amazon.ion.system.IonReaderBuilder;
 import com.amazon.ion.system.IonTextWriterBuilder;
+import com.amazon.ion.system.StringInterner;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -78,10 +82,32 @@ final class IonSystemLite
     private final _Private_IonBinaryWriterBuilder myBinaryWriterBuilder;
     /** Immutable. **/
     private final IonReaderBuilder myReaderBuilder;
+    private final boolean myLazyMaterializationEnabled;
+    private final StringInterner myStringInterner;
+    /** Null unless child arrays are recycled. */
+    private final ThreadLocal<ChildArrayArena> myArenas;
 
     public IonSystemLite(IonTextWriterBuilder twb,
                           _Private_IonBinaryWriterBuilder bwb,
                           IonReaderBuilder rb)
+    {
+        this(twb, bwb, rb, false, null, false);
+    }
+
+    /**
+     * @param lazyMaterialization whether binary data loaded from byte arrays
+     * builds containers whose children are decoded on first access.
+     * @param stringInterner if not null, shares the text of the string and
+     * symbol values created by this system.
+     * @param childArrayRecycling whether released datagrams hand their
+     * containers' child arrays to a per-thread arena for reuse.
+     */
+    public IonSystemLite(IonTextWriterBuilder twb,
+                          _Private_IonBinaryWriterBuilder bwb,
+                          IonReaderBuilder rb,
+                          boolean lazyMaterialization,
+                          StringInterner stringInterner,
+                          boolean childArrayRecycling)
     {
         IonCatalog catalog = twb.getCatalog();
         assert catalog != null;
@@ -95,12 +121,15 @@ final class IonSystemLite
 
         myTextWriterBuilder = twb.immutable();
 
+        myStringInterner = stringInterner;
+        myArenas = (childArrayRecycling ? new ArenaThreadLocal() : null);
         set_system(this);
 
         bwb.setSymtabValueFactory(this);
         myBinaryWriterBuilder = bwb.immutable();
 
         myReaderBuilder = rb.immutable();
+        myLazyMaterializationEnabled = lazyMaterialization;
     }
 
     //==========================================================================
@@ -112,6 +141,64 @@ final class IonSystemLite
         return myBinaryWriterBuilder.isStreamCopyOptimized();
     }
 
+    boolean isLazyMaterializationEnabled()
+    {
+        return myLazyMaterializationEnabled;
+    }
+
+    /**
+     * @return the table sharing the text of new string and symbol values;
+     * may be null.
+     */
+    StringInterner getStringInterner()
+    {
+        return myStringInterner;
+    }
+
+    /**
+     * Static, so that the arenas of threads outliving this system don't keep
+     * it reachable.
+     */
+    private static final class ArenaThreadLocal
+        extends ThreadLocal<ChildArrayArena>
+    {
+        @Override
+        protected ChildArrayArena initialValue()
+        {
+            return new ChildArrayArena();
+        }
+    }
+
+    public void discardRecycledChildArrays()
+    {
+        if (myArenas != null) {
+            myArenas.remove();
+        }
+    }
+
+    /**
+     * @return a new or recycled container child array, all null.
+     */
+    IonValueLite[] newChildArray(int length)
+    {
+        if (myArenas == null) return new IonValueLite[length];
+        return myArenas.get().allocate(length);
+    }
+
+    /**
+     * Offers a container child array for reuse by the current thread.
+     *
+     * @param array must no longer be used by anything.
+     */
+    void recycleChildArray(IonValueLite[] array)
+    {
+        if (myArenas == null) return;
+        if (array.length <= ChildArrayArena.MAX_RECYCLED_LENGTH) {
+            Arrays.fill(array, null);
+            myArenas.get().recycle(array);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends IonValue> T clone(T value) throws IonException
     {
@@ -200,11 +287,30 @@ final class IonSystemLite
 
     public Iterator<IonValue> iterate(byte[] ionData)
     {
+        if (myLazyMaterializationEnabled)
+        {
+            Iterator<IonValue> lazy = iterateLazily(ionData, 0, ionData.length);
+            if (lazy != null) return lazy;
+        }
+
         // This method causes a memory leak when reading a gzipped stream, see deprecation notice.
         IonReader reader = makeReader(_catalog, ionData, _lstFactory);
         return iterate(reader);
     }
 
+    /**
+     * @return null if the data isn't binary Ion that can be read lazily.
+     */
+    private Iterator<IonValue> iterateLazily(byte[] ionData, int offset, int len)
+    {
+        LazyBinarySource source =
+            LazyBinarySource.forData(this, ionData, offset, len);
+        if (source == null) return null;
+
+        IonReader reader = makeReader(_catalog, ionData, offset, len, _lstFactory);
+        return new ReaderIterator(this, reader, source);
+    }
+
     public Iterator<IonValue> iterate(IonReader reader)
     {
         ReaderIterator iterator = new ReaderIterator(this, reader);
@@ -314,14 +420,34 @@ final class IonSystemLite
 
     public IonValueLite newValue(IonReader reader)
     {
-        IonValueLite value = load_value_helper(reader, /*isTopLevel*/ true);
+        return newValue(reader, null, null);
+    }
+
+    /**
+     * @param lazy if not null, containers are loaded without their children,
+     * which are decoded from this source on first access.
+     * @param spans provides the location of the reader's current value
+     * within {@code lazy}; must be null iff {@code lazy} is.
+     */
+    IonValueLite newValue(IonReader reader,
+                          LazyBinarySource lazy,
+                          SpanProvider spans)
+    {
+        _Private_EncodedLengthReader lengths =
+            reader.asFacet(_Private_EncodedLengthReader.class);
+        IonValueLite value =
+            load_value_helper(reader, /*isTopLevel*/ true, lazy, spans, lengths);
         if (value == null) {
             throw new IonException("No value available");
         }
         return value;
     }
 
-    private IonValueLite load_value_helper(IonReader reader, boolean isTopLevel)
+    private IonValueLite load_value_helper(IonReader reader,
+                                           boolean isTopLevel,
+                                           LazyBinarySource lazy,
+                                           SpanProvider spans,
+                                           _Private_EncodedLengthReader lengths)
     {
         boolean symbol_is_present = false;
 
@@ -425,7 +551,20 @@ final class IonSystemLite
             case STRUCT:
                 // we have to load the children after we grabbed the
                 // fieldname and annotations off of the parent container
-                if (load_children((IonContainerLite)v, reader)) {
+                if (lazy != null
+                    && !(t == IonType.STRUCT
+                         && annotations.length != 0
+                         && ION_SYMBOL_TABLE.equals(annotations[0].getText())))
+                {
+                    // Nested values that look like symbol tables would be
+                    // consumed as such when read on their own, so they are
+                    // always loaded eagerly.
+                    ((IonContainerLite)v).setLazyChildren(lazy.slice(spans));
+                    // We can't tell without decoding the children.
+                    symbol_is_present = true;
+                }
+                else if (load_children((IonContainerLite)v, reader, lazy, spans,
+                                       lengths)) {
                     symbol_is_present = true;
                 }
                 break;
@@ -440,20 +579,49 @@ final class IonSystemLite
     }
 
     /**
+     * @param lengths if not null, provides the encoded length of the
+     * reader's current value, used to size the container's child array.
+     *
      * @return true iff any child contains a symbol
      * (including field names and annotations)
      */
-    private boolean load_children(IonContainerLite container, IonReader reader)
+    boolean load_children(IonContainerLite container,
+                          IonReader reader,
+                          LazyBinarySource lazy,
+                          SpanProvider spans,
+                          _Private_EncodedLengthReader lengths)
     {
         boolean symbol_is_present = false;
 
+        long length = (lengths == null) ? -1 : lengths.getEncodedLength();
+        // Lazily loaded lists are already cheap until they're touched.
+        PackedChildren.Builder packed =
+            (lazy == null && container.getType() == IonType.LIST)
+                ? new PackedChildren.Builder()
+                : null;
         reader.stepIn();
         for (;;) {
             IonType t = reader.next();
             if (t == null) {
                 break;
             }
-            IonValueLite child = load_value_helper(reader, /*isTopLevel*/ false);
+            if (packed != null) {
+                if (packed.add(reader, t)) continue;
+                packed.unpackInto(container);
+                packed = null;
+            }
+            if (length > 0) {
+                // Guess the number of children from the size of the first,
+                // so that large containers don't grow their array in steps.
+                int hint = estimateChildCount(length,
+                                              lengths.getEncodedLength(),
+                                              reader.isInStruct());
+                container.ensureCapacity(hint);
+                length = 0;
+            }
+            IonValueLite child =
+                load_value_helper(reader, /*isTopLevel*/ false, lazy, spans,
+                                  lengths);
 
             container.add(child);
 
@@ -463,9 +631,39 @@ final class IonSystemLite
         }
         reader.stepOut();
 
+        if (packed != null) {
+            PackedChildren children = packed.build(container);
+            if (children != null) {
+                container.setLazyChildren(children);
+                return symbol_is_present;
+            }
+        }
+
+        if (length == 0) {
+            container.finishCapacityLoad();
+        }
+
         return symbol_is_present;
     }
 
+    private static int estimateChildCount(long containerLength,
+                                          long firstChildLength,
+                                          boolean isStruct)
+    {
+        // Every value takes at least one byte, and its field name another.
+        int minChildLength = isStruct ? 2 : 1;
+        if (isStruct) {
+            firstChildLength++; // for the field name
+        }
+        firstChildLength = Math.max(firstChildLength, minChildLength);
+        long count = containerLength / firstChildLength;
+        // No more children than fit in the bytes after the first.
+        long max = 1 + Math.max(containerLength - firstChildLength, 0)
+                       / minChildLength;
+        return (int) Math.min(Math.max(count, 1),
+                              Math.min(max, Integer.MAX_VALUE));
+    }
+
     IonValueLite newValue(IonType valueType)
     {
         IonValueLite v;
@@ -528,6 +726,12 @@ final class IonSystemLite
 
     @Override
     public IonValue singleValue(byte[] ionData, int offset, int len) {
+        if (myLazyMaterializationEnabled)
+        {
+            Iterator<IonValue> lazy = iterateLazily(ionData, offset, len);
+            if (lazy != null) return singleValue(lazy);
+        }
+
         IonReader reader = newReader(ionData, offset, len);
         try {
             Iterator<IonValue> it = iterate(reader);
@@ -559,6 +763,8 @@ final class IonSystemLite
     {
         private final IonReader        _reader;
         private final IonSystemLite    _system;
+        private final LazyBinarySource _lazy;
+        private final SpanProvider     _spans;
         private       IonType          _next;
 
 
@@ -566,9 +772,22 @@ final class IonSystemLite
         //       we are creating ion values which might want
         //       a local symbol table in some cases.
         protected ReaderIterator(IonSystemLite system, IonReader reader)
+        {
+            this(system, reader, null);
+        }
+
+        /**
+         * @param lazy if not null, the data being read by {@code reader},
+         * from which the children of containers are decoded on access.
+         */
+        ReaderIterator(IonSystemLite system,
+                       IonReader reader,
+                       LazyBinarySource lazy)
         {
             _reader = reader;
             _system = system;
+            _lazy = lazy;
+            _spans = (lazy == null ? null : reader.asFacet(SpanProvider.class));
         }
 
         public boolean hasNext()
@@ -594,7 +813,7 @@ final class IonSystemLite
 
             // make an ion value from our reader
             // We called _reader.next() inside hasNext() above
-            IonValueLite value = _system.newValue(_reader);
+            IonValueLite value = _system.newValue(_reader, _lazy, _spans);
 
             // we've used up the value now, force a _reader._next() the next time through
             _next = null;
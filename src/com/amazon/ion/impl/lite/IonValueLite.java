@@ -38,6 +38,7 @@ import com.amazon.ion.system.IonTextWriterBuilder;
 import com.amazon.ion.util.Printer;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Map;
 
 /**
  *  Base class of the light weight implementation of
@@ -425,6 +426,12 @@ abstract class IonValueLite
      */
     abstract int hashCode(SymbolTableProvider symbolTableProvider);
 
+    public int cachedHashCode()
+    {
+        // Only containers are worth caching.
+        return 0;
+    }
+
     public IonContainerLite getContainer()
     {
         return _context.getContextContainer();
@@ -617,6 +624,24 @@ abstract class IonValueLite
         throw new UnknownSymbolException(_fieldId);
     }
 
+    /**
+     * Returns the field name's symbol ID as stored, without looking up the
+     * text in the symbol table.
+     */
+    final int _fieldsid()
+    {
+        return _fieldId;
+    }
+
+    /**
+     * Returns the field name's text as stored, or null if it's unknown,
+     * without looking it up in the symbol table or throwing.
+     */
+    final String _fieldtext()
+    {
+        return _fieldName;
+    }
+
     public final int getFieldNameId()
     {
         return getFieldId();
@@ -768,6 +793,17 @@ abstract class IonValueLite
         return false;
     }
 
+    /**
+     * @return true if this value has at least one annotation.
+     */
+    final boolean hasTypeAnnotations()
+    {
+        // Annotations are packed at the front of the array.
+        return _annotations != null
+            && _annotations.length != 0
+            && _annotations[0] != null;
+    }
+
     public final int findTypeAnnotation(String annotation)
     {
         assert(annotation != null && annotation.length() > 0);
@@ -860,16 +896,64 @@ abstract class IonValueLite
     public void makeReadOnly()
     {
         if (!_isLocked()) {
-            makeReadOnlyInternal();
+            // A lone value has no other field names to share its own with.
+            makeReadOnlyInternal(null);
         }
     }
 
-    void makeReadOnlyInternal()
+    /**
+     * Locks this value, and compacts it since it can no longer change.
+     *
+     * @param fieldNames maps each field name seen so far in the tree being
+     * made read-only to its canonical instance, or null to leave field names
+     * as they are.
+     */
+    void makeReadOnlyInternal(Map<String, String> fieldNames)
     {
         clearSymbolIDValues();
+        compactForReadOnly(fieldNames);
         _isLocked(true);
     }
 
+    /**
+     * Shares this value's field name with equal ones elsewhere in the tree,
+     * and drops the spare capacity of its annotations.
+     */
+    final void compactForReadOnly(Map<String, String> fieldNames)
+    {
+        if (_fieldName != null && fieldNames != null)
+        {
+            String shared = fieldNames.get(_fieldName);
+            if (shared == null)
+            {
+                fieldNames.put(_fieldName, _fieldName);
+            }
+            else
+            {
+                _fieldName = shared;
+            }
+        }
+
+        if (_annotations != null)
+        {
+            int count = 0;
+            while (count < _annotations.length && _annotations[count] != null)
+            {
+                count++;
+            }
+            if (count == 0)
+            {
+                _annotations = null;
+            }
+            else if (count < _annotations.length)
+            {
+                SymbolToken[] temp = new SymbolToken[count];
+                System.arraycopy(_annotations, 0, temp, 0, count);
+                _annotations = temp;
+            }
+        }
+    }
+
     /**
      * Verifies that this value is not read-only.
      *
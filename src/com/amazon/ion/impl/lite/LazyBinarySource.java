@@ -0,0 +1,157 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.impl._Private_EncodedLengthReader;
+import com.amazon.ion.util.IonStreamUtils;
+import java.io.IOException;
+
+/**
+ * Binary Ion data from which lazily loaded containers decode their children.
+ * <p>
+ * A container loaded lazily holds a {@link Slice}: the {@link Span} of its
+ * encoded form, which also carries the symbol table in effect there. Its
+ * children are decoded the first time they are needed, with nested
+ * containers again left undecoded. Containers whose children are never
+ * touched are written straight from the encoded data, and binary writers
+ * that are stream-copy optimized copy their bytes verbatim.
+ * <p>
+ * All slices of a document share one seekable reader, so decoding is
+ * serialized on this source. Containers are fully decoded when they're made
+ * read-only, after which they don't touch the source at all.
+ */
+final class LazyBinarySource
+{
+    private final IonSystemLite  mySystem;
+    private final IonReader      myReader;
+    private final SeekableReader mySeeker;
+    private final SpanProvider   mySpans;
+    private final _Private_EncodedLengthReader myLengths;
+
+
+    private LazyBinarySource(IonSystemLite system,
+                             IonReader reader,
+                             SeekableReader seeker)
+    {
+        mySystem = system;
+        myReader = reader;
+        mySeeker = seeker;
+        mySpans  = seeker;
+        myLengths = reader.asFacet(_Private_EncodedLengthReader.class);
+    }
+
+    /**
+     * @return the source for the given data, or null if it isn't binary Ion
+     * that can be read lazily.
+     */
+    static LazyBinarySource forData(IonSystemLite system,
+                                    byte[] data, int offset, int len)
+    {
+        if (! IonStreamUtils.isIonBinary(data, offset, len)) return null;
+
+        IonReader reader = makeReader(system.getCatalog(), data, offset, len,
+                                      system.getLstFactory());
+        SeekableReader seeker = reader.asFacet(SeekableReader.class);
+        if (seeker == null) return null;
+
+        return new LazyBinarySource(system, reader, seeker);
+    }
+
+    /**
+     * @param spans locates the current value of a reader over this source's
+     * data; that value must be a container.
+     */
+    Slice slice(SpanProvider spans)
+    {
+        return new Slice(this, spans.currentSpan());
+    }
+
+
+    private synchronized void loadChildren(IonContainerLite container,
+                                           Span span)
+    {
+        mySeeker.hoist(span);
+        myReader.next();
+        mySystem.load_children(container, myReader, this, mySpans, myLengths);
+    }
+
+    private synchronized void writeTo(IonWriter writer,
+                                      Span span,
+                                      boolean annotated)
+        throws IOException
+    {
+        mySeeker.hoist(span);
+        IonType type = myReader.next();
+
+        if (! annotated && myReader.getTypeAnnotationSymbols().length == 0)
+        {
+            // The writer already has the field name, so the value can go
+            // across whole, and its bytes copied if the writer allows.
+            writer.writeValue(myReader);
+        }
+        else
+        {
+            // The writer holds the value's current annotations, which may
+            // differ from the encoded ones.
+            writer.stepIn(type);
+            myReader.stepIn();
+            while (myReader.next() != null)
+            {
+                writer.writeValue(myReader);
+            }
+            myReader.stepOut();
+            writer.stepOut();
+        }
+    }
+
+
+    /**
+     * The encoded children of one container.
+     */
+    static final class Slice
+        extends LazyChildren
+    {
+        private final LazyBinarySource mySource;
+        private final Span             mySpan;
+
+        private Slice(LazyBinarySource source, Span span)
+        {
+            mySource = source;
+            mySpan   = span;
+        }
+
+        @Override
+        void loadChildren(IonContainerLite container)
+        {
+            mySource.loadChildren(container, mySpan);
+        }
+
+        @Override
+        void writeTo(IonWriter writer, boolean annotated)
+            throws IOException
+        {
+            mySource.writeTo(writer, mySpan, annotated);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import com.amazon.ion.IonWriter;
+import java.io.IOException;
+
+/**
+ * The children of an {@link IonContainerLite} that haven't been created yet.
+ * Implementations must be immutable, since they may be shared by several
+ * containers.
+ *
+ * @see IonContainerLite#materialize()
+ */
+abstract class LazyChildren
+{
+    /**
+     * @return true if clones of the container can share these children
+     * rather than creating theirs straight away.
+     */
+    boolean isSharedByClones()
+    {
+        return false;
+    }
+
+    /**
+     * Creates the children in the given (empty) container.
+     */
+    abstract void loadChildren(IonContainerLite container);
+
+    /**
+     * Writes the container body; the writer must already have the
+     * container's field name and annotations.
+     *
+     * @param annotated whether the container has annotations.
+     */
+    abstract void writeTo(IonWriter writer, boolean annotated)
+        throws IOException;
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.util.IonStreamUtils;
+import java.io.IOException;
+
+/**
+ * The children of a loaded list whose elements are all plain ints or all
+ * plain floats, held in a primitive array until they're first accessed.
+ * An untouched list of a million ints costs eight megabytes rather than a
+ * million {@link IonIntLite}s, and is written through the bulk list paths
+ * of {@link IonStreamUtils}.
+ * <p>
+ * Elements are "plain" when they're non-null and unannotated, and for ints,
+ * fit in a {@code long}.
+ */
+final class PackedChildren
+    extends LazyChildren
+{
+    /** Smaller lists aren't worth packing. */
+    static final int MIN_PACKED_SIZE = 8;
+
+    private final long[]   myLongs;
+    private final double[] myDoubles;
+
+    private PackedChildren(long[] longs, double[] doubles)
+    {
+        myLongs   = longs;
+        myDoubles = doubles;
+    }
+
+    @Override
+    boolean isSharedByClones()
+    {
+        return true;
+    }
+
+    @Override
+    void loadChildren(IonContainerLite container)
+    {
+        IonSystemLite system = container.getSystem();
+        if (myLongs != null) {
+            container.ensureCapacity(myLongs.length);
+            for (long value : myLongs) {
+                container.add(system.newInt(value));
+            }
+        }
+        else {
+            container.ensureCapacity(myDoubles.length);
+            for (double value : myDoubles) {
+                container.add(system.newFloat(value));
+            }
+        }
+    }
+
+    @Override
+    void writeTo(IonWriter writer, boolean annotated)
+        throws IOException
+    {
+        if (myLongs != null) {
+            IonStreamUtils.writeIntList(writer, myLongs);
+        }
+        else {
+            IonStreamUtils.writeFloatList(writer, myDoubles);
+        }
+    }
+
+
+    /**
+     * Collects the elements of a list as it's read, for as long as they can
+     * be packed.
+     */
+    static final class Builder
+    {
+        private IonType  myType;
+        private long[]   myLongs;
+        private double[] myDoubles;
+        private int      myCount;
+
+        /**
+         * Adds the reader's current value if it can be packed along with
+         * those already added.
+         *
+         * @return false if the value can't be packed, in which case nothing
+         * was read.
+         */
+        boolean add(IonReader reader, IonType type)
+        {
+            if (myType == null) {
+                if (type != IonType.INT && type != IonType.FLOAT) return false;
+                myType = type;
+            }
+            else if (type != myType) {
+                return false;
+            }
+            if (reader.isNullValue()
+                || reader.getTypeAnnotationSymbols().length != 0) {
+                return false;
+            }
+
+            if (type == IonType.INT) {
+                if (reader.getIntegerSize() == IntegerSize.BIG_INTEGER) {
+                    return false;
+                }
+                if (myLongs == null) {
+                    myLongs = new long[MIN_PACKED_SIZE];
+                }
+                else if (myCount == myLongs.length) {
+                    long[] temp = new long[myCount * 2];
+                    System.arraycopy(myLongs, 0, temp, 0, myCount);
+                    myLongs = temp;
+                }
+                myLongs[myCount++] = reader.longValue();
+            }
+            else {
+                if (myDoubles == null) {
+                    myDoubles = new double[MIN_PACKED_SIZE];
+                }
+                else if (myCount == myDoubles.length) {
+                    double[] temp = new double[myCount * 2];
+                    System.arraycopy(myDoubles, 0, temp, 0, myCount);
+                    myDoubles = temp;
+                }
+                myDoubles[myCount++] = reader.doubleValue();
+            }
+            return true;
+        }
+
+        /**
+         * Adds the values collected so far to the given container as
+         * ordinary children; used when packing turns out not to be worth it
+         * or not to be possible.
+         */
+        void unpackInto(IonContainerLite container)
+        {
+            if (myCount != 0) {
+                new PackedChildren(trim(myLongs), trim(myDoubles))
+                    .loadChildren(container);
+                myCount = 0;
+            }
+            myType = null;
+            myLongs = null;
+            myDoubles = null;
+        }
+
+        /**
+         * @return the packed children, or null if there are too few of
+         * them, in which case they're added to the container instead.
+         */
+        PackedChildren build(IonContainerLite container)
+        {
+            if (myCount < MIN_PACKED_SIZE) {
+                unpackInto(container);
+                return null;
+            }
+            return new PackedChildren(trim(myLongs), trim(myDoubles));
+        }
+
+        private long[] trim(long[] values)
+        {
+            if (values == null || values.length == myCount) return values;
+            long[] temp = new long[myCount];
+            System.arraycopy(values, 0, temp, 0, myCount);
+            return temp;
+        }
+
+        private double[] trim(double[] values)
+        {
+            if (values == null || values.length == myCount) return values;
+            double[] temp = new double[myCount];
+            System.arraycopy(values, 0, temp, 0, myCount);
+            return temp;
+        }
+    }
+}
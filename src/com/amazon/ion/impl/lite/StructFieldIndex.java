@@ -0,0 +1,343 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import com.amazon.ion.SymbolTable;
+import java.util.Arrays;
+
+/**
+ * Maps field names to child indexes for {@link IonStructLite}.
+ * <p>
+ * This is an open-addressing table with linear probing over parallel arrays,
+ * so lookups don't box indexes or allocate entries. Field names usually come
+ * from symbol tables and are shared between values, so keys are compared by
+ * reference before falling back to {@link String#equals(Object)}.
+ * <p>
+ * Fields whose text is unknown are keyed by their symbol ID instead, in a
+ * second table of the same form that's only allocated once such a field is
+ * added. A field with known text is never found by its ID, since IDs of
+ * known text depend on the symbol table in effect.
+ * <p>
+ * Removal shifts later entries of the probe sequence back rather than
+ * leaving tombstones, so the tables never need to be cleaned up.
+ */
+final class StructFieldIndex
+{
+    private static final int NOT_FOUND = -1;
+
+    private String[] myKeys;
+    private int[]    myHashes;
+    private int[]    myValues;
+    private int      myMask;
+    private int      mySize;
+
+    /**
+     * The symbol IDs of fields with unknown text, and their indexes; a slot
+     * is free when its value is -1. Null until the first such field is put.
+     */
+    private int[]    mySidKeys;
+    private int[]    mySidValues;
+    private int      mySidSize;
+
+
+    /**
+     * @param expectedSize the number of distinct field names to size for.
+     */
+    StructFieldIndex(int expectedSize)
+    {
+        int capacity = 8;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    StructFieldIndex(StructFieldIndex existing)
+    {
+        // Keys are immutable Strings so the arrays can be copied shallowly.
+        myKeys         = existing.myKeys.clone();
+        myHashes       = existing.myHashes.clone();
+        myValues       = existing.myValues.clone();
+        myMask         = existing.myMask;
+        mySize         = existing.mySize;
+        if (existing.mySidKeys != null) {
+            mySidKeys   = existing.mySidKeys.clone();
+            mySidValues = existing.mySidValues.clone();
+            mySidSize   = existing.mySidSize;
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        myKeys   = new String[capacity];
+        myHashes = new int[capacity];
+        myValues = new int[capacity];
+        myMask   = capacity - 1;
+    }
+
+    private void allocateSids(int capacity)
+    {
+        mySidKeys   = new int[capacity];
+        mySidValues = new int[capacity];
+        Arrays.fill(mySidValues, NOT_FOUND);
+    }
+
+    private static int hash(String key)
+    {
+        // String caches its hash code; spread it since we mask the low bits.
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int slotOf(String key, int hash)
+    {
+        final String[] keys = myKeys;
+        int slot = hash & myMask;
+        for (;;) {
+            String k = keys[slot];
+            if (k == null
+                || k == key
+                || (myHashes[slot] == hash && k.equals(key))) {
+                return slot;
+            }
+            slot = (slot + 1) & myMask;
+        }
+    }
+
+    private static int hash(int sid)
+    {
+        int h = sid * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int sidSlotOf(int sid)
+    {
+        final int mask = mySidKeys.length - 1;
+        int slot = hash(sid) & mask;
+        while (mySidValues[slot] != NOT_FOUND && mySidKeys[slot] != sid) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+
+    /**
+     * @param text the field name, or null if its text is unknown.
+     * @param sid the field's symbol ID; used only when {@code text} is null.
+     *
+     * @return the index mapped to the field name, or -1 if there is none.
+     */
+    int get(String text, int sid)
+    {
+        if (text == null) {
+            if (mySidKeys == null) return NOT_FOUND;
+            return mySidValues[sidSlotOf(sid)];
+        }
+        int slot = slotOf(text, hash(text));
+        return (myKeys[slot] == null) ? NOT_FOUND : myValues[slot];
+    }
+
+    /**
+     * Maps the field name to {@code value}, replacing any existing mapping.
+     *
+     * @param text the field name, or null if its text is unknown.
+     * @param sid the field's symbol ID; used only when {@code text} is null.
+     *
+     * @return the previous index mapped to the field name, or -1 if there was
+     * none.
+     */
+    int put(String text, int sid, int value)
+    {
+        assert value >= 0;
+        if (text == null) {
+            return putSid(sid, value);
+        }
+
+        int hash = hash(text);
+        int slot = slotOf(text, hash);
+        if (myKeys[slot] != null) {
+            int previous = myValues[slot];
+            myValues[slot] = value;
+            return previous;
+        }
+
+        myKeys[slot]   = text;
+        myHashes[slot] = hash;
+        myValues[slot] = value;
+        mySize++;
+        if (mySize * 2 > myKeys.length) {
+            grow();
+        }
+        return NOT_FOUND;
+    }
+
+    private int putSid(int sid, int value)
+    {
+        if (mySidKeys == null) {
+            allocateSids(4);
+        }
+        int slot = sidSlotOf(sid);
+        int previous = mySidValues[slot];
+        mySidKeys[slot]   = sid;
+        mySidValues[slot] = value;
+        if (previous == NOT_FOUND) {
+            mySidSize++;
+            if (mySidSize * 2 > mySidKeys.length) {
+                growSids();
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the mapping for the field name, if any.
+     *
+     * @param text the field name, or null if its text is unknown.
+     * @param sid the field's symbol ID; used only when {@code text} is null.
+     */
+    void remove(String text, int sid)
+    {
+        if (text == null) {
+            removeSid(sid);
+            return;
+        }
+
+        final String[] keys = myKeys;
+        int slot = slotOf(text, hash(text));
+        if (keys[slot] == null) return;
+
+        // Shift back any later entries whose probe sequence passes through
+        // the freed slot.
+        int free = slot;
+        int next = (free + 1) & myMask;
+        while (keys[next] != null) {
+            int home = myHashes[next] & myMask;
+            if (((next - home) & myMask) >= ((next - free) & myMask)) {
+                keys[free]     = keys[next];
+                myHashes[free] = myHashes[next];
+                myValues[free] = myValues[next];
+                free = next;
+            }
+            next = (next + 1) & myMask;
+        }
+        keys[free] = null;
+        mySize--;
+    }
+
+    private void removeSid(int sid)
+    {
+        if (mySidKeys == null) return;
+
+        final int[] values = mySidValues;
+        final int mask = mySidKeys.length - 1;
+        int slot = sidSlotOf(sid);
+        if (values[slot] == NOT_FOUND) return;
+
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (values[next] != NOT_FOUND) {
+            int home = hash(mySidKeys[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                mySidKeys[free] = mySidKeys[next];
+                values[free]    = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[free] = NOT_FOUND;
+        mySidSize--;
+    }
+
+    private void grow()
+    {
+        String[] oldKeys   = myKeys;
+        int[]    oldHashes = myHashes;
+        int[]    oldValues = myValues;
+
+        allocate(oldKeys.length * 2);
+        for (int ii = 0; ii < oldKeys.length; ii++) {
+            String key = oldKeys[ii];
+            if (key != null) {
+                int slot = slotOf(key, oldHashes[ii]);
+                myKeys[slot]   = key;
+                myHashes[slot] = oldHashes[ii];
+                myValues[slot] = oldValues[ii];
+            }
+        }
+    }
+
+    private void growSids()
+    {
+        int[] oldKeys   = mySidKeys;
+        int[] oldValues = mySidValues;
+
+        allocateSids(oldKeys.length * 2);
+        for (int ii = 0; ii < oldKeys.length; ii++) {
+            if (oldValues[ii] != NOT_FOUND) {
+                int slot = sidSlotOf(oldKeys[ii]);
+                mySidKeys[slot]   = oldKeys[ii];
+                mySidValues[slot] = oldValues[ii];
+            }
+        }
+    }
+
+
+    //=========================================================================
+    // Iteration, used for dumping and validation
+
+
+    /**
+     * @return the number of slots to pass to {@link #keyAt(int)},
+     * {@link #sidAt(int)} and {@link #valueAt(int)}; the slots after those
+     * of the field names hold the symbol IDs of fields with unknown text.
+     */
+    int slotCount()
+    {
+        return myKeys.length + (mySidKeys == null ? 0 : mySidKeys.length);
+    }
+
+    /**
+     * @return whether the given slot holds a mapping.
+     */
+    boolean isUsed(int slot)
+    {
+        if (slot >= myKeys.length) {
+            return mySidValues[slot - myKeys.length] != NOT_FOUND;
+        }
+        return myKeys[slot] != null;
+    }
+
+    /**
+     * @return the field name of the given slot, or null if the slot is
+     * keyed by {@link #sidAt(int) symbol ID}.
+     */
+    String keyAt(int slot)
+    {
+        return (slot >= myKeys.length) ? null : myKeys[slot];
+    }
+
+    int sidAt(int slot)
+    {
+        return (slot >= myKeys.length) ? mySidKeys[slot - myKeys.length]
+                                       : SymbolTable.UNKNOWN_SYMBOL_ID;
+    }
+
+    int valueAt(int slot)
+    {
+        return (slot >= myKeys.length) ? mySidValues[slot - myKeys.length]
+                                       : myValues[slot];
+    }
+}
@@ -26,6 +26,7 @@ import com.amazon.ion.Timestamp;
 import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
 import com.amazon.ion.impl._Private_Utils;
 import com.amazon.ion.impl._Private_ValueFactory;
+import com.amazon.ion.system.StringInterner;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -43,6 +44,8 @@ abstract class ValueFactoryLite
 {
     protected final _Private_LocalSymbolTableFactory _lstFactory;
     private ContainerlessContext _context;
+    /** Shares the text of new strings and symbols; may be null. */
+    private StringInterner _interner;
 
     ValueFactoryLite()
     {
@@ -51,6 +54,7 @@ abstract class ValueFactoryLite
 
     protected void set_system(IonSystemLite system) {
         _context = ContainerlessContext.wrap(system);
+        _interner = system.getStringInterner();
     }
 
     public IonBlobLite newBlob(byte[] value)
@@ -379,6 +383,9 @@ abstract class ValueFactoryLite
 
     public IonStringLite newString(String value)
     {
+        if (_interner != null) {
+            value = _interner.intern(value);
+        }
         boolean isNull = (value == null);
         IonStringLite ionValue = new IonStringLite(_context, isNull);
         if (value != null) {
@@ -389,6 +396,9 @@ abstract class ValueFactoryLite
 
     public IonSymbolLite newSymbol(String value)
     {
+        if (_interner != null) {
+            value = _interner.intern(value);
+        }
         boolean isNull = (value == null);
         IonSymbolLite ionValue = new IonSymbolLite(_context, isNull);
         if (value != null) {
@@ -399,6 +409,10 @@ abstract class ValueFactoryLite
 
     public IonSymbolLite newSymbol(SymbolToken value)
     {
+        if (_interner != null && value != null && value.getText() != null) {
+            // Symbols with known text don't retain their SID.
+            return newSymbol(value.getText());
+        }
         return new IonSymbolLite(_context, value);
     }
 
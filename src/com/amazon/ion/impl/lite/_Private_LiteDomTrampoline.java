@@ -20,6 +20,7 @@ import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
 import com.amazon.ion.system.IonReaderBuilder;
 import com.amazon.ion.system.IonTextWriterBuilder;
+import com.amazon.ion.system.StringInterner;
 
 /**
  * NOT FOR APPLICATION USE!
@@ -36,6 +37,17 @@ public final class _Private_LiteDomTrampoline
         return new IonSystemLite(twb, bwb, rb);
     }
 
+    public static IonSystem newLiteSystem(IonTextWriterBuilder twb,
+                                          _Private_IonBinaryWriterBuilder bwb,
+                                          IonReaderBuilder rb,
+                                          boolean lazyMaterialization,
+                                          StringInterner stringInterner,
+                                          boolean childArrayRecycling)
+    {
+        return new IonSystemLite(twb, bwb, rb, lazyMaterialization,
+                                 stringInterner, childArrayRecycling);
+    }
+
     public static boolean isLiteSystem(IonSystem system)
     {
         return (system instanceof IonSystemLite);
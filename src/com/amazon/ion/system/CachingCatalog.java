@@ -0,0 +1,659 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonMutableCatalog;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl._Private_Utils;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * An {@link IonCatalog} that loads shared symbol tables on demand and keeps
+ * a bounded number of them.
+ * <p>
+ * Tables that aren't in the catalog are requested from a {@link Loader},
+ * such as the one returned by {@link #directoryLoader(File)}, and cached
+ * under the name and version that were asked for. When more than the
+ * configured number of loaded tables are cached, the least recently used
+ * one is dropped, to be loaded again if it's needed later. Tables added by
+ * {@link #putTable(SymbolTable)} are never dropped.
+ * <p>
+ * Lookups of cached tables don't lock, and concurrent requests for the same
+ * missing table wait for a single load. If that load fails, every waiting
+ * request fails with it, and the next request tries again. The catalog counts hits, misses
+ * and loads, and the time spent loading.
+ * <p>
+ * <b>Instances of this class are safe for use by multiple threads.</b>
+ */
+public class CachingCatalog
+    implements IonMutableCatalog, Iterable<SymbolTable>
+{
+    /**
+     * Fetches shared symbol tables for a {@link CachingCatalog}.
+     * <p>
+     * Implementations must be safe for use by multiple threads.
+     */
+    public interface Loader
+    {
+        /**
+         * Loads a shared symbol table.
+         *
+         * @param name the name of the table; not null or empty.
+         * @param version the version requested, or zero for the highest
+         * version available.
+         *
+         * @return the table with the given name and version if there is
+         * one; otherwise the best match as defined by {@link IonCatalog},
+         * or null if there's no table with that name.
+         *
+         * @throws IOException if the table can't be read.
+         */
+        SymbolTable loadTable(String name, int version)
+            throws IOException;
+    }
+
+
+    /**
+     * The version under which the highest version of a table is cached.
+     */
+    private static final int LATEST = 0;
+
+    private static final class Key
+    {
+        final String myName;
+        final int    myVersion;
+
+        Key(String name, int version)
+        {
+            myName = name;
+            myVersion = version;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return myName.hashCode() * 31 + myVersion;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            Key key = (Key) other;
+            return myVersion == key.myVersion && myName.equals(key.myName);
+        }
+    }
+
+    /**
+     * A cached table, or one that's being loaded.
+     */
+    private static final class Entry
+    {
+        volatile boolean     myLoaded;
+        volatile SymbolTable myTable;
+
+        /** Why the load failed, so that threads waiting for it fail too. */
+        volatile Throwable   myFailure;
+
+        /**
+         * When the table was last returned. Written without synchronization,
+         * so eviction order is only approximately LRU.
+         */
+        long myLastUsed = System.nanoTime();
+    }
+
+
+    private final Loader myLoader;
+    private final int    myMaxLoadedTables;
+
+    /** Tables added by {@link #putTable(SymbolTable)}, by name and version. */
+    private final ConcurrentMap<String, ConcurrentSkipListMap<Integer, SymbolTable>> myPutTables =
+        new ConcurrentHashMap<String, ConcurrentSkipListMap<Integer, SymbolTable>>();
+
+    /** Loaded tables, by requested name and version. */
+    private final ConcurrentMap<Key, Entry> myLoadedTables =
+        new ConcurrentHashMap<Key, Entry>();
+
+    private final AtomicLong myHits      = new AtomicLong();
+    private final AtomicLong myMisses    = new AtomicLong();
+    private final AtomicLong myLoads     = new AtomicLong();
+    private final AtomicLong myLoadNanos = new AtomicLong();
+    private final AtomicLong myEvictions = new AtomicLong();
+
+
+    /**
+     * @param loader loads tables that aren't in this catalog; may be null,
+     * in which case this catalog holds only the tables put into it.
+     * @param maxLoadedTables the number of loaded tables to keep.
+     */
+    public CachingCatalog(Loader loader, int maxLoadedTables)
+    {
+        if (maxLoadedTables < 1)
+        {
+            throw new IllegalArgumentException("maxLoadedTables must be positive");
+        }
+        myLoader = loader;
+        myMaxLoadedTables = maxLoadedTables;
+    }
+
+
+    /**
+     * Creates a loader that reads each table from its own file beneath a
+     * directory. The table named {@code name} with version {@code v} is
+     * read from the file {@code name.v.ion}, which holds the table in text
+     * or binary Ion. Slashes in the name denote subdirectories.
+     * <p>
+     * Since table names come from the imports of the data being read, the
+     * loader never reads outside the directory: names with empty, {@code .}
+     * or {@code ..} segments or with backslashes, and names that resolve
+     * elsewhere through links, aren't found.
+     *
+     * @param directory the root of the tables' files.
+     *
+     * @return a new loader, not null.
+     */
+    public static Loader directoryLoader(File directory)
+    {
+        if (directory == null)
+        {
+            throw new IllegalArgumentException("directory is null");
+        }
+        return new DirectoryLoader(directory);
+    }
+
+
+    private static void checkName(String name)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (name.length() == 0)
+        {
+            throw new IllegalArgumentException("name is empty");
+        }
+    }
+
+    public SymbolTable getTable(String name)
+    {
+        checkName(name);
+
+        ConcurrentSkipListMap<Integer, SymbolTable> versions =
+            myPutTables.get(name);
+        SymbolTable put = null;
+        if (versions != null)
+        {
+            Map.Entry<Integer, SymbolTable> last = versions.lastEntry();
+            if (last != null) put = last.getValue();
+        }
+        if (myLoader == null)
+        {
+            (put == null ? myMisses : myHits).incrementAndGet();
+            return put;
+        }
+
+        SymbolTable loaded = findOrLoad(new Key(name, LATEST));
+        if (put == null) return loaded;
+        if (loaded == null) return put;
+        return (loaded.getVersion() > put.getVersion() ? loaded : put);
+    }
+
+    public SymbolTable getTable(String name, int version)
+    {
+        checkName(name);
+        if (version < 1)
+        {
+            throw new IllegalArgumentException("version is < 1");
+        }
+
+        ConcurrentSkipListMap<Integer, SymbolTable> versions =
+            myPutTables.get(name);
+        if (versions != null)
+        {
+            SymbolTable st = versions.get(version);
+            if (st != null)
+            {
+                myHits.incrementAndGet();
+                return st;
+            }
+        }
+
+        SymbolTable st = null;
+        if (myLoader != null)
+        {
+            st = findOrLoad(new Key(name, version));
+        }
+        else
+        {
+            myMisses.incrementAndGet();
+        }
+
+        if (versions != null && (st == null || st.getVersion() != version))
+        {
+            // Give the best one we have, as SimpleCatalog does, whether it
+            // was put or loaded.
+            List<Integer> available = new ArrayList<Integer>(versions.keySet());
+            if (st != null) available.add(st.getVersion());
+
+            Integer best = SimpleCatalog.bestMatch(version, available);
+            if (best != null && (st == null || best != st.getVersion()))
+            {
+                SymbolTable put = versions.get(best);
+                if (put != null) st = put;
+            }
+        }
+        return st;
+    }
+
+    private SymbolTable findOrLoad(Key key)
+    {
+        Entry entry = myLoadedTables.get(key);
+        if (entry != null)
+        {
+            SymbolTable st = entry.myTable;
+            if (st != null)
+            {
+                entry.myLastUsed = System.nanoTime();
+                myHits.incrementAndGet();
+                return st;
+            }
+        }
+
+        myMisses.incrementAndGet();
+        if (entry == null)
+        {
+            Entry fresh = new Entry();
+            entry = myLoadedTables.putIfAbsent(key, fresh);
+            if (entry == null) entry = fresh;
+        }
+
+        boolean added = false;
+        synchronized (entry)
+        {
+            if (! entry.myLoaded)
+            {
+                SymbolTable st = null;
+                boolean completed = false;
+                long start = System.nanoTime();
+                try
+                {
+                    st = myLoader.loadTable(key.myName, key.myVersion);
+                    completed = true;
+                }
+                catch (IOException e)
+                {
+                    entry.myFailure = e;
+                }
+                catch (RuntimeException e)
+                {
+                    entry.myFailure = e;
+                }
+                finally
+                {
+                    myLoads.incrementAndGet();
+                    myLoadNanos.addAndGet(System.nanoTime() - start);
+
+                    if (! completed && entry.myFailure == null)
+                    {
+                        // An Error is propagating; don't let waiters
+                        // mistake the failure for a missing table.
+                        entry.myFailure =
+                            new IonException("Symbol table loader failed");
+                    }
+                    entry.myTable = st;
+                    entry.myLoaded = true;
+                    if (st == null)
+                    {
+                        // The table may show up later, or load when
+                        // retried, so don't remember its absence.
+                        myLoadedTables.remove(key, entry);
+                    }
+                }
+                added = (st != null);
+            }
+        }
+
+        Throwable failure = entry.myFailure;
+        if (failure != null)
+        {
+            throw new IonException("Error loading symbol table "
+                                   + key.myName, failure);
+        }
+
+        if (added && myLoadedTables.size() > myMaxLoadedTables)
+        {
+            evict();
+        }
+        return entry.myTable;
+    }
+
+    /**
+     * Drops least recently used tables until no more than the maximum
+     * remain. Loads are far more costly than the scan, so it isn't worth
+     * keeping the entries ordered.
+     */
+    private void evict()
+    {
+        while (myLoadedTables.size() > myMaxLoadedTables)
+        {
+            Key oldestKey = null;
+            Entry oldest = null;
+            for (Map.Entry<Key, Entry> e : myLoadedTables.entrySet())
+            {
+                Entry entry = e.getValue();
+                if (entry.myLoaded
+                    && (oldest == null || entry.myLastUsed - oldest.myLastUsed < 0))
+                {
+                    oldestKey = e.getKey();
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) return;
+
+            if (myLoadedTables.remove(oldestKey, oldest))
+            {
+                myEvictions.incrementAndGet();
+            }
+        }
+    }
+
+
+    public void putTable(SymbolTable table)
+    {
+        if (table.isLocalTable() || table.isSystemTable() || table.isSubstitute())
+        {
+            throw new IllegalArgumentException("table cannot be local or system or substitute table");
+        }
+
+        String name = table.getName();
+        ConcurrentSkipListMap<Integer, SymbolTable> versions =
+            myPutTables.get(name);
+        if (versions == null)
+        {
+            ConcurrentSkipListMap<Integer, SymbolTable> fresh =
+                new ConcurrentSkipListMap<Integer, SymbolTable>();
+            versions = myPutTables.putIfAbsent(name, fresh);
+            if (versions == null) versions = fresh;
+        }
+        versions.put(table.getVersion(), table);
+
+        // Cached answers for this name may no longer be the best ones.
+        dropLoadedTables(name, -1);
+    }
+
+    /**
+     * Removes a symbol table from this catalog, whether it was put into it
+     * or loaded.
+     *
+     * @return the removed table, or <code>null</code> if this catalog has
+     * no matching table.
+     */
+    public SymbolTable removeTable(String name, int version)
+    {
+        SymbolTable removed = null;
+
+        ConcurrentSkipListMap<Integer, SymbolTable> versions =
+            myPutTables.get(name);
+        if (versions != null)
+        {
+            removed = versions.remove(version);
+        }
+
+        SymbolTable dropped = dropLoadedTables(name, version);
+        return (removed != null ? removed : dropped);
+    }
+
+    /**
+     * @param version the version of the tables to drop, or -1 for all.
+     * @return one of the dropped tables, or null.
+     */
+    private SymbolTable dropLoadedTables(String name, int version)
+    {
+        SymbolTable dropped = null;
+        Iterator<Map.Entry<Key, Entry>> i =
+            myLoadedTables.entrySet().iterator();
+        while (i.hasNext())
+        {
+            Map.Entry<Key, Entry> e = i.next();
+            if (e.getKey().myName.equals(name))
+            {
+                SymbolTable st = e.getValue().myTable;
+                if (version < 0 || (st != null && st.getVersion() == version))
+                {
+                    i.remove();
+                    if (st != null) dropped = st;
+                }
+            }
+        }
+        return dropped;
+    }
+
+
+    /**
+     * Constructs an iterator that enumerates all of the shared symbol tables
+     * in this catalog, put or loaded, at the time of method invocation.
+     *
+     * @return a non-null, but potentially empty, iterator.
+     */
+    public Iterator<SymbolTable> iterator()
+    {
+        List<SymbolTable> tables = new ArrayList<SymbolTable>();
+        for (ConcurrentSkipListMap<Integer, SymbolTable> versions
+                 : myPutTables.values())
+        {
+            tables.addAll(versions.values());
+        }
+
+        // A loaded table may be cached under several requested versions.
+        Map<SymbolTable, SymbolTable> loaded =
+            new IdentityHashMap<SymbolTable, SymbolTable>();
+        for (Entry entry : myLoadedTables.values())
+        {
+            SymbolTable st = entry.myTable;
+            if (st != null && loaded.put(st, st) == null)
+            {
+                tables.add(st);
+            }
+        }
+        return tables.iterator();
+    }
+
+
+    /**
+     * @return the number of lookups answered without calling the loader.
+     */
+    public long getHitCount()
+    {
+        return myHits.get();
+    }
+
+    /**
+     * @return the number of lookups that called, or waited for, the loader,
+     * or found nothing when there's no loader.
+     */
+    public long getMissCount()
+    {
+        return myMisses.get();
+    }
+
+    /**
+     * @return the fraction of lookups that were hits, or zero if there have
+     * been none.
+     */
+    public double getHitRate()
+    {
+        long hits = myHits.get();
+        long total = hits + myMisses.get();
+        return (total == 0 ? 0 : (double) hits / total);
+    }
+
+    /**
+     * @return the number of calls to the loader.
+     */
+    public long getLoadCount()
+    {
+        return myLoads.get();
+    }
+
+    /**
+     * @return the total time spent in the loader, in nanoseconds.
+     */
+    public long getTotalLoadTime()
+    {
+        return myLoadNanos.get();
+    }
+
+    /**
+     * @return the number of loaded tables dropped to stay within the limit.
+     */
+    public long getEvictionCount()
+    {
+        return myEvictions.get();
+    }
+
+
+    private static final class DirectoryLoader
+        implements Loader
+    {
+        private static final String SUFFIX = ".ion";
+
+        private final File myDirectory;
+
+        DirectoryLoader(File directory)
+        {
+            myDirectory = directory;
+        }
+
+        public SymbolTable loadTable(String name, int version)
+            throws IOException
+        {
+            File base = baseFile(name);
+            if (base == null) return null;
+            File parent = base.getParentFile();
+            String prefix = base.getName() + '.';
+
+            if (version != LATEST)
+            {
+                File file = new File(parent, prefix + version + SUFFIX);
+                if (file.isFile()) return read(file, name);
+            }
+
+            // Find the highest or best matching version present.
+            String[] files = parent.list();
+            if (files == null) return null;
+
+            List<Integer> versions = new ArrayList<Integer>();
+            for (String file : files)
+            {
+                if (file.startsWith(prefix) && file.endsWith(SUFFIX))
+                {
+                    String v = file.substring(prefix.length(),
+                                              file.length() - SUFFIX.length());
+                    try
+                    {
+                        int available = Integer.parseInt(v);
+                        if (available > 0 && available != version)
+                        {
+                            versions.add(available);
+                        }
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        // Not one of our files.
+                    }
+                }
+            }
+            if (versions.isEmpty()) return null;
+
+            Integer best;
+            if (version == LATEST)
+            {
+                best = versions.get(0);
+                for (Integer v : versions)
+                {
+                    if (v > best) best = v;
+                }
+            }
+            else
+            {
+                best = SimpleCatalog.bestMatch(version, versions);
+            }
+            return read(new File(parent, prefix + best + SUFFIX), name);
+        }
+
+        /**
+         * @return the table's file without its version and suffix, or null
+         * if the name doesn't denote a file beneath the directory.
+         */
+        private File baseFile(String name)
+            throws IOException
+        {
+            if (name.indexOf('\\') >= 0) return null;
+            for (String segment : name.split("/", -1))
+            {
+                if (segment.length() == 0
+                    || segment.equals(".")
+                    || segment.equals(".."))
+                {
+                    return null;
+                }
+            }
+
+            File base = new File(myDirectory, name).getCanonicalFile();
+            String root = myDirectory.getCanonicalPath() + File.separator;
+            if (! base.getPath().startsWith(root)) return null;
+            return base;
+        }
+
+        private static SymbolTable read(File file, String name)
+            throws IOException
+        {
+            InputStream in = new FileInputStream(file);
+            try
+            {
+                IonReader reader = IonReaderBuilder.standard().build(in);
+                SymbolTable st = _Private_Utils.newSharedSymtab(reader, false);
+                reader.close();
+
+                if (! name.equals(st.getName()))
+                {
+                    throw new IonException("File " + file + " holds symbol table "
+                                           + st.getName() + ", not " + name);
+                }
+                return st;
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+    }
+}
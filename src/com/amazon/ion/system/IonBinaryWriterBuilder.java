@@ -18,6 +18,7 @@ package com.amazon.ion.system;
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.LocalSymbolTableStatistics;
 import com.amazon.ion.SubstituteSymbolTableException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
@@ -40,6 +41,8 @@ public abstract class IonBinaryWriterBuilder
     extends IonWriterBuilderBase<IonBinaryWriterBuilder>
 {
     private boolean myStreamCopyOptimized;
+    private int     myLocalSymbolTableMaxSymbols;
+    private int     myLocalSymbolTableMaxBytes;
 
 
     /** NOT FOR APPLICATION USE! */
@@ -54,6 +57,8 @@ public abstract class IonBinaryWriterBuilder
         super(that);
 
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.myLocalSymbolTableMaxSymbols = that.myLocalSymbolTableMaxSymbols;
+        this.myLocalSymbolTableMaxBytes   = that.myLocalSymbolTableMaxBytes;
     }
 
 
@@ -195,6 +200,80 @@ public abstract class IonBinaryWriterBuilder
     public abstract IonBinaryWriterBuilder withLocalSymbolTableAppendDisabled();
 
 
+    /**
+     * Gets the number of local symbols at which built writers start a new
+     * local symbol table. By default this is zero, meaning no limit.
+     *
+     * @see #setLocalSymbolTableLimits(int, int)
+     */
+    public int getLocalSymbolTableMaxSymbols()
+    {
+        return myLocalSymbolTableMaxSymbols;
+    }
+
+    /**
+     * Gets the approximate encoded size of the local symbols at which built
+     * writers start a new local symbol table. By default this is zero,
+     * meaning no limit.
+     *
+     * @see #setLocalSymbolTableLimits(int, int)
+     */
+    public int getLocalSymbolTableMaxBytes()
+    {
+        return myLocalSymbolTableMaxBytes;
+    }
+
+    /**
+     * Bounds the growth of local symbol tables, for long-lived writers that
+     * may see many distinct symbols. Once a local symbol table reaches either
+     * limit, the writer finishes the current segment after the top-level
+     * value being written and starts a new local symbol table, as if
+     * {@link IonWriter#finish()} had been called. By default there are no
+     * limits.
+     * <p>
+     * The number of new tables started this way is available from the
+     * {@link LocalSymbolTableStatistics} facet of built writers.
+     *
+     * @param maxSymbols the number of local symbols at which to start a new
+     * table, or zero for no limit.
+     * @param maxBytes the approximate encoded size of the local symbols at
+     * which to start a new table, or zero for no limit.
+     *
+     * @throws IllegalArgumentException if either limit is negative.
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #getLocalSymbolTableMaxSymbols()
+     * @see #getLocalSymbolTableMaxBytes()
+     * @see #withLocalSymbolTableLimits(int, int)
+     */
+    public void setLocalSymbolTableLimits(int maxSymbols, int maxBytes)
+    {
+        mutationCheck();
+        if (maxSymbols < 0 || maxBytes < 0)
+        {
+            throw new IllegalArgumentException(
+                "Local symbol table limits cannot be negative: "
+                + maxSymbols + ", " + maxBytes);
+        }
+        myLocalSymbolTableMaxSymbols = maxSymbols;
+        myLocalSymbolTableMaxBytes   = maxBytes;
+    }
+
+
+    /**
+     * Bounds the growth of local symbol tables, returning a new mutable
+     * builder if this is immutable.
+     *
+     * @see #setLocalSymbolTableLimits(int, int)
+     */
+    public IonBinaryWriterBuilder withLocalSymbolTableLimits(int maxSymbols, int maxBytes)
+    {
+        IonBinaryWriterBuilder b = mutable();
+        b.setLocalSymbolTableLimits(maxSymbols, maxBytes);
+        return b;
+    }
+
+
     /**
      * Enables or disables writing Binary32 (4-byte, single precision,
      * IEEE-754) values for floats when there would be no loss in precision.
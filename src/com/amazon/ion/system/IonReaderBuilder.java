@@ -24,6 +24,8 @@ import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonTextReader;
 import com.amazon.ion.IonValue;
+import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
+import com.amazon.ion.impl._Private_Utils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -42,6 +44,7 @@ public class IonReaderBuilder
 {
 
     private IonCatalog catalog = null;
+    private LocalSymbolTableCache symbolTableCache = null;
 
     private IonReaderBuilder()
     {
@@ -50,6 +53,7 @@ public class IonReaderBuilder
     private IonReaderBuilder(IonReaderBuilder that)
     {
         this.catalog = that.catalog;
+        this.symbolTableCache = that.symbolTableCache;
     }
 
     /**
@@ -151,6 +155,67 @@ public class IonReaderBuilder
         return catalog;
     }
 
+    /**
+     * Declares the cache through which built readers share the local symbol
+     * tables of binary data, returning a new mutable builder if this is
+     * immutable.
+     *
+     * @param cache the cache to use in built readers.
+     *  If null, each reader builds its own symbol tables.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setSymbolTableCache(LocalSymbolTableCache)
+     * @see #getSymbolTableCache()
+     */
+    public IonReaderBuilder withSymbolTableCache(LocalSymbolTableCache cache)
+    {
+        IonReaderBuilder b = mutable();
+        b.setSymbolTableCache(cache);
+        return b;
+    }
+
+    /**
+     * Sets the cache through which built readers share the local symbol
+     * tables of binary data. Applications reading many small messages that
+     * declare the same symbols can avoid rebuilding the tables for each.
+     * The cache should only be shared by builders whose catalogs hold the
+     * same shared symbol tables.
+     *
+     * @param cache the cache to use in built readers.
+     *  If null, each reader builds its own symbol tables.
+     *
+     * @see #getSymbolTableCache()
+     * @see #withSymbolTableCache(LocalSymbolTableCache)
+     *
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setSymbolTableCache(LocalSymbolTableCache cache)
+    {
+        mutationCheck();
+        this.symbolTableCache = cache;
+    }
+
+    /**
+     * Gets the cache through which built readers share the local symbol
+     * tables of binary data, or null if there is none.
+     *
+     * @see #setSymbolTableCache(LocalSymbolTableCache)
+     * @see #withSymbolTableCache(LocalSymbolTableCache)
+     */
+    public LocalSymbolTableCache getSymbolTableCache()
+    {
+        return symbolTableCache;
+    }
+
+    private _Private_LocalSymbolTableFactory lstFactory()
+    {
+        return symbolTableCache != null
+            ? symbolTableCache.lstFactory()
+            : _Private_Utils.defaultLstFactory();
+    }
+
     private IonCatalog validateCatalog()
     {
         // matches behavior in IonSystemBuilder when no catalog provided
@@ -175,7 +240,7 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData)
     {
-        return makeReader(validateCatalog(), ionData);
+        return makeReader(validateCatalog(), ionData, lstFactory());
     }
 
     /**
@@ -198,7 +263,8 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData, int offset, int length)
     {
-        return makeReader(validateCatalog(), ionData, offset, length);
+        return makeReader(validateCatalog(), ionData, offset, length,
+                          lstFactory());
     }
 
     /**
@@ -223,7 +289,7 @@ public class IonReaderBuilder
      */
     public IonReader build(InputStream ionData)
     {
-        return makeReader(validateCatalog(), ionData);
+        return makeReader(validateCatalog(), ionData, lstFactory());
     }
 
     /**
@@ -18,9 +18,12 @@ package com.amazon.ion.system;
 import static com.amazon.ion.impl.lite._Private_LiteDomTrampoline.newLiteSystem;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonLoader;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.ReleasableDatagram;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
 import com.amazon.ion.impl._Private_Utils;
@@ -79,6 +82,23 @@ import com.amazon.ion.impl._Private_Utils;
  *     conditions are met. <b>This feature is experimental! Please test
  *     thoroughly and report any issues.</b>
  *   </li>
+ *   <li>
+ *     <b>lazyMaterializationEnabled</b>: When true, containers loaded from
+ *     binary Ion byte arrays decode their children on first access rather
+ *     than up front, and containers whose children are never accessed are
+ *     written out straight from the original data.
+ *     <b>This feature is experimental! Please test thoroughly and report any
+ *     issues.</b>
+ *   </li>
+ *   <li>
+ *     <b>stringInterner</b>: If not null, the {@link StringInterner} that
+ *     built systems use to share the text of equal string and symbol values.
+ *   </li>
+ *   <li>
+ *     <b>childArrayRecyclingEnabled</b>: When true, the memory held by
+ *     {@linkplain ReleasableDatagram#release() released} datagrams is
+ *     reused by containers created afterwards on the same thread.
+ *   </li>
  * </ul>
  */
 public class IonSystemBuilder
@@ -101,6 +121,9 @@ public class IonSystemBuilder
 
     IonCatalog myCatalog;
     boolean myStreamCopyOptimized = false;
+    boolean myLazyMaterializationEnabled = false;
+    StringInterner myStringInterner;
+    boolean myChildArrayRecyclingEnabled = false;
 
 
     /** You no touchy. */
@@ -113,6 +136,9 @@ public class IonSystemBuilder
     {
         this.myCatalog      = that.myCatalog;
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.myLazyMaterializationEnabled = that.myLazyMaterializationEnabled;
+        this.myStringInterner = that.myStringInterner;
+        this.myChildArrayRecyclingEnabled = that.myChildArrayRecyclingEnabled;
     }
 
     //=========================================================================
@@ -270,6 +296,171 @@ public class IonSystemBuilder
     }
 
 
+    /**
+     * Indicates whether built systems load binary Ion lazily.
+     * By default, this property is false.
+     *
+     * @see #setLazyMaterializationEnabled(boolean)
+     * @see #withLazyMaterializationEnabled(boolean)
+     */
+    public final boolean isLazyMaterializationEnabled()
+    {
+        return myLazyMaterializationEnabled;
+    }
+
+    /**
+     * Declares whether built systems load binary Ion lazily.
+     * When enabled, containers loaded by {@link IonLoader#load(byte[])},
+     * {@link IonSystem#iterate(byte[])} and
+     * {@link IonSystem#singleValue(byte[])} from binary data decode their
+     * children when they're first accessed, and keep a reference to the
+     * data until then. Containers whose children are never accessed are
+     * written straight from that data, copying its bytes when the writer is
+     * {@linkplain #setStreamCopyOptimized(boolean) stream copy optimized}.
+     * Text data, and data from other sources, is loaded as usual.
+     * By default, this property is false.
+     * <p>
+     * <b>This feature is experimental! Please test thoroughly and report any
+     * issues.</b>
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isLazyMaterializationEnabled()
+     * @see #withLazyMaterializationEnabled(boolean)
+     */
+    public final void setLazyMaterializationEnabled(boolean enabled)
+    {
+        mutationCheck();
+        myLazyMaterializationEnabled = enabled;
+    }
+
+    /**
+     * Declares whether built systems load binary Ion lazily,
+     * returning a new mutable builder if this is immutable.
+     * <p>
+     * <b>This feature is experimental! Please test thoroughly and report any
+     * issues.</b>
+     *
+     * @see #isLazyMaterializationEnabled()
+     * @see #setLazyMaterializationEnabled(boolean)
+     */
+    public final IonSystemBuilder withLazyMaterializationEnabled(boolean enabled)
+    {
+        IonSystemBuilder b = mutable();
+        b.setLazyMaterializationEnabled(enabled);
+        return b;
+    }
+
+
+    /**
+     * Gets the table that built systems use to share string and symbol text.
+     * By default, this property is null.
+     *
+     * @see #setStringInterner(StringInterner)
+     * @see #withStringInterner(StringInterner)
+     */
+    public final StringInterner getStringInterner()
+    {
+        return myStringInterner;
+    }
+
+    /**
+     * Sets the table that built systems use to share string and symbol text.
+     * When set, the string and symbol values created by built systems,
+     * including those created by their {@link IonLoader}s and
+     * {@link IonSystem#iterate(IonReader) iterators}, take their text from
+     * the table, so equal short strings that recur throughout the data are
+     * held only once. The table's statistics show how often that happens.
+     * The table may be shared by several systems.
+     * By default, this property is null.
+     *
+     * @param interner may be null, to disable interning.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #getStringInterner()
+     * @see #withStringInterner(StringInterner)
+     */
+    public final void setStringInterner(StringInterner interner)
+    {
+        mutationCheck();
+        myStringInterner = interner;
+    }
+
+    /**
+     * Sets the table that built systems use to share string and symbol text,
+     * returning a new mutable builder if this is immutable.
+     *
+     * @param interner may be null, to disable interning.
+     *
+     * @see #getStringInterner()
+     * @see #setStringInterner(StringInterner)
+     */
+    public final IonSystemBuilder withStringInterner(StringInterner interner)
+    {
+        IonSystemBuilder b = mutable();
+        b.setStringInterner(interner);
+        return b;
+    }
+
+
+    /**
+     * Indicates whether built systems recycle the child arrays of released
+     * datagrams.
+     * By default, this property is false.
+     *
+     * @see #setChildArrayRecyclingEnabled(boolean)
+     * @see #withChildArrayRecyclingEnabled(boolean)
+     */
+    public final boolean isChildArrayRecyclingEnabled()
+    {
+        return myChildArrayRecyclingEnabled;
+    }
+
+    /**
+     * Declares whether built systems recycle the child arrays of released
+     * datagrams.
+     * When enabled, {@link ReleasableDatagram#release()} hands the arrays
+     * that hold the children of the datagram's containers to an arena
+     * belonging to
+     * the calling thread, and containers that are created or grown on that
+     * thread afterwards take their arrays from there. This saves allocation
+     * for applications that repeatedly load small documents, use them
+     * briefly and release them. Datagrams are released through their
+     * {@link ReleasableDatagram} facet:
+     * <pre>
+     *     Facets.asFacet(ReleasableDatagram.class, datagram).release();
+     * </pre>
+     * Only short arrays are kept, and the arena's size is bounded to a few
+     * hundred kilobytes per thread.
+     * By default, this property is false.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isChildArrayRecyclingEnabled()
+     * @see #withChildArrayRecyclingEnabled(boolean)
+     */
+    public final void setChildArrayRecyclingEnabled(boolean enabled)
+    {
+        mutationCheck();
+        myChildArrayRecyclingEnabled = enabled;
+    }
+
+    /**
+     * Declares whether built systems recycle the child arrays of released
+     * datagrams, returning a new mutable builder if this is immutable.
+     *
+     * @see #isChildArrayRecyclingEnabled()
+     * @see #setChildArrayRecyclingEnabled(boolean)
+     */
+    public final IonSystemBuilder withChildArrayRecyclingEnabled(boolean enabled)
+    {
+        IonSystemBuilder b = mutable();
+        b.setChildArrayRecyclingEnabled(enabled);
+        return b;
+    }
+
+
 
     //=========================================================================
 
@@ -299,7 +490,9 @@ public class IonSystemBuilder
         // This is what we need, more or less.
 //        bwb = bwb.fillDefaults();
         IonReaderBuilder rb = IonReaderBuilder.standard().withCatalog(catalog);
-        IonSystem sys = newLiteSystem(twb, bwb, rb);
+        IonSystem sys = newLiteSystem(twb, bwb, rb, myLazyMaterializationEnabled,
+                                      myStringInterner,
+                                      myChildArrayRecyclingEnabled);
 
         return sys;
     }
@@ -221,6 +221,7 @@ public abstract class IonTextWriterBuilder
     private int myLongStringThreshold;
     private NewLineType myNewLineType;
     private boolean myTopLevelValuesOnNewLines;
+    private int myCompactContainerWidth;
 
 
     /** NOT FOR APPLICATION USE! */
@@ -240,6 +241,7 @@ public abstract class IonTextWriterBuilder
         this.myLongStringThreshold  = that.myLongStringThreshold;
         this.myNewLineType          = that.myNewLineType;
         this.myTopLevelValuesOnNewLines = that.myTopLevelValuesOnNewLines;
+        this.myCompactContainerWidth = that.myCompactContainerWidth;
     }
 
 
@@ -764,6 +766,75 @@ public abstract class IonTextWriterBuilder
 
     //=========================================================================
 
+    /**
+     * Gets the width within which containers are written on a single line
+     * when pretty-printing. A container fits when its single-line rendering,
+     * from its opening to its closing delimiter, has at most this many
+     * characters. The default value is zero.
+     * This setting is ignored unless pretty-printing.
+     *
+     * @return the width for single-line containers; zero means every
+     * non-empty container is broken across lines.
+     *
+     * @see #setCompactContainerWidth(int)
+     * @see #withCompactContainerWidth(int)
+     */
+    public final int getCompactContainerWidth()
+    {
+        return myCompactContainerWidth;
+    }
+
+    /**
+     * Sets the width within which containers are written on a single line
+     * when pretty-printing. A container fits when its single-line rendering,
+     * from its opening to its closing delimiter, has at most this many
+     * characters.
+     * This setting is ignored unless pretty-printing.
+     *
+     * @param width the new width; zero means none.
+     *
+     * @see #getCompactContainerWidth()
+     * @see #withCompactContainerWidth(int)
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     * @throws IllegalArgumentException if {@code width} is negative.
+     */
+    public void setCompactContainerWidth(int width)
+    {
+        mutationCheck();
+        if (width < 0)
+        {
+            throw new IllegalArgumentException("width is negative: " + width);
+        }
+        myCompactContainerWidth = width;
+    }
+
+    /**
+     * Declares the width within which containers are written on a single
+     * line when pretty-printing. A container fits when its single-line
+     * rendering, from its opening to its closing delimiter, has at most this
+     * many characters.
+     * This setting is ignored unless pretty-printing.
+     *
+     * @param width the new width; zero means none.
+     *
+     * @see #getCompactContainerWidth()
+     * @see #setCompactContainerWidth(int)
+     *
+     * @return this instance, if mutable;
+     * otherwise a mutable copy of this instance.
+     *
+     * @throws IllegalArgumentException if {@code width} is negative.
+     */
+    public final IonTextWriterBuilder withCompactContainerWidth(int width)
+    {
+        IonTextWriterBuilder b = mutable();
+        b.setCompactContainerWidth(width);
+        return b;
+    }
+
+    //=========================================================================
+
     /**
      * Creates a new writer that will write text to the given output
      * stream.
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl._Private_EncodedValueReader;
+import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
+import com.amazon.ion.impl._Private_Utils;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Shares the local symbol tables of binary Ion data among readers, for
+ * applications that read many small messages that declare the same
+ * symbols. See {@link IonReaderBuilder#setSymbolTableCache(LocalSymbolTableCache)}.
+ * <p>
+ * A local symbol table is looked up by its encoded bytes, along with the
+ * symbol table it follows and, if it has imports, the catalog resolving
+ * them. When found, the reader skips the encoded table and uses the read-only one
+ * built before. Tables that append to a table that isn't cached, or that
+ * are read by text readers or from streams, are built as usual.
+ * <p>
+ * The cache holds at most its capacity in tables, and is emptied when it
+ * fills. It assumes that the shared tables in the catalogs it's used
+ * with don't change.
+ * <p>
+ * <b>Instances of this class are safe for use by multiple threads.</b>
+ */
+public final class LocalSymbolTableCache
+{
+    private static final class Key
+    {
+        private final ByteBuffer  myBytes;
+        private final SymbolTable myPrevious;
+        private final IonCatalog  myCatalog;
+        private final int         myHash;
+
+        Key(ByteBuffer bytes, SymbolTable previous, IonCatalog catalog)
+        {
+            myBytes = bytes;
+            myPrevious = previous;
+            myCatalog = catalog;
+            myHash = bytes.hashCode() ^ System.identityHashCode(previous);
+        }
+
+        /**
+         * @return a key that doesn't refer to the reader's buffer.
+         */
+        Key copy()
+        {
+            byte[] bytes = new byte[myBytes.remaining()];
+            myBytes.duplicate().get(bytes);
+            return new Key(ByteBuffer.wrap(bytes), myPrevious, myCatalog);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return myHash;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            Key key = (Key) other;
+            return myHash == key.myHash
+                && myPrevious == key.myPrevious
+                && myCatalog == key.myCatalog
+                && myBytes.equals(key.myBytes);
+        }
+    }
+
+    private final class Factory
+        implements _Private_LocalSymbolTableFactory
+    {
+        public SymbolTable newLocalSymtab(IonCatalog catalog,
+                                          IonReader reader,
+                                          boolean alreadyInStruct)
+        {
+            SymbolTable previous = reader.getSymbolTable();
+            _Private_EncodedValueReader encoded =
+                reader.asFacet(_Private_EncodedValueReader.class);
+            ByteBuffer bytes = (encoded == null ? null : encoded.getEncodedValue());
+            if (bytes == null
+                || (previous.isLocalTable() && ! previous.isReadOnly()))
+            {
+                // Nothing to key on, or the result could be the previous
+                // table updated in place.
+                return DEFAULT_FACTORY.newLocalSymtab(catalog, reader,
+                                                      alreadyInStruct);
+            }
+
+            // Tables without imports are keyed without the catalog, since
+            // builders without one give each reader a new empty catalog.
+            Key key = new Key(bytes, previous, null);
+            SymbolTable symtab = myTables.get(key);
+            if (symtab == null)
+            {
+                key = new Key(bytes, previous, catalog);
+                symtab = myTables.get(key);
+            }
+            if (symtab != null)
+            {
+                // The reader moves past the undecoded table.
+                myHits.incrementAndGet();
+                return symtab;
+            }
+
+            myMisses.incrementAndGet();
+            symtab = DEFAULT_FACTORY.newLocalSymtab(catalog, reader,
+                                                    alreadyInStruct);
+            symtab.makeReadOnly();
+            if (myTables.size() >= myCapacity)
+            {
+                myTables.clear();
+            }
+            if (symtab.getImportedTables().length == 0)
+            {
+                key = new Key(bytes, previous, null);
+            }
+            myTables.put(key.copy(), symtab);
+            return symtab;
+        }
+
+        public SymbolTable newLocalSymtab(SymbolTable defaultSystemSymtab,
+                                          SymbolTable... imports)
+        {
+            return DEFAULT_FACTORY.newLocalSymtab(defaultSystemSymtab, imports);
+        }
+    }
+
+
+    private static final _Private_LocalSymbolTableFactory DEFAULT_FACTORY =
+        _Private_Utils.defaultLstFactory();
+
+    private final int myCapacity;
+    private final ConcurrentMap<Key, SymbolTable> myTables =
+        new ConcurrentHashMap<Key, SymbolTable>();
+    private final Factory    myFactory = new Factory();
+    private final AtomicLong myHits    = new AtomicLong();
+    private final AtomicLong myMisses  = new AtomicLong();
+
+
+    /**
+     * @param capacity the number of distinct symbol tables to hold.
+     */
+    public LocalSymbolTableCache(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        myCapacity = capacity;
+    }
+
+
+    /**
+     * The factory through which readers use this cache.
+     */
+    _Private_LocalSymbolTableFactory lstFactory()
+    {
+        return myFactory;
+    }
+
+
+    /**
+     * @return the number of symbol tables this cache can hold.
+     */
+    public int getCapacity()
+    {
+        return myCapacity;
+    }
+
+    /**
+     * @return the number of symbol tables found in this cache.
+     */
+    public long getHitCount()
+    {
+        return myHits.get();
+    }
+
+    /**
+     * @return the number of symbol tables that were built and added to
+     * this cache.
+     */
+    public long getMissCount()
+    {
+        return myMisses.get();
+    }
+
+    /**
+     * @return the fraction of lookups that found a table, or zero if there
+     * have been none.
+     */
+    public double getHitRate()
+    {
+        long hits = myHits.get();
+        long total = hits + myMisses.get();
+        return (total == 0 ? 0 : (double) hits / total);
+    }
+
+    /**
+     * Empties this cache, keeping its statistics.
+     */
+    public void clear()
+    {
+        myTables.clear();
+    }
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+import static com.amazon.ion.SystemSymbols.ION_SHARED_SYMBOL_TABLE;
+import static com.amazon.ion.SystemSymbols.NAME;
+import static com.amazon.ion.SystemSymbols.SYMBOLS;
+import static com.amazon.ion.SystemSymbols.VERSION;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.ReadOnlyValueException;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.impl._Private_Utils;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+
+/**
+ * A read-only {@link IonCatalog} of shared symbol tables loaded from a
+ * binary snapshot, for applications that would otherwise parse many tables
+ * from Ion at startup.
+ * <p>
+ * A snapshot written by {@link #write(Iterable, OutputStream)} holds, for
+ * each table, its symbols' UTF-8 text in one blob along with prebuilt
+ * hash tables, as arrays of integers. Loading a snapshot reads a header per
+ * table and uses those arrays in place, whether the snapshot is
+ * memory-mapped by {@link #load(File)} or read in bulk by
+ * {@link #load(InputStream)}. Symbol text is decoded when first needed.
+ * <p>
+ * <b>Instances of this class are safe for use by multiple threads.</b>
+ */
+public final class SnapshotCatalog
+    implements IonCatalog, Iterable<SymbolTable>
+{
+    private static final int MAGIC = 0x49535354; // "ISST"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * A shared symbol table backed by a snapshot.
+     * <p>
+     * Symbol {@code sid}'s text is the blob's bytes from
+     * {@code offsets[sid - 1]} to {@code offsets[sid]}; empty text denotes
+     * a gap. The hash table is open-addressed with linear probing, holding
+     * each symbol's String hash code and ID, or zero in empty slots.
+     */
+    private static final class SnapshotTable
+        implements SymbolTable
+    {
+        private final String     myName;
+        private final int        myVersion;
+        private final int        myMaxId;
+        private final IntBuffer  myOffsets;
+        private final IntBuffer  myHashes;
+        private final IntBuffer  mySids;
+        private final ByteBuffer myBlob;
+
+        /** Decoded text, filled in racily; Strings are safely published. */
+        private final String[]   myTexts;
+
+        SnapshotTable(String name, int version, int maxId,
+                      IntBuffer offsets, IntBuffer hashes, IntBuffer sids,
+                      ByteBuffer blob)
+        {
+            myName = name;
+            myVersion = version;
+            myMaxId = maxId;
+            myOffsets = offsets;
+            myHashes = hashes;
+            mySids = sids;
+            myBlob = blob;
+            myTexts = new String[maxId];
+        }
+
+        public String getName()
+        {
+            return myName;
+        }
+
+        public int getVersion()
+        {
+            return myVersion;
+        }
+
+        public boolean isLocalTable()
+        {
+            return false;
+        }
+
+        public boolean isSharedTable()
+        {
+            return true;
+        }
+
+        public boolean isSubstitute()
+        {
+            return false;
+        }
+
+        public boolean isSystemTable()
+        {
+            return false;
+        }
+
+        public boolean isReadOnly()
+        {
+            return true;
+        }
+
+        public void makeReadOnly()
+        {
+            // No-op
+        }
+
+        public SymbolTable getSystemSymbolTable()
+        {
+            return null;
+        }
+
+        public String getIonVersionId()
+        {
+            return null;
+        }
+
+        public SymbolTable[] getImportedTables()
+        {
+            return null;
+        }
+
+        public int getImportedMaxId()
+        {
+            return 0;
+        }
+
+        public int getMaxId()
+        {
+            return myMaxId;
+        }
+
+        public SymbolToken intern(String text)
+        {
+            SymbolToken symTok = find(text);
+            if (symTok == null)
+            {
+                throw new ReadOnlyValueException(SymbolTable.class);
+            }
+            return symTok;
+        }
+
+        public SymbolToken find(String text)
+        {
+            int sid = findSymbol(text);
+            if (sid == UNKNOWN_SYMBOL_ID) return null;
+
+            return _Private_Utils.newSymbolToken(text(sid), sid);
+        }
+
+        public int findSymbol(String name)
+        {
+            int hash = name.hashCode();
+            int mask = mySids.limit() - 1;
+            int i = spread(hash) & mask;
+            int sid;
+            while ((sid = mySids.get(i)) != 0)
+            {
+                if (myHashes.get(i) == hash && name.equals(text(sid)))
+                {
+                    return sid;
+                }
+                i = (i + 1) & mask;
+            }
+            return UNKNOWN_SYMBOL_ID;
+        }
+
+        public String findKnownSymbol(int id)
+        {
+            if (id < 0)
+            {
+                throw new IllegalArgumentException("symbol IDs must be >= 0");
+            }
+            if (id == 0 || id > myMaxId) return null;
+
+            return text(id);
+        }
+
+        private String text(int sid)
+        {
+            String text = myTexts[sid - 1];
+            if (text == null)
+            {
+                int start = myOffsets.get(sid - 1);
+                int length = myOffsets.get(sid) - start;
+                if (length == 0) return null;
+
+                byte[] bytes = new byte[length];
+                ByteBuffer blob = myBlob.duplicate();
+                blob.position(start);
+                blob.get(bytes);
+                text = new String(bytes, UTF8);
+                myTexts[sid - 1] = text;
+            }
+            return text;
+        }
+
+        public Iterator<String> iterateDeclaredSymbolNames()
+        {
+            return new Iterator<String>()
+            {
+                private int mySid = 0;
+
+                public boolean hasNext()
+                {
+                    return mySid < myMaxId;
+                }
+
+                public String next()
+                {
+                    if (mySid >= myMaxId) throw new NoSuchElementException();
+                    return text(++mySid);
+                }
+
+                public void remove()
+                {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        public void writeTo(IonWriter writer)
+            throws IOException
+        {
+            writer.setTypeAnnotations(ION_SHARED_SYMBOL_TABLE);
+            writer.stepIn(IonType.STRUCT);
+            {
+                writer.setFieldName(NAME);
+                writer.writeString(myName);
+                writer.setFieldName(VERSION);
+                writer.writeInt(myVersion);
+                writer.setFieldName(SYMBOLS);
+                writer.stepIn(IonType.LIST);
+                for (int sid = 1; sid <= myMaxId; sid++)
+                {
+                    // Gaps are written as non-strings.
+                    writer.writeString(text(sid));
+                }
+                writer.stepOut();
+            }
+            writer.stepOut();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(SnapshotTable " + myName + " " + myVersion + ")";
+        }
+    }
+
+
+    /** Tables by name, then by version. */
+    private final Map<String, TreeMap<Integer, SymbolTable>> myTables;
+    private final List<SymbolTable> myTableList;
+
+
+    private SnapshotCatalog(List<SymbolTable> tables)
+    {
+        myTableList = Collections.unmodifiableList(tables);
+        myTables = new HashMap<String, TreeMap<Integer, SymbolTable>>();
+        for (SymbolTable table : tables)
+        {
+            TreeMap<Integer, SymbolTable> versions = myTables.get(table.getName());
+            if (versions == null)
+            {
+                versions = new TreeMap<Integer, SymbolTable>();
+                myTables.put(table.getName(), versions);
+            }
+            versions.put(table.getVersion(), table);
+        }
+    }
+
+
+    //=========================================================================
+    // Writing
+
+    /**
+     * Writes a snapshot of shared symbol tables. System tables are skipped.
+     *
+     * @param tables the tables to include, such as the contents of a
+     * {@link SimpleCatalog}.
+     * @param out receives the snapshot. It isn't closed.
+     *
+     * @throws IllegalArgumentException if a table isn't shared, is a
+     * substitute, or has the same name and version as another.
+     */
+    public static void write(Iterable<SymbolTable> tables, OutputStream out)
+        throws IOException
+    {
+        List<SymbolTable> included = new ArrayList<SymbolTable>();
+        Map<String, List<Integer>> versions = new HashMap<String, List<Integer>>();
+        for (SymbolTable table : tables)
+        {
+            if (table.isSystemTable()) continue;
+            if (! table.isSharedTable() || table.isSubstitute())
+            {
+                throw new IllegalArgumentException("not a shared symbol table: " + table);
+            }
+
+            List<Integer> known = versions.get(table.getName());
+            if (known == null)
+            {
+                known = new ArrayList<Integer>();
+                versions.put(table.getName(), known);
+            }
+            if (known.contains(table.getVersion()))
+            {
+                throw new IllegalArgumentException("duplicate symbol table: "
+                    + table.getName() + " version " + table.getVersion());
+            }
+            known.add(table.getVersion());
+            included.add(table);
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(included.size());
+        for (SymbolTable table : included)
+        {
+            writeTable(table, data);
+        }
+        data.flush();
+    }
+
+    private static void writeTable(SymbolTable table, DataOutputStream data)
+        throws IOException
+    {
+        int maxId = table.getMaxId();
+        String[] texts = new String[maxId];
+        Iterator<String> names = table.iterateDeclaredSymbolNames();
+        for (int i = 0; i < maxId && names.hasNext(); i++)
+        {
+            texts[i] = names.next();
+        }
+
+        int capacity = 8;
+        while (capacity < maxId * 2)
+        {
+            capacity <<= 1;
+        }
+        int[] hashes = new int[capacity];
+        int[] sids = new int[capacity];
+        int[] offsets = new int[maxId + 1];
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        for (int i = 0; i < maxId; i++)
+        {
+            String text = texts[i];
+            if (text != null && text.length() != 0)
+            {
+                blob.write(text.getBytes(UTF8));
+                addToHash(text, i + 1, texts, hashes, sids);
+            }
+            offsets[i + 1] = blob.size();
+        }
+
+        byte[] name = table.getName().getBytes(UTF8);
+        data.writeInt(name.length);
+        data.write(name);
+        pad(data, name.length);
+        data.writeInt(table.getVersion());
+        data.writeInt(maxId);
+        data.writeInt(capacity);
+        data.writeInt(blob.size());
+        writeInts(data, offsets);
+        writeInts(data, hashes);
+        writeInts(data, sids);
+        blob.writeTo(data);
+        pad(data, blob.size());
+    }
+
+    /**
+     * Adds a symbol to the hash table unless it repeats an earlier symbol's
+     * text, so lookups find the lowest ID.
+     */
+    private static void addToHash(String text, int sid, String[] texts,
+                                  int[] hashes, int[] sids)
+    {
+        int hash = text.hashCode();
+        int mask = sids.length - 1;
+        int i = spread(hash) & mask;
+        while (sids[i] != 0)
+        {
+            if (hashes[i] == hash && text.equals(texts[sids[i] - 1])) return;
+            i = (i + 1) & mask;
+        }
+        hashes[i] = hash;
+        sids[i] = sid;
+    }
+
+    private static void writeInts(DataOutputStream data, int[] values)
+        throws IOException
+    {
+        for (int value : values)
+        {
+            data.writeInt(value);
+        }
+    }
+
+    /** Keeps the sections that follow aligned for integer access. */
+    private static void pad(DataOutputStream data, int length)
+        throws IOException
+    {
+        for (int i = length; (i & 3) != 0; i++)
+        {
+            data.write(0);
+        }
+    }
+
+
+    //=========================================================================
+    // Loading
+
+    /**
+     * Loads a snapshot by memory-mapping a file.
+     * The mapping remains valid after the file is closed.
+     */
+    public static SnapshotCatalog load(File file)
+        throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = raf.getChannel();
+            return load(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                    channel.size()));
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * Loads a snapshot by reading a stream to its end.
+     *
+     * @param in the snapshot. It isn't closed.
+     */
+    public static SnapshotCatalog load(InputStream in)
+        throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1)
+        {
+            bytes.write(buffer, 0, n);
+        }
+        return load(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     * Loads a snapshot held in a buffer, from its position to its limit.
+     * The buffer's content must not change while the catalog is used.
+     *
+     * @throws IonException if the buffer doesn't hold a snapshot.
+     */
+    public static SnapshotCatalog load(ByteBuffer snapshot)
+    {
+        ByteBuffer in = snapshot.slice();
+        try
+        {
+            if (in.getInt() != MAGIC)
+            {
+                throw new IonException("not a symbol table snapshot");
+            }
+            int formatVersion = in.getInt();
+            if (formatVersion != FORMAT_VERSION)
+            {
+                throw new IonException("unsupported symbol table snapshot version: "
+                                       + formatVersion);
+            }
+
+            int count = in.getInt();
+            List<SymbolTable> tables = new ArrayList<SymbolTable>(count);
+            for (int i = 0; i < count; i++)
+            {
+                tables.add(readTable(in));
+            }
+            return new SnapshotCatalog(tables);
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IonException("truncated symbol table snapshot", e);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IonException("corrupt symbol table snapshot", e);
+        }
+    }
+
+    private static SymbolTable readTable(ByteBuffer in)
+    {
+        byte[] nameBytes = new byte[in.getInt()];
+        in.get(nameBytes);
+        skipPadding(in, nameBytes.length);
+        String name = new String(nameBytes, UTF8);
+        int version = in.getInt();
+        int maxId = in.getInt();
+        int capacity = in.getInt();
+        int blobLength = in.getInt();
+        if (maxId < 0 || capacity < 1 || (capacity & (capacity - 1)) != 0
+            || blobLength < 0)
+        {
+            throw new IonException("corrupt symbol table snapshot");
+        }
+
+        IntBuffer offsets = ints(in, maxId + 1);
+        IntBuffer hashes = ints(in, capacity);
+        IntBuffer sids = ints(in, capacity);
+        ByteBuffer blob = bytes(in, blobLength);
+        skipPadding(in, blobLength);
+
+        return new SnapshotTable(name, version, maxId,
+                                 offsets, hashes, sids, blob);
+    }
+
+    private static ByteBuffer bytes(ByteBuffer in, int length)
+    {
+        ByteBuffer section = in.slice();
+        section.limit(length);
+        in.position(in.position() + length);
+        return section;
+    }
+
+    private static IntBuffer ints(ByteBuffer in, int count)
+    {
+        return bytes(in, count * 4).asIntBuffer();
+    }
+
+    private static void skipPadding(ByteBuffer in, int length)
+    {
+        in.position(in.position() + ((4 - (length & 3)) & 3));
+    }
+
+
+    //=========================================================================
+    // IonCatalog
+
+    public SymbolTable getTable(String name)
+    {
+        TreeMap<Integer, SymbolTable> versions = myTables.get(name);
+        if (versions == null) return null;
+
+        return versions.lastEntry().getValue();
+    }
+
+    public SymbolTable getTable(String name, int version)
+    {
+        TreeMap<Integer, SymbolTable> versions = myTables.get(name);
+        if (versions == null) return null;
+
+        SymbolTable table = versions.get(version);
+        if (table == null)
+        {
+            table = versions.get(SimpleCatalog.bestMatch(version,
+                                                         versions.keySet()));
+        }
+        return table;
+    }
+
+    /**
+     * @return the tables of this catalog, in snapshot order.
+     */
+    public Iterator<SymbolTable> iterator()
+    {
+        return myTableList.iterator();
+    }
+
+    /**
+     * @return the number of tables in this catalog.
+     */
+    public int size()
+    {
+        return myTableList.size();
+    }
+}
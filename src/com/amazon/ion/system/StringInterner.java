@@ -0,0 +1,215 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * A bounded table of canonical strings, used to share one instance among
+ * the many equal short strings and symbols of loaded Ion data.
+ * See {@link IonSystemBuilder#setStringInterner(StringInterner)}.
+ * <p>
+ * The table is a fixed number of slots, each holding the last string that
+ * hashed to it, so its memory use never grows and strings that stop
+ * recurring are eventually displaced. Lookups that find an equal string
+ * count as hits; the rest count as misses and take over the slot.
+ * Strings longer than the configured maximum are returned as is, and not
+ * counted.
+ * <p>
+ * The counts are kept in stripes chosen by thread, each on its own cache
+ * line, so threads interning at once don't contend on one counter. Reading
+ * the counts sums the stripes, so counts read while other threads intern
+ * may be slightly out of date.
+ * <p>
+ * <b>Instances of this class are safe for use by multiple threads.</b>
+ */
+public final class StringInterner
+{
+    /**
+     * The default maximum length of the strings that are interned.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    /** The number of counter stripes; a power of two. */
+    private static final int STRIPES = stripeCount();
+
+    /**
+     * The number of longs between stripes, covering a 64-byte cache line.
+     * Stripe {@code i} starts at {@code (i + 1) * STRIPE_WIDTH}, leaving the
+     * first line as padding after the array header.
+     */
+    private static final int STRIPE_WIDTH = 8;
+
+    private static final int HITS   = 0;
+    private static final int MISSES = 1;
+
+    private final AtomicReferenceArray<String> mySlots;
+    private final int             myMask;
+    private final int             myMaxLength;
+    private final AtomicLongArray myCounts =
+        new AtomicLongArray((STRIPES + 1) * STRIPE_WIDTH);
+
+
+    private static int stripeCount()
+    {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit(Math.max(1, processors));
+        if (stripes < processors) stripes <<= 1;
+        return Math.min(stripes, 64);
+    }
+
+    /**
+     * @return the index of the current thread's stripe of counts.
+     */
+    private static int stripe()
+    {
+        // Thread IDs are usually sequential, so spread them over the stripes.
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        int stripe = (int) (id >>> 32) & (STRIPES - 1);
+        return (stripe + 1) * STRIPE_WIDTH;
+    }
+
+    private long sum(int counter)
+    {
+        long total = 0;
+        for (int i = 1; i <= STRIPES; i++)
+        {
+            total += myCounts.get(i * STRIPE_WIDTH + counter);
+        }
+        return total;
+    }
+
+
+    /**
+     * Creates a table that interns strings of up to
+     * {@link #DEFAULT_MAX_LENGTH} characters.
+     *
+     * @param capacity the number of strings the table can hold; rounded up
+     * to a power of two.
+     */
+    public StringInterner(int capacity)
+    {
+        this(capacity, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity the number of strings the table can hold; rounded up
+     * to a power of two.
+     * @param maxLength the length of the longest strings to intern.
+     */
+    public StringInterner(int capacity, int maxLength)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("capacity out of range: "
+                                               + capacity);
+        }
+        if (maxLength < 0)
+        {
+            throw new IllegalArgumentException("maxLength is negative");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        mySlots = new AtomicReferenceArray<String>(size);
+        myMask = size - 1;
+        myMaxLength = maxLength;
+    }
+
+
+    /**
+     * Gets the canonical instance of a string.
+     *
+     * @param text may be null.
+     *
+     * @return a string equal to {@code text}, or {@code text} itself if
+     * it's null or too long to intern.
+     */
+    public String intern(String text)
+    {
+        if (text == null || text.length() > myMaxLength) return text;
+
+        int h = text.hashCode();
+        int slot = (h ^ (h >>> 16)) & myMask;
+        String cached = mySlots.get(slot);
+        if (cached != null && cached.equals(text))
+        {
+            myCounts.incrementAndGet(stripe() + HITS);
+            return cached;
+        }
+
+        mySlots.set(slot, text);
+        myCounts.incrementAndGet(stripe() + MISSES);
+        return text;
+    }
+
+
+    /**
+     * @return the number of slots in this table.
+     */
+    public int getCapacity()
+    {
+        return mySlots.length();
+    }
+
+    /**
+     * @return the length of the longest strings this table interns.
+     */
+    public int getMaxLength()
+    {
+        return myMaxLength;
+    }
+
+    /**
+     * @return the number of lookups that found an equal string.
+     */
+    public long getHitCount()
+    {
+        return sum(HITS);
+    }
+
+    /**
+     * @return the number of lookups that didn't find an equal string.
+     */
+    public long getMissCount()
+    {
+        return sum(MISSES);
+    }
+
+    /**
+     * @return the fraction of lookups that found an equal string, or zero
+     * if there have been none.
+     */
+    public double getHitRate()
+    {
+        long hits = sum(HITS);
+        long total = hits + sum(MISSES);
+        return (total == 0 ? 0 : (double) hits / total);
+    }
+
+    /**
+     * Empties the table, keeping its statistics.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < mySlots.length(); i++)
+        {
+            mySlots.set(i, null);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.amazon.ion.IonException;
 import com.amazon.ion.IonFloat;
 import com.amazon.ion.IonInt;
 import com.amazon.ion.IonLob;
+import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSequence;
 import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonSymbol;
@@ -32,10 +33,12 @@ import com.amazon.ion.IonTimestamp;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.SymbolToken;
+import com.amazon.ion.impl._Private_IonValue;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -215,8 +218,46 @@ public final class Equivalence {
         this.configuration = configuration;
     }
 
+    /**
+     * One way in which two streams of Ion values differ.
+     *
+     * @see Equivalence#ionReaderDiff(IonReader, IonReader, int)
+     */
+    public static final class Difference {
+        private final String path;
+        private final String description;
 
-    private static int compareAnnotations(SymbolToken[] ann1,
+        Difference(String path, String description) {
+            this.path = path;
+            this.description = description;
+        }
+
+        /**
+         * Gets the location of the differing values: top-level values and
+         * sequence elements by index, and struct fields by name, as in
+         * {@code [2].items[0].id}.
+         *
+         * @return the path, not null.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return a short description of the difference, not null.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String toString() {
+            return path + ": " + description;
+        }
+    }
+
+
+    static int compareAnnotations(SymbolToken[] ann1,
                                           SymbolToken[] ann2)
     {
         int len = ann1.length;
@@ -232,7 +273,7 @@ public final class Equivalence {
     }
 
 
-    private static int compareSymbolTokens(SymbolToken tok1,
+    static int compareSymbolTokens(SymbolToken tok1,
                                            SymbolToken tok2)
     {
         String text1 = tok1.getText();
@@ -479,6 +520,24 @@ public final class Equivalence {
         return (ionCompareToImpl(v1, v2, configuration) == 0);
     }
 
+    /**
+     * Strict equivalence without an epsilon is what {@link IonValue#hashCode()}
+     * is consistent with, so read-only values whose hash codes are already
+     * cached can be told apart without walking them.
+     */
+    private static boolean cachedHashCodesDiffer(final IonValue v1,
+                                                 final IonValue v2,
+                                                 final Configuration configuration)
+    {
+        if (!configuration.isStrict || configuration.epsilon != null) return false;
+        if (!(v1 instanceof _Private_IonValue && v2 instanceof _Private_IonValue)) return false;
+
+        int h1 = ((_Private_IonValue) v1).cachedHashCode();
+        if (h1 == 0) return false;
+        int h2 = ((_Private_IonValue) v2).cachedHashCode();
+        return h2 != 0 && h1 != h2;
+    }
+
     private static int ionCompareToImpl(final IonValue v1,
                                         final IonValue v2,
                                         final Configuration configuration)
@@ -497,6 +556,11 @@ public final class Equivalence {
         IonType ty2 = v2.getType();
         result = ty1.compareTo(ty2);
 
+        if (result == 0 && cachedHashCodesDiffer(v1, v2, configuration)) {
+            // Not an ordering, but only equality is exposed.
+            return 1;
+        }
+
         if (result == 0) {
             boolean bo1 = v1.isNullValue();
             boolean bo2 = v2.isNullValue();
@@ -652,4 +716,58 @@ public final class Equivalence {
         return ionEqualsImpl(v1, v2, configuration);
     }
 
+    /**
+     * Checks for data equivalence over the remaining values of two readers
+     * using this Equivalence's configuration. Only structs are loaded into
+     * {@link IonValue}s, one at a time, since their fields are unordered.
+     *
+     * @see #ionReaderDiff(IonReader, IonReader, int)
+     *
+     * @param r1
+     *            The reader of the first values to compare.
+     * @param r2
+     *            The reader of the second values to compare.
+     *
+     * @return true if the two readers' values represent the same data.
+     */
+    public boolean ionReaderEquals(final IonReader r1, final IonReader r2) {
+        return ionReaderDiff(r1, r2, 1).isEmpty();
+    }
+
+    /**
+     * Compares the remaining values of two readers using this Equivalence's
+     * configuration, reporting where they differ.
+     * <p>
+     * The readers are advanced in lockstep from their current depth, so
+     * streams of any length can be compared. Lists and s-expressions are
+     * compared as they're read, while each struct, being unordered, is held
+     * in memory while its fields are matched up.
+     * <p>
+     * Comparison stops once {@code maxDifferences} differences have been
+     * found, leaving the readers somewhere after the last of them.
+     *
+     * @param r1
+     *            The reader of the first values to compare.
+     * @param r2
+     *            The reader of the second values to compare.
+     * @param maxDifferences
+     *            The most differences to report; must be positive.
+     *
+     * @return the differences found, in stream order; empty if the values
+     *         represent the same data.
+     */
+    public List<Difference> ionReaderDiff(final IonReader r1,
+                                          final IonReader r2,
+                                          final int maxDifferences) {
+        if (maxDifferences < 1) {
+            throw new IllegalArgumentException("maxDifferences must be positive");
+        }
+        ReaderComparator comparator =
+            new ReaderComparator(this,
+                                 configuration.isStrict,
+                                 configuration.epsilon,
+                                 maxDifferences);
+        return comparator.compare(r1, r2);
+    }
+
 }
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.Equivalence.Difference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walks two {@link IonReader}s in lockstep, collecting the ways in which
+ * their values differ.
+ * <p>
+ * Lists and s-expressions are compared element by element as they're read.
+ * Struct fields are unordered, so each struct is buffered into an
+ * {@link IonStruct} to be matched up, though only while it's compared. The
+ * memory used is thus proportional to the largest struct being compared,
+ * including everything nested within it, rather than to the whole stream;
+ * values within a buffered struct are compared from the buffer.
+ * Equivalence follows {@link Equivalence}, with the same options.
+ */
+final class ReaderComparator
+{
+    /**
+     * Holds the buffered structs. Its values never leave this class.
+     */
+    private static final class BufferSystem
+    {
+        static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    }
+
+    private final Equivalence      myEquivalence;
+    private final boolean          myStrict;
+    private final Double           myEpsilon;
+    private final int              myMaxDifferences;
+    private final List<Difference> myDifferences = new ArrayList<Difference>();
+
+    /**
+     * The location of the values being compared: at each depth, either the
+     * field name as it's printed or, when that's null, the index in the
+     * enclosing sequence.
+     */
+    private String[] myNames   = new String[8];
+    private int[]    myIndexes = new int[8];
+    private int      myDepth;
+
+
+    ReaderComparator(Equivalence equivalence,
+                     boolean strict,
+                     Double epsilon,
+                     int maxDifferences)
+    {
+        myEquivalence = equivalence;
+        myStrict = strict;
+        myEpsilon = epsilon;
+        myMaxDifferences = maxDifferences;
+    }
+
+    /**
+     * Compares the remaining values at the readers' current depth.
+     *
+     * @return the differences found, in the order of the streams; empty if
+     * they are equivalent.
+     */
+    List<Difference> compare(IonReader r1, IonReader r2)
+    {
+        compareSequences(r1, r2);
+        return myDifferences;
+    }
+
+
+    private boolean isDone()
+    {
+        return myDifferences.size() >= myMaxDifferences;
+    }
+
+    private void report(String description)
+    {
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i <= myDepth; i++)
+        {
+            String name = myNames[i];
+            if (name == null)
+            {
+                path.append('[').append(myIndexes[i]).append(']');
+            }
+            else
+            {
+                if (i != 0) path.append('.');
+                path.append(name);
+            }
+        }
+        myDifferences.add(new Difference(path.toString(), description));
+    }
+
+    private void setLocation(String name, int index)
+    {
+        if (myDepth == myNames.length)
+        {
+            myNames   = Arrays.copyOf(myNames, myDepth * 2);
+            myIndexes = Arrays.copyOf(myIndexes, myDepth * 2);
+        }
+        myNames[myDepth]   = name;
+        myIndexes[myDepth] = index;
+    }
+
+
+    private void compareSequences(IonReader r1, IonReader r2)
+    {
+        for (int i = 0; !isDone(); i++)
+        {
+            IonType t1 = r1.next();
+            IonType t2 = r2.next();
+            if (t1 == null && t2 == null) return;
+
+            setLocation(null, i);
+            if (t1 == null)
+            {
+                report("value only in second");
+                return;
+            }
+            if (t2 == null)
+            {
+                report("value only in first");
+                return;
+            }
+            compareValues(r1, t1, r2, t2);
+        }
+    }
+
+    private void compareValues(IonReader r1, IonType t1,
+                               IonReader r2, IonType t2)
+    {
+        if (t1 != t2)
+        {
+            report("type " + t1 + " differs from " + t2);
+            return;
+        }
+
+        if (myStrict
+            && Equivalence.compareAnnotations(r1.getTypeAnnotationSymbols(),
+                                              r2.getTypeAnnotationSymbols()) != 0)
+        {
+            report("annotations differ");
+            if (isDone()) return;
+        }
+
+        boolean null1 = r1.isNullValue();
+        boolean null2 = r2.isNullValue();
+        if (null1 || null2)
+        {
+            if (null1 != null2)
+            {
+                report(null1 ? "null differs from non-null"
+                             : "non-null differs from null");
+            }
+            return;
+        }
+
+        switch (t1)
+        {
+            case LIST:
+            case SEXP:
+                r1.stepIn();
+                r2.stepIn();
+                myDepth++;
+                compareSequences(r1, r2);
+                myDepth--;
+                r1.stepOut();
+                r2.stepOut();
+                break;
+            case STRUCT:
+                compareStructs((IonStruct) BufferSystem.SYSTEM.newValue(r1),
+                               (IonStruct) BufferSystem.SYSTEM.newValue(r2));
+                break;
+            default:
+                if (!scalarsEqual(r1, r2, t1))
+                {
+                    report("values differ");
+                }
+                break;
+        }
+    }
+
+    private boolean scalarsEqual(IonReader r1, IonReader r2, IonType type)
+    {
+        switch (type)
+        {
+            case BOOL:
+                return r1.booleanValue() == r2.booleanValue();
+            case INT:
+                if (r1.getIntegerSize() == IntegerSize.BIG_INTEGER
+                    || r2.getIntegerSize() == IntegerSize.BIG_INTEGER)
+                {
+                    return r1.bigIntegerValue().equals(r2.bigIntegerValue());
+                }
+                return r1.longValue() == r2.longValue();
+            case FLOAT:
+                double double1 = r1.doubleValue();
+                double double2 = r2.doubleValue();
+                if (myEpsilon != null
+                    && (double1 == double2
+                        || Math.abs(double1 - double2) <= myEpsilon))
+                {
+                    return true;
+                }
+                return Double.compare(double1, double2) == 0;
+            case DECIMAL:
+                return Decimal.equals(r1.decimalValue(), r2.decimalValue());
+            case TIMESTAMP:
+                if (myStrict)
+                {
+                    return r1.timestampValue().equals(r2.timestampValue());
+                }
+                return r1.timestampValue().compareTo(r2.timestampValue()) == 0;
+            case STRING:
+                return r1.stringValue().equals(r2.stringValue());
+            case SYMBOL:
+                return Equivalence.compareSymbolTokens(r1.symbolValue(),
+                                                       r2.symbolValue()) == 0;
+            case BLOB:
+            case CLOB:
+                return Arrays.equals(r1.newBytes(), r2.newBytes());
+            default:
+                throw new IllegalStateException("unexpected type " + type);
+        }
+    }
+
+
+    /**
+     * Groups a struct's fields by name. Names with known text are keyed by
+     * their {@link String}; names with unknown text are keyed by their
+     * {@link Integer} symbol ID, so they can't match a field whose text
+     * happens to look like a symbol ID.
+     */
+    private static Map<Object, List<IonValue>> fieldsByName(IonStruct struct)
+    {
+        Map<Object, List<IonValue>> fields =
+            new LinkedHashMap<Object, List<IonValue>>();
+        for (IonValue value : struct)
+        {
+            SymbolToken tok = value.getFieldNameSymbol();
+            Object name = tok.getText();
+            if (name == null)
+            {
+                name = Integer.valueOf(tok.getSid());
+            }
+
+            List<IonValue> values = fields.get(name);
+            if (values == null)
+            {
+                values = new ArrayList<IonValue>(1);
+                fields.put(name, values);
+            }
+            values.add(value);
+        }
+        return fields;
+    }
+
+    private static String printFieldName(Object name)
+    {
+        if (name instanceof String)
+        {
+            return IonTextUtils.printSymbol((String) name);
+        }
+        return "$" + name;
+    }
+
+    private void compareStructs(IonStruct s1, IonStruct s2)
+    {
+        Map<Object, List<IonValue>> fields1 = fieldsByName(s1);
+        Map<Object, List<IonValue>> fields2 = fieldsByName(s2);
+
+        myDepth++;
+        for (Map.Entry<Object, List<IonValue>> entry : fields1.entrySet())
+        {
+            if (isDone()) break;
+
+            Object name = entry.getKey();
+            List<IonValue> values1 = entry.getValue();
+            List<IonValue> values2 = fields2.get(name);
+            setLocation(printFieldName(name), 0);
+
+            if (values2 == null)
+            {
+                report("field only in first");
+            }
+            else if (values1.size() == 1 && values2.size() == 1)
+            {
+                compareFieldValues(values1.get(0), values2.get(0));
+            }
+            else if (!bagsEqual(values1, values2))
+            {
+                report("repeated field differs");
+            }
+        }
+        for (Object name : fields2.keySet())
+        {
+            if (isDone()) break;
+
+            if (!fields1.containsKey(name))
+            {
+                setLocation(printFieldName(name), 0);
+                report("field only in second");
+            }
+        }
+        myDepth--;
+    }
+
+    /**
+     * Compares two buffered field values, looking into them only when
+     * they're known to differ.
+     */
+    private void compareFieldValues(IonValue v1, IonValue v2)
+    {
+        if (myEquivalence.ionValueEquals(v1, v2)) return;
+
+        IonReader r1 = BufferSystem.SYSTEM.newReader(v1);
+        IonReader r2 = BufferSystem.SYSTEM.newReader(v2);
+        compareValues(r1, r1.next(), r2, r2.next());
+    }
+
+    private boolean bagsEqual(List<IonValue> values1, List<IonValue> values2)
+    {
+        int size = values1.size();
+        if (size != values2.size()) return false;
+
+        boolean[] matched = new boolean[size];
+        for (IonValue v1 : values1)
+        {
+            boolean found = false;
+            for (int i = 0; i < size && !found; i++)
+            {
+                if (!matched[i] && myEquivalence.ionValueEquals(v1, values2.get(i)))
+                {
+                    matched[i] = true;
+                    found = true;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.SystemSymbols.ION_1_0_MAX_ID;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+
+/**
+ * Rewrites Ion streams that declare many local symbol tables, such as those
+ * from producers that call {@link IonWriter#finish()} often, so that they
+ * declare as few tables as possible.
+ * <p>
+ * By default the output declares one local symbol table holding every
+ * symbol of the input. Since the binary writer buffers its output until
+ * its symbol table is written, this holds the whole stream in memory.
+ * When a segment size is given, the output is flushed after each segment
+ * of that many top-level values, and symbols first used in later segments
+ * are declared by appending to the symbol table (see
+ * {@link IonBinaryWriterBuilder#setLocalSymbolTableAppendEnabled(boolean)}).
+ * <p>
+ * Values are copied through {@link IonWriter#writeValue(IonReader)}, so
+ * only their symbol IDs change. The output imports the tables declared by
+ * the writer builder, not those imported by the input.
+ * <p>
+ * <b>Instances of this class are safe for use by multiple threads.</b>
+ */
+public final class SymbolTableCompactor
+{
+    /**
+     * The sizes and symbol table counts of a compacted stream.
+     */
+    public static final class Report
+    {
+        private final long myInputSize;
+        private final long myOutputSize;
+        private final int  myInputSymbolTables;
+        private final int  myOutputSymbolTables;
+        private final long myInputSymbolTableTime;
+
+        Report(long inputSize, long outputSize,
+               int inputSymbolTables, int outputSymbolTables,
+               long inputSymbolTableTime)
+        {
+            myInputSize = inputSize;
+            myOutputSize = outputSize;
+            myInputSymbolTables = inputSymbolTables;
+            myOutputSymbolTables = outputSymbolTables;
+            myInputSymbolTableTime = inputSymbolTableTime;
+        }
+
+        /** @return the number of bytes read. */
+        public long getInputSize()
+        {
+            return myInputSize;
+        }
+
+        /** @return the number of bytes written. */
+        public long getOutputSize()
+        {
+            return myOutputSize;
+        }
+
+        /** @return the number of bytes by which the output is smaller. */
+        public long getBytesSaved()
+        {
+            return myInputSize - myOutputSize;
+        }
+
+        /**
+         * @return the number of symbol tables, including appends, that
+         * took effect in the input. An append is counted whether the reader
+         * returns a new table for it or adds to its current table in place.
+         */
+        public int getInputSymbolTableCount()
+        {
+            return myInputSymbolTables;
+        }
+
+        /**
+         * @return the number of symbol tables, including appends, written to
+         * the output.
+         */
+        public int getOutputSymbolTableCount()
+        {
+            return myOutputSymbolTables;
+        }
+
+        /**
+         * @return the nanoseconds spent reading the top-level values that
+         * follow a symbol table in the input, which includes reading the
+         * tables.
+         */
+        public long getInputSymbolTableTime()
+        {
+            return myInputSymbolTableTime;
+        }
+
+        /**
+         * Estimates the symbol table processing avoided when reading the
+         * output rather than the input, assuming the tables took the same
+         * time each.
+         *
+         * @return nanoseconds; never negative.
+         */
+        public long getSymbolTableTimeSaved()
+        {
+            if (myInputSymbolTables <= myOutputSymbolTables) return 0;
+
+            int removed = myInputSymbolTables - myOutputSymbolTables;
+            return myInputSymbolTableTime * removed / myInputSymbolTables;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "bytes: " + myInputSize + " -> " + myOutputSize
+                 + ", symbol tables: " + myInputSymbolTables
+                 + " -> " + myOutputSymbolTables
+                 + ", symbol table read time saved (ns): "
+                 + getSymbolTableTimeSaved();
+        }
+    }
+
+
+    private static final class CountingInputStream
+        extends FilterInputStream
+    {
+        long myCount;
+
+        CountingInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int b = super.read();
+            if (b >= 0) myCount++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            int n = super.read(b, off, len);
+            if (n > 0) myCount += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException
+        {
+            long skipped = super.skip(n);
+            myCount += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported()
+        {
+            return false;
+        }
+    }
+
+    private static final class CountingOutputStream
+        extends FilterOutputStream
+    {
+        long myCount;
+
+        CountingOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            myCount++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+            myCount += len;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            // Leave the caller's stream open.
+            flush();
+        }
+    }
+
+
+    private final IonReaderBuilder       myReaderBuilder;
+    private final IonBinaryWriterBuilder myWriterBuilder;
+    private final int                    mySegmentSize;
+
+
+    /**
+     * Creates a compactor that writes one symbol table, using the standard
+     * reader and writer configurations.
+     */
+    public SymbolTableCompactor()
+    {
+        this(IonReaderBuilder.standard(), IonBinaryWriterBuilder.standard(), 0);
+    }
+
+    /**
+     * @param readerBuilder builds readers of the input.
+     * @param writerBuilder builds writers of the output, declaring their
+     *  catalog and imports.
+     * @param segmentSize the number of top-level values after which the
+     *  output is flushed, or zero to write one symbol table.
+     */
+    public SymbolTableCompactor(IonReaderBuilder readerBuilder,
+                                IonBinaryWriterBuilder writerBuilder,
+                                int segmentSize)
+    {
+        if (segmentSize < 0)
+        {
+            throw new IllegalArgumentException("segmentSize must not be negative");
+        }
+
+        myReaderBuilder = readerBuilder.immutable();
+        IonBinaryWriterBuilder b = writerBuilder.copy();
+        if (segmentSize > 0)
+        {
+            b.setLocalSymbolTableAppendEnabled(true);
+        }
+        myWriterBuilder = b.immutable();
+        mySegmentSize = segmentSize;
+    }
+
+
+    /**
+     * Compacts Ion data held in memory.
+     *
+     * @param ionData the Ion text or binary data to compact.
+     * @param out receives the compacted binary data. It isn't closed.
+     */
+    public Report compact(byte[] ionData, OutputStream out)
+        throws IOException
+    {
+        IonReader reader = myReaderBuilder.build(ionData);
+        try
+        {
+            return compact(reader, out, ionData.length, null);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Compacts a stream of Ion data.
+     *
+     * @param in the Ion text or binary data to compact. It isn't closed.
+     * @param out receives the compacted binary data. It isn't closed.
+     */
+    public Report compact(InputStream in, OutputStream out)
+        throws IOException
+    {
+        CountingInputStream counted = new CountingInputStream(in);
+        IonReader reader = myReaderBuilder.build(counted);
+        try
+        {
+            return compact(reader, out, 0, counted);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+
+    private Report compact(IonReader reader, OutputStream out,
+                           long inputSize, CountingInputStream counted)
+        throws IOException
+    {
+        CountingOutputStream countedOut = new CountingOutputStream(out);
+        IonWriter writer = myWriterBuilder.build(countedOut);
+
+        SymbolTable inputSymtab = null;
+        int inputMaxId = 0;
+        int inputTables = 0;
+        long inputTableTime = 0;
+        int outputTables = 0;
+        // The writer emits a symbol table once it has symbols beyond the
+        // system symbols, and an append each time it has more.
+        int writtenMaxId = ION_1_0_MAX_ID;
+        int valuesInSegment = 0;
+
+        try
+        {
+            while (true)
+            {
+                long start = System.nanoTime();
+                IonType type = reader.next();
+                long elapsed = System.nanoTime() - start;
+                if (type == null) break;
+
+                // A reader may append to its current local table in place,
+                // so growth of the same table counts as another table too.
+                SymbolTable symtab = reader.getSymbolTable();
+                int symtabMaxId = symtab.getMaxId();
+                if (symtab != inputSymtab || symtabMaxId > inputMaxId)
+                {
+                    if (symtab.isLocalTable())
+                    {
+                        inputTables++;
+                        inputTableTime += elapsed;
+                    }
+                    inputSymtab = symtab;
+                }
+                inputMaxId = symtabMaxId;
+
+                writer.writeValue(reader);
+
+                if (mySegmentSize > 0 && ++valuesInSegment == mySegmentSize)
+                {
+                    int maxId = writer.getSymbolTable().getMaxId();
+                    if (maxId > writtenMaxId)
+                    {
+                        outputTables++;
+                        writtenMaxId = maxId;
+                    }
+                    writer.flush();
+                    valuesInSegment = 0;
+                }
+            }
+
+            if (writer.getSymbolTable().getMaxId() > writtenMaxId)
+            {
+                outputTables++;
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+
+        if (counted != null)
+        {
+            inputSize = counted.myCount;
+        }
+        return new Report(inputSize, countedOut.myCount,
+                          inputTables, outputTables, inputTableTime);
+    }
+}
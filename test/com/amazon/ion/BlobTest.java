@@ -17,6 +17,7 @@ package com.amazon.ion;
 
 import static com.amazon.ion.TestUtils.US_ASCII_CHARSET;
 import static com.amazon.ion.impl._Private_Utils.encode;
+import static org.junit.Assert.assertArrayEquals;
 import com.amazon.ion.impl._Private_Utils;
 import java.io.IOException;
 import java.io.InputStream;
@@ -334,4 +335,86 @@ public class BlobTest
         badValue("{{ Zg= }}");
         badValue("{{ Zm8 }}");
     }
+
+    private static byte[] testBytes(int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return bytes;
+    }
+
+    private static byte[] readBlob(IonReader reader)
+    {
+        assertEquals(IonType.BLOB, reader.next());
+        return reader.newBytes();
+    }
+
+    @Test
+    public void testLargeBlobRoundtrip()
+        throws IOException
+    {
+        int[] lengths = { 1, 2, 3, 4, 5, 3 * 1024 - 1, 3 * 1024, 3 * 1024 + 1, 100000 };
+        for (int length : lengths)
+        {
+            byte[] bytes = testBytes(length);
+
+            StringBuilder text = new StringBuilder();
+            IonWriter writer = system().newTextWriter(text);
+            writer.writeBlob(bytes);
+            writer.close();
+
+            StringBuilder base64 = new StringBuilder();
+            _Private_Utils.writeAsBase64(new java.io.ByteArrayInputStream(bytes), base64);
+            assertEquals("{{" + base64 + "}}", text.toString());
+
+            // Character and byte sources take different decoding paths.
+            byte[] utf8 = _Private_Utils.encode(text.toString(), US_ASCII_CHARSET);
+            assertArrayEquals(bytes, readBlob(system().newReader(text.toString())));
+            assertArrayEquals(bytes, readBlob(system().newReader(utf8)));
+        }
+    }
+
+    @Test
+    public void testLargeBlobWithWhitespace()
+        throws IOException
+    {
+        byte[] bytes = testBytes(10000);
+        StringBuilder base64 = new StringBuilder();
+        _Private_Utils.writeAsBase64(new java.io.ByteArrayInputStream(bytes), base64);
+
+        // Break the text into lines the way MIME does, plus some odd spacing
+        // that splits groups of four characters.
+        StringBuilder text = new StringBuilder("{{");
+        for (int i = 0; i < base64.length(); i += 76)
+        {
+            text.append('\n');
+            text.append(base64, i, Math.min(i + 76, base64.length()));
+        }
+        text.insert(text.length() - 6, "  \t ");
+        text.append("\n}} 123");
+
+        IonReader reader = system().newReader(text.toString());
+        assertArrayEquals(bytes, readBlob(reader));
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(123, reader.intValue());
+
+        reader = system().newReader(_Private_Utils.encode(text.toString(), US_ASCII_CHARSET));
+        assertArrayEquals(bytes, readBlob(reader));
+        assertEquals(IonType.INT, reader.next());
+    }
+
+    @Test
+    public void testBadCharacterInLargeBlob()
+    {
+        StringBuilder text = new StringBuilder("{{");
+        for (int i = 0; i < 1000; i++)
+        {
+            text.append("AAAA");
+        }
+        text.append("AA\u00e9A}}");
+        badValue(text.toString());
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SharedSymbolFieldReader} reader facet.
+ */
+public class SharedSymbolFieldReaderTest
+{
+    private static final String DATA =
+        "{other:1, name:\"n\", count:3, id:7} {id:8, extra:{count:0}, count:4}";
+
+    private static final int ID    = 1;
+    private static final int NAME  = 2;
+    private static final int COUNT = 3;
+
+    private final SimpleCatalog myCatalog = new SimpleCatalog();
+    private final IonSystem mySystem =
+        IonSystemBuilder.standard().withCatalog(myCatalog).build();
+    private final SymbolTable mySchema = mySystem.newSharedSymbolTable(
+        mySystem.newReader("$ion_shared_symbol_table::"
+                           + "{name:\"schema\", version:1, symbols:[\"id\", \"name\", \"count\"]}"));
+
+    {
+        myCatalog.putTable(mySchema);
+    }
+
+    private byte[] binary(SymbolTable... imports)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard()
+                                                 .withImports(imports)
+                                                 .build(out);
+        writer.writeValues(mySystem.newReader(DATA));
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private IonReader reader(byte[] data)
+    {
+        return IonReaderBuilder.standard().withCatalog(myCatalog).build(data);
+    }
+
+    private void checkSeek(IonReader reader)
+    {
+        SharedSymbolFieldReader fields =
+            reader.asFacet(SharedSymbolFieldReader.class);
+        int[] wanted = { COUNT, ID };
+
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(UNKNOWN_SYMBOL_ID, fields.getFieldId(mySchema));
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals(NAME, fields.getFieldId(mySchema));
+
+        assertEquals(IonType.INT, fields.seekField(mySchema, wanted));
+        assertEquals(COUNT, fields.getFieldId(mySchema));
+        assertEquals(3, reader.intValue());
+        assertEquals(IonType.INT, fields.seekField(mySchema, wanted));
+        assertEquals(ID, fields.getFieldId(mySchema));
+        assertEquals(7, reader.intValue());
+        assertNull(fields.seekField(mySchema, wanted));
+        reader.stepOut();
+
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, fields.seekField(mySchema, new int[] { COUNT }));
+        assertEquals(4, reader.intValue());
+        assertNull(fields.seekField(mySchema, wanted));
+        reader.stepOut();
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testBinaryImportingSchema()
+        throws IOException
+    {
+        byte[] data = binary(mySchema);
+        IonReader reader = reader(data);
+        reader.next();
+        assertSame(mySchema, reader.getSymbolTable().getImportedTables()[0]);
+
+        checkSeek(reader(data));
+    }
+
+    @Test
+    public void testBinaryWithLocalSymbols()
+        throws IOException
+    {
+        checkSeek(reader(binary()));
+    }
+
+    @Test
+    public void testText()
+    {
+        checkSeek(IonReaderBuilder.standard().build(DATA));
+    }
+
+    @Test
+    public void testTree()
+    {
+        checkSeek(IonReaderBuilder.standard().build(mySystem.getLoader().load(DATA)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSeekOutsideStruct()
+    {
+        IonReader reader = IonReaderBuilder.standard().build(DATA);
+        reader.asFacet(SharedSymbolFieldReader.class)
+              .seekField(mySchema, new int[] { ID });
+    }
+}
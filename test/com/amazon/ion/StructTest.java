@@ -17,6 +17,7 @@ package com.amazon.ion;
 
 import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
 
+import com.amazon.ion.impl._Private_IonStruct;
 import com.amazon.ion.impl._Private_IonValue;
 import com.amazon.ion.impl._Private_Utils;
 import java.io.PrintWriter;
@@ -1919,4 +1920,111 @@ public class StructTest
         child.getContainer().remove(child);
     }
 
+    @Test
+    public void testGetSymbolToken()
+    {
+        _Private_IonStruct s =
+            (_Private_IonStruct) struct(SHARED_SYMBOL_TABLE + "{a:1,b:2,$99:3}");
+
+        assertEquals(1, ((IonInt) s.getField(new FakeSymbolToken("a", UNKNOWN_SYMBOL_ID))).intValue());
+        assertEquals(2, ((IonInt) s.getField(new FakeSymbolToken("b", 1234))).intValue());
+        assertEquals(3, ((IonInt) s.getField(new FakeSymbolToken(null, 99))).intValue());
+        assertNull(s.getField(new FakeSymbolToken(null, 98)));
+        assertNull(((_Private_IonStruct) system().newNullStruct()).getField(new FakeSymbolToken(null, 99)));
+
+        thrown.expect(IllegalArgumentException.class);
+        s.getField(new FakeSymbolToken(null, UNKNOWN_SYMBOL_ID));
+    }
+
+    @Test
+    public void testGetSymbolTokenMatchesOnlyUnknownText()
+    {
+        IonDatagram dg = loader().load(encode("{a:1,b:2}"));
+        _Private_IonStruct s = (_Private_IonStruct) dg.get(0);
+        int sid = s.get("a").getFieldNameSymbol().getSid();
+        assertTrue(sid > 0);
+
+        // The field's text is known, so its ID doesn't identify it.
+        assertNull(s.getField(new FakeSymbolToken(null, sid)));
+        assertSame(s.get("a"), s.getField(new FakeSymbolToken("a", sid)));
+    }
+
+    @Test
+    public void testLargeStructFieldIndex()
+    {
+        // Large enough that lookups go through the field index.
+        IonStruct s = system().newEmptyStruct();
+        for (int i = 0; i < 200; i++)
+        {
+            s.add("f" + (i % 50), system().newInt(i));
+        }
+        assertEquals(200, s.size());
+        assertNull(s.get("missing"));
+
+        for (int i = 0; i < 50; i++)
+        {
+            IonInt value = (IonInt) s.get("f" + i);
+            assertEquals("f" + i, value.getFieldName());
+            assertEquals(0, (value.intValue() - i) % 50);
+        }
+
+        // Remove every copy of half of the names, one at a time.
+        for (int i = 0; i < 50; i += 2)
+        {
+            for (int copy = 0; copy < 4; copy++)
+            {
+                assertNotNull(s.remove("f" + i));
+            }
+            assertNull(s.get("f" + i));
+        }
+        assertEquals(100, s.size());
+
+        for (int i = 1; i < 50; i += 2)
+        {
+            s.put("f" + i, system().newInt(-i));
+            assertEquals(-i, ((IonInt) s.get("f" + i)).intValue());
+            assertEquals(-i, ((IonInt) ((_Private_IonStruct) s).getField(new FakeSymbolToken("f" + i, 1))).intValue());
+        }
+        assertEquals(25, s.size());
+        assertNull(((_Private_IonValue) s).validate());
+
+        IonStruct copy = s.clone();
+        copy.remove("f1");
+        assertNull(copy.get("f1"));
+        assertNotNull(s.get("f1"));
+    }
+
+    @Test
+    public void testLargeStructUnknownTextFields()
+    {
+        _Private_IonStruct s = (_Private_IonStruct) system().newEmptyStruct();
+        for (int i = 0; i < 60; i++)
+        {
+            s.add("f" + (i % 20), system().newInt(i));
+            s.add(new FakeSymbolToken(null, 100 + (i % 20)), system().newInt(-i));
+        }
+        assertEquals(120, s.size());
+        assertNull(((_Private_IonValue) s).validate());
+
+        for (int i = 0; i < 20; i++)
+        {
+            IonValue field = s.getField(new FakeSymbolToken(null, 100 + i));
+            assertEquals(100 + i, field.getFieldNameSymbol().getSid());
+            assertNull(field.getFieldNameSymbol().getText());
+        }
+        assertNull(s.getField(new FakeSymbolToken(null, 99)));
+
+        // Removing fields with unknown text keeps the index consistent.
+        for (Iterator<IonValue> i = s.iterator(); i.hasNext(); )
+        {
+            IonValue field = i.next();
+            if (field.getFieldNameSymbol().getSid() == 105) i.remove();
+        }
+        s.remove(s.getField(new FakeSymbolToken(null, 106)));
+        assertEquals(116, s.size());
+        assertNull(s.getField(new FakeSymbolToken(null, 105)));
+        assertEquals(106, s.getField(new FakeSymbolToken(null, 106)).getFieldNameSymbol().getSid());
+        assertEquals(-59, ((IonInt) s.getField(new FakeSymbolToken(null, 119))).intValue());
+        assertNull(((_Private_IonValue) s).validate());
+    }
 }
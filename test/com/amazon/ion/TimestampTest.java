@@ -3059,6 +3059,80 @@ public class TimestampTest
         assertEquals(t1.getDecimalMillis(), t2.getDecimalMillis());
     }
 
+    @Test
+    public void testFixedWidthTextRoundtrip()
+    {
+        String[] images = {
+            "2001-02-03T04:05Z",
+            "2001-02-03T04:05+07:08",
+            "2001-02-03T04:05-00:00",
+            "2001-02-03T04:05:06Z",
+            "2001-02-03T04:05:06.7Z",
+            "2001-02-03T04:05:06.000Z",
+            "2001-02-03T04:05:06.007-08:00",
+            "2001-02-03T04:05:06.123456789012345678+23:59",
+            "2001-02-03T04:05:06.1234567890123456789-23:59",
+            "2000-02-29T23:30:00.5-00:30",
+            "2000-03-01T00:30:00+00:30",
+            "0001-01-01T00:30:00+00:30",
+            "9999-12-31T23:30:00+00:30",
+            "0001-01-01T23:30:00-00:30",
+        };
+        for (String image : images)
+        {
+            Timestamp ts = Timestamp.valueOf(image);
+            assertEquals(image, ts.toString());
+
+            StringBuilder out = new StringBuilder();
+            try
+            {
+                ts.print(out);
+            }
+            catch (java.io.IOException e)
+            {
+                throw new AssertionError(e);
+            }
+            assertEquals(image, out.toString());
+        }
+    }
+
+    @Test
+    public void testFixedWidthTextFields()
+    {
+        Timestamp ts = Timestamp.valueOf("2000-03-01T00:30:00.0120-01:00");
+        checkFields(2000, 3, 1, 0, 30, 0, new BigDecimal("0.0120"), -60, SECOND, ts);
+        assertEquals(2000, ts.getZYear());
+        assertEquals(3, ts.getZMonth());
+        assertEquals(1, ts.getZDay());
+        assertEquals(1, ts.getZHour());
+
+        assertEquals(null, Timestamp.valueOf("2000-03-01T00:30:00-00:00").getLocalOffset());
+        assertEquals("2000-03-01T01:30:00.0120Z", ts.toZString());
+    }
+
+    @Test
+    public void testFixedWidthTextErrors()
+    {
+        // These look like the fixed-width forms but aren't valid, so they
+        // must get the same treatment as any other bad text.
+        badValue("2001-02-03T04:05:06.Z");
+        badValue("2001-02-03T04:05:06");
+        badValue("2001-02-03T24:05:06Z");
+        badValue("2001-02-30T04:05:06Z");
+        badValue("2001-02-03T04:05:06+24:00");
+        badValue("2001-02-03T04:05:06+01:60");
+        badValue("2001-02-03T04:05:06+01-00");
+        badValue("2001-02-03T04:05:0aZ");
+    }
+
+    @Test
+    public void testFixedWidthTextWithFollowChar()
+    {
+        // Not handled by the fixed-width path, but must still work.
+        Timestamp ts = Timestamp.valueOf("2001-02-03T04:05:06.7Z ,");
+        assertEquals("2001-02-03T04:05:06.7Z", ts.toString());
+    }
+
     @Ignore
     @Test
     public void testInstantVsTimestampMillis() {
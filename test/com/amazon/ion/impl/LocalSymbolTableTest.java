@@ -284,6 +284,54 @@ public class LocalSymbolTableTest
         testFindSymbolToken(st);
     }
 
+    @Test
+    public void testReadOnlyLookupsFromManyThreads()
+        throws Exception
+    {
+        final SymbolTable st = system().newLocalSymbolTable(ST_FRED_V2);
+        for (int i = 0; i < 1000; i++)
+        {
+            st.intern("s" + i);
+        }
+        st.makeReadOnly();
+
+        final int firstLocalSid = st.getImportedMaxId() + 1;
+        final Throwable[] failures = new Throwable[4];
+        Thread[] threads = new Thread[failures.length];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int index = t;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int i = 0; i < 1000; i++)
+                        {
+                            String text = "s" + i;
+                            assertEquals(firstLocalSid + i, st.findSymbol(text));
+                            assertEquals(firstLocalSid + i, st.intern(text).getSid());
+                            assertEquals(text, st.findKnownSymbol(firstLocalSid + i));
+                            assertEquals(firstLocalSid + 999, st.getMaxId());
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        failures[index] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t].join();
+            if (failures[t] != null) throw new AssertionError(failures[t]);
+        }
+    }
+
 
     @Test(expected = NullPointerException.class)
     public void testFindSymbolTokenNull()
@@ -26,6 +26,7 @@ import com.amazon.ion.IonDatagram;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSequence;
 import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SystemSymbols;
@@ -404,6 +405,73 @@ public class TextWriterTest
         }
     }
 
+    @Test
+    public void testPrettyPrintingDeepIndentation()
+        throws Exception
+    {
+        options = IonTextWriterBuilder.pretty()
+            .withInitialIvmHandling(SUPPRESS)
+            .withNewLineType(IonTextWriterBuilder.NewLineType.LF);
+        iw = makeWriter();
+
+        StringBuilder expected = new StringBuilder("\n");
+        int depth = 25;
+        for (int i = 0; i < depth; i++)
+        {
+            iw.stepIn(IonType.LIST);
+            expected.append("[\n");
+            for (int j = 0; j <= i; j++) expected.append("  ");
+        }
+        iw.writeInt(1);
+        expected.append('1');
+        for (int i = depth - 1; i >= 0; i--)
+        {
+            iw.stepOut();
+            expected.append('\n');
+            for (int j = 0; j < i; j++) expected.append("  ");
+            expected.append(']');
+        }
+
+        assertEquals(expected.toString(), outputString());
+    }
+
+    @Test
+    public void testPrettyPrintingCompactContainers()
+        throws Exception
+    {
+        options = IonTextWriterBuilder.pretty()
+            .withInitialIvmHandling(SUPPRESS)
+            .withNewLineType(IonTextWriterBuilder.NewLineType.LF)
+            .withCompactContainerWidth(20);
+
+        IonDatagram dg = system().newDatagram();
+        dg.add(system().singleValue(
+            "{a:[1,2,3],b:{c:\"a string that is too long\"},d:(x y),e:{},f:[]}"));
+        dg.add(system().singleValue("ann::[1,(+ 2 3)]"));
+        dg.add(system().singleValue("[[1,2,3,4,5,6,7,8,9,10],[11,12]]"));
+
+        expectRendering(
+            "\n" +
+            "{\n" +
+            "  a:[1, 2, 3],\n" +
+            "  b:{\n" +
+            "    c:\"a string that is too long\"\n" +
+            "  },\n" +
+            "  d:(x y),\n" +
+            "  e:{},\n" +
+            "  f:[]\n" +
+            "}\n" +
+            "ann::[1, (+ 2 3)]\n" +
+            "[\n" +
+            "  [\n" +
+            "    1,\n    2,\n    3,\n    4,\n    5,\n" +
+            "    6,\n    7,\n    8,\n    9,\n    10\n" +
+            "  ],\n" +
+            "  [11, 12]\n" +
+            "]",
+            dg);
+    }
+
     @Test
     public void testNewLineTypesWithStandardPrinting()
     {
@@ -616,6 +684,64 @@ public class TextWriterTest
         super.testAnnotationNotSetToIvmOnStartOfStream();
     }
 
+    @Test
+    public void testRepeatedSymbolsInDifferentContexts()
+        throws Exception
+    {
+        // The same instances are written as field names, annotations, and
+        // values in and out of s-expressions; quoting depends on context.
+        String ident = "name";
+        String operator = "!=";
+        String keyword = "null";
+        String escaped = "it's";
+
+        iw = makeWriter();
+        for (int i = 0; i < 2; i++)
+        {
+            iw.stepIn(IonType.STRUCT);
+            for (String s : new String[] { ident, operator, keyword, escaped })
+            {
+                iw.setFieldName(s);
+                iw.setTypeAnnotations(s);
+                iw.writeSymbol(s);
+            }
+            iw.setFieldName(operator);
+            iw.stepIn(IonType.SEXP);
+            iw.writeSymbol(operator);
+            iw.writeSymbol(ident);
+            iw.writeSymbol(escaped);
+            iw.stepOut();
+            iw.stepOut();
+        }
+
+        String struct =
+            "{name:name::name," +
+            "'!=':'!='::'!='," +
+            "'null':'null'::'null'," +
+            "'it\\'s':'it\\'s'::'it\\'s'," +
+            "'!=':(!= name 'it\\'s')}";
+        assertEquals(struct + " " + struct, outputString());
+    }
+
+    @Test
+    public void testRepeatedNonAsciiSymbols()
+        throws Exception
+    {
+        String symbol = "caf\u00e9";
+
+        options = IonTextWriterBuilder.standard();
+        iw = makeWriter();
+        iw.writeSymbol(symbol);
+        iw.writeSymbol(symbol);
+        assertEquals("'caf\u00e9' 'caf\u00e9'", outputString());
+
+        options = IonTextWriterBuilder.standard().withCharset(IonTextWriterBuilder.ASCII);
+        iw = makeWriter();
+        iw.writeSymbol(symbol);
+        iw.writeSymbol(symbol);
+        assertEquals("'caf\\xe9' 'caf\\xe9'", outputString());
+    }
+
     @Override
     protected void checkFlushedAfterTopLevelValueWritten()
     {
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class _Private_SymbolTextMapTest
+{
+    @Test
+    public void testArrayKeepsLowestSid()
+    {
+        _Private_SymbolTextMap map =
+            new _Private_SymbolTextMap(new String[] { "a", null, "b", "a" });
+        assertEquals(2, map.size());
+        assertEquals(1, map.get("a"));
+        assertEquals(3, map.get("b"));
+        assertEquals(1, map.get(new String("a")));
+        assertEquals(UNKNOWN_SYMBOL_ID, map.get("c"));
+        assertEquals(UNKNOWN_SYMBOL_ID, map.get(""));
+    }
+
+    @Test
+    public void testGrowsPastExpectedSize()
+    {
+        _Private_SymbolTextMap map = new _Private_SymbolTextMap(0);
+        for (int i = 0; i < 20000; i++)
+        {
+            assertTrue(map.add("s" + i, i + 10));
+        }
+        assertFalse(map.add("s7", 3));
+        assertEquals(20000, map.size());
+        for (int i = 0; i < 20000; i++)
+        {
+            assertEquals(i + 10, map.get("s" + i));
+        }
+        assertEquals(UNKNOWN_SYMBOL_ID, map.get("s20000"));
+    }
+
+    @Test
+    public void testCollidingHashes()
+    {
+        // "Aa" and "BB" have the same String hash code.
+        _Private_SymbolTextMap map = new _Private_SymbolTextMap(1);
+        assertTrue(map.add("Aa", 1));
+        assertTrue(map.add("BB", 2));
+        assertTrue(map.add("AaAa", 3));
+        assertTrue(map.add("BBBB", 4));
+        assertEquals(1, map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+        assertEquals(3, map.get("AaAa"));
+        assertEquals(4, map.get("BBBB"));
+        assertEquals(UNKNOWN_SYMBOL_ID, map.get("AaBB"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetNull()
+    {
+        new _Private_SymbolTextMap(1).get(null);
+    }
+}
@@ -29,6 +29,9 @@ import com.amazon.ion.IonSymbol;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.LocalSymbolTableStatistics;
+import com.amazon.ion.SymbolHandle;
+import com.amazon.ion.SymbolHandleWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.SystemSymbols;
@@ -374,4 +377,140 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
         bos.toByteArray();
 
     }
+
+    private static int sid(final SymbolHandle handle) {
+        return ((SymbolHandleImpl) handle).token.getSid();
+    }
+
+    @Test
+    public void testSymbolHandles() throws Exception {
+        final SymbolHandleWriter managed = writer.getDelegate().asFacet(SymbolHandleWriter.class);
+        final IonWriter out = writer.getDelegate();
+        final SymbolHandle event = managed.newSymbolHandle("event");
+        final SymbolHandle taco = managed.newSymbolHandle("taco");
+        final SymbolHandle name = managed.newSymbolHandle("name");
+        final SymbolHandle imported = managed.newSymbolHandle("b");
+
+        for (int i = 0; i < 2; i++) {
+            managed.addTypeAnnotationHandle(event);
+            out.stepIn(IonType.STRUCT);
+            managed.setFieldNameHandle(name);
+            managed.writeSymbolHandle(taco);
+            managed.setFieldNameHandle(taco);
+            managed.writeSymbolHandle(imported);
+            out.stepOut();
+            assertEquals(15, sid(event));
+            assertEquals(16, sid(taco));
+            assertEquals(SystemSymbols.NAME_SID, sid(name));
+            assertEquals(2, sid(imported) - SystemSymbols.ION_1_0_MAX_ID);
+            // resolved again in the new context
+            out.finish();
+        }
+        managed.writeSymbolHandle(taco);
+        assertEquals(15, sid(taco));
+        out.finish();
+
+        final IonDatagram dg = system().getLoader().load(writer.getBytes());
+        assertEquals(3, dg.size());
+        assertEquals(dg.get(0), dg.get(1));
+        assertEquals("event", dg.get(0).getTypeAnnotations()[0]);
+        assertEquals("taco", ((IonSymbol) ((IonStruct) dg.get(0)).get("name")).stringValue());
+        assertEquals("b", ((IonSymbol) ((IonStruct) dg.get(0)).get("taco")).stringValue());
+        assertEquals("taco", ((IonSymbol) dg.get(2)).stringValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSymbolHandleFromOtherWriter() throws Exception {
+        final SymbolHandleWriter other = _Private_IonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .newWriter(new ByteArrayOutputStream())
+            .asFacet(SymbolHandleWriter.class);
+        writer.getDelegate().asFacet(SymbolHandleWriter.class).writeSymbolHandle(other.newSymbolHandle("taco"));
+    }
+
+    @Test
+    public void testLocalSymbolTableRollover() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter rolling = _Private_IonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withLocalSymbolTableLimits(3, 0)
+            .newWriter(out);
+        final LocalSymbolTableStatistics managed = rolling.asFacet(LocalSymbolTableStatistics.class);
+
+        // a top-level value is never split across symbol tables
+        rolling.stepIn(IonType.STRUCT);
+        for (int i = 0; i < 5; i++) {
+            rolling.setFieldName("f" + i);
+            rolling.writeInt(i);
+        }
+        assertEquals(0, managed.getRolloverCount());
+        rolling.stepOut();
+        assertEquals(1, managed.getRolloverCount());
+        assertEquals(SystemSymbols.ION_1_0_MAX_ID, rolling.getSymbolTable().getMaxId());
+
+        rolling.writeSymbol("f0");
+        rolling.writeSymbol("a");
+        assertEquals(SystemSymbols.ION_1_0_MAX_ID + 2, rolling.getSymbolTable().getMaxId());
+        rolling.writeSymbol("b");
+        assertEquals(2, managed.getRolloverCount());
+        rolling.writeSymbol("c");
+        rolling.close();
+
+        assertEquals(system().getLoader().load("{f0:0, f1:1, f2:2, f3:3, f4:4} f0 a b c"),
+                     system().getLoader().load(out.toByteArray()));
+    }
+
+    @Test
+    public void testLocalSymbolTableByteLimit() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter rolling = _Private_IonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withLocalSymbolTableLimits(0, 16)
+            .newWriter(out);
+        rolling.writeSymbol("abcdefg");
+        rolling.writeSymbol("\u00e9t\u00e9");
+        assertEquals(0, rolling.asFacet(LocalSymbolTableStatistics.class).getRolloverCount());
+        rolling.writeSymbol("xyz");
+        assertEquals(1, rolling.asFacet(LocalSymbolTableStatistics.class).getRolloverCount());
+        rolling.writeSymbol("abcdefg");
+        rolling.close();
+
+        assertEquals(system().getLoader().load("abcdefg '\u00e9t\u00e9' xyz abcdefg"),
+                     system().getLoader().load(out.toByteArray()));
+    }
+
+    @Test
+    public void testImportContextsAreShared() throws Exception {
+        final List<SymbolTable> tables = new ArrayList<SymbolTable>();
+        for (int i = 0; i < 20; i++) {
+            tables.add(system().newSharedSymbolTable("shared_" + i, 1, asList("s" + i, "t" + i).iterator()));
+        }
+
+        final _Private_IonManagedBinaryWriterBuilder builder = _Private_IonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withImports(tables);
+        // imports used once are delegated to, and flattened once they're reused by a copy of the builder
+        assertEquals(ImportedSymbolResolverMode.DELEGATE, builder.imports.mode);
+        final _Private_IonManagedBinaryWriterBuilder other = builder.copy()
+            .withImports(new ArrayList<SymbolTable>(tables));
+        assertEquals(ImportedSymbolResolverMode.FLAT, other.imports.mode);
+        assertSame(other.imports, builder.copy().withImports(tables).imports);
+        assertEquals(SystemSymbols.ION_1_0_MAX_ID + 41, builder.imports.localSidStart);
+
+        // unrelated builders don't share contexts
+        assertNotSame(other.imports, _Private_IonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withImports(tables)
+            .imports);
+
+        assertEquals(ImportedSymbolResolverMode.FLAT,
+                     IonManagedBinaryWriter.ImportedSymbolContext.chooseMode(tables));
+        assertEquals(ImportedSymbolResolverMode.DELEGATE,
+                     IonManagedBinaryWriter.ImportedSymbolContext.chooseMode(tables.subList(0, 1)));
+
+        final IonWriter sharedWriter = other.newWriter(new ByteArrayOutputStream());
+        assertEquals(SystemSymbols.ION_1_0_MAX_ID + 3, sharedWriter.getSymbolTable().findSymbol("s1"));
+        assertEquals(SystemSymbols.ION_1_0_MAX_ID + 40, sharedWriter.getSymbolTable().findSymbol("t19"));
+        sharedWriter.close();
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledUtf8FastAppendableTest
+{
+    // XXX make this a prime to make it more likely that we collide on the edges of the buffer
+    private static final int BLOCK_SIZE = 11;
+
+    private ByteArrayOutputStream out;
+    private _Private_PooledUtf8FastAppendable appendable;
+
+    @Before
+    public void setup()
+    {
+        out = new ByteArrayOutputStream();
+        appendable = new _Private_PooledUtf8FastAppendable(
+            BlockAllocatorProviders.basicProvider(),
+            BLOCK_SIZE,
+            out
+        );
+    }
+
+    private void assertOutput(final String expected) throws IOException
+    {
+        appendable.flush();
+        assertArrayEquals(expected.getBytes("UTF-8"), out.toByteArray());
+    }
+
+    @Test
+    public void testAppendAsciiAcrossBlocks() throws IOException
+    {
+        final String text = "abcdefghijklmnopqrstuvwxyz0123456789";
+        appendable.appendAscii('[');
+        appendable.appendAscii(text);
+        appendable.appendAscii(CharBuffer.wrap(text), 3, 30);
+        appendable.appendAscii(']');
+        assertOutput("[" + text + text.substring(3, 30) + "]");
+    }
+
+    @Test
+    public void testAppendMixedWidthAcrossBlocks() throws IOException
+    {
+        final String text = "a\u00e9\u4e2d\ud83d\ude00z\u00ff\uffff\u0800\u07ff";
+        for (int i = 0; i < 7; i++)
+        {
+            appendable.append(text);
+            appendable.append(CharBuffer.wrap(text), 1, text.length() - 1);
+        }
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 7; i++)
+        {
+            expected.append(text).append(text, 1, text.length() - 1);
+        }
+        assertOutput(expected.toString());
+    }
+
+    @Test
+    public void testAppendUtf16() throws IOException
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            appendable.append('x');
+            appendable.appendUtf16('\u00e9');
+            appendable.appendUtf16('\u4e2d');
+            appendable.appendUtf16Surrogate('\ud83d', '\ude00');
+        }
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5; i++)
+        {
+            expected.append("x\u00e9\u4e2d\ud83d\ude00");
+        }
+        assertOutput(expected.toString());
+    }
+
+    private void assertUnmatchedSurrogate(final String text) throws IOException
+    {
+        try
+        {
+            appendable.append(text);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            assertTrue(e.getMessage().contains("unmatched"));
+        }
+    }
+
+    @Test
+    public void testAppendRejectsUnmatchedSurrogates() throws IOException
+    {
+        assertUnmatchedSurrogate("ab\ud83d");
+        assertUnmatchedSurrogate("\ud83dz");
+        assertUnmatchedSurrogate("\ude00");
+        assertUnmatchedSurrogate("\ude00\ud83d");
+        // the characters before the bad one are kept
+        assertOutput("ab");
+    }
+
+    @Test
+    public void testFlushOnlyWhenBlockFills() throws IOException
+    {
+        appendable.appendAscii("0123456789");
+        assertEquals(0, out.size());
+        appendable.appendAscii("ab");
+        assertEquals(BLOCK_SIZE, out.size());
+    }
+
+    @Test
+    public void testCloseReturnsBlockAndRejectsWrites() throws IOException
+    {
+        final ByteArrayOutputStream pooledOut = new ByteArrayOutputStream();
+        final BlockAllocator allocator = PooledBlockAllocatorProvider.getInstance().vendAllocator(13);
+        final _Private_PooledUtf8FastAppendable pooled = new _Private_PooledUtf8FastAppendable(
+            PooledBlockAllocatorProvider.getInstance(),
+            13,
+            pooledOut
+        );
+        pooled.appendAscii("hello");
+        pooled.close();
+        assertArrayEquals("hello".getBytes("UTF-8"), pooledOut.toByteArray());
+
+        // a second close must not return the block to the pool twice
+        pooled.close();
+        final Block first = allocator.allocateBlock();
+        final Block second = allocator.allocateBlock();
+        assertTrue(first.data != second.data);
+        assertEquals(13, first.data.length);
+
+        try
+        {
+            pooled.appendAscii('x');
+            fail("Expected IOException");
+        }
+        catch (final IOException e)
+        {
+            // expected
+        }
+        first.close();
+        second.close();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.ReadOnlyValueException;
+import com.amazon.ion.ReleasableDatagram;
+import com.amazon.ion.facet.Facets;
+import com.amazon.ion.impl._Private_IonSystem;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class ChildArrayRecyclingTest
+{
+    private static final IonSystem RECYCLING =
+        IonSystemBuilder.standard()
+                        .withChildArrayRecyclingEnabled(true)
+                        .build();
+
+    private static final String DOC =
+        "{id:1, tags:(a b c), items:{price:2.5, count:3}}";
+
+    private static IonValueLite[] children(Object container)
+    {
+        return ((IonContainerLite) container)._children;
+    }
+
+    private static void release(IonDatagram dg)
+    {
+        Facets.assumeFacet(ReleasableDatagram.class, dg).release();
+    }
+
+
+    @Test
+    public void testReleasedArraysAreReused()
+    {
+        IonDatagram first = RECYCLING.getLoader().load(DOC);
+        IonStruct struct = (IonStruct) first.get(0);
+        IonValueLite[] structChildren = children(struct);
+        IonValueLite[] sexpChildren = children(struct.get("tags"));
+
+        release(first);
+        assertEquals(0, first.size());
+        assertEquals(0, struct.size());
+        assertNull(children(struct));
+        assertNull(structChildren[0]);
+
+        IonDatagram second = RECYCLING.getLoader().load(DOC);
+        assertEquals(RECYCLING.getLoader().load(DOC), second);
+        IonStruct struct2 = (IonStruct) second.get(0);
+        assertTrue(children(struct2) == structChildren
+                   || children(struct2.get("tags")) == sexpChildren
+                   || children(struct2.get("items")) == sexpChildren);
+        assertEquals(RECYCLING.newInt(3),
+                     ((IonStruct) struct2.get("items")).get("count"));
+
+        // The released datagram can be reused too.
+        first.add(RECYCLING.newInt(5));
+        assertEquals(RECYCLING.getLoader().load("5"), first);
+    }
+
+    @Test
+    public void testReleaseWithoutRecycling()
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        IonDatagram dg = system.getLoader().load(DOC);
+        release(dg);
+        assertEquals(0, dg.size());
+    }
+
+    @Test(expected = ReadOnlyValueException.class)
+    public void testReadOnlyDatagramCantBeReleased()
+    {
+        IonDatagram dg = RECYCLING.getLoader().load(DOC);
+        dg.makeReadOnly();
+        release(dg);
+    }
+
+    @Test
+    public void testReadOnlyChildrenAreKept()
+    {
+        IonDatagram dg = RECYCLING.getLoader().load(DOC);
+        IonStruct struct = (IonStruct) dg.get(0);
+        IonStruct items = (IonStruct) struct.get("items");
+        items.makeReadOnly();
+        int hashCode = items.hashCode();
+        IonStruct clone = items.clone();
+
+        release(dg);
+        assertEquals(0, struct.size());
+        assertEquals(2, items.size());
+        assertEquals(hashCode, items.hashCode());
+        assertEquals(RECYCLING.singleValue("{price:2.5, count:3}"), clone);
+        assertEquals(items, clone);
+    }
+
+    @Test
+    public void testDiscardRecycledChildArrays()
+    {
+        IonDatagram dg = RECYCLING.getLoader().load(DOC);
+        IonValueLite[] structChildren = children(dg.get(0));
+        release(dg);
+
+        ((_Private_IonSystem) RECYCLING).discardRecycledChildArrays();
+        IonDatagram second = RECYCLING.getLoader().load(DOC);
+        assertNotSame(structChildren, children(second.get(0)));
+    }
+
+    @Test
+    public void testArena()
+    {
+        ChildArrayArena arena = new ChildArrayArena();
+        IonValueLite[] array = arena.allocate(4);
+        arena.recycle(array);
+        assertSame(array, arena.allocate(4));
+        assertNotSame(array, arena.allocate(4));
+
+        IonValueLite[] large =
+            new IonValueLite[ChildArrayArena.MAX_RECYCLED_LENGTH + 1];
+        arena.recycle(large);
+        assertNotSame(large, arena.allocate(large.length));
+
+        IonValueLite[][] arrays = new IonValueLite[100][];
+        for (int i = 0; i < arrays.length; i++)
+        {
+            arrays[i] = new IonValueLite[8];
+            arena.recycle(arrays[i]);
+        }
+        for (int i = arrays.length - 1; i >= 0; i--)
+        {
+            assertSame(arrays[i], arena.allocate(8));
+        }
+        assertEquals(Arrays.asList(new IonValueLite[8]),
+                     Arrays.asList(arena.allocate(8)));
+        assertEquals(0, arena.getFreeSlots());
+    }
+
+    @Test
+    public void testArenaIsBounded()
+    {
+        ChildArrayArena arena = new ChildArrayArena();
+        int length = ChildArrayArena.MAX_RECYCLED_LENGTH;
+        for (int i = 0; i < 2 * ChildArrayArena.MAX_RECYCLED_SLOTS / length; i++)
+        {
+            arena.recycle(new IonValueLite[length]);
+            arena.recycle(new IonValueLite[1]);
+        }
+        assertTrue(arena.getFreeSlots() <= ChildArrayArena.MAX_RECYCLED_SLOTS);
+        assertTrue(arena.getFreeSlots() > ChildArrayArena.MAX_RECYCLED_SLOTS - length);
+    }
+}
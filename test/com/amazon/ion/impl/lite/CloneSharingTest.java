@@ -0,0 +1,144 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.IOException;
+import org.junit.Test;
+
+public class CloneSharingTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String TEMPLATE =
+        "{service:{name:\"orders\", hosts:[a, b, c]}," +
+        " limits:{rate:10, burst:[1, 2, 3]}," +
+        " tags:ann::(x y z)}";
+
+    private static boolean isLazy(IonValue value)
+    {
+        return ((IonContainerLite) value).isLazy();
+    }
+
+    private static IonStruct template()
+    {
+        IonStruct template = (IonStruct) SYSTEM.singleValue(TEMPLATE);
+        template.makeReadOnly();
+        return template;
+    }
+
+
+    @Test
+    public void testCloneOfReadOnlyIsCopiedOnAccess()
+    {
+        IonStruct template = template();
+        IonStruct copy = template.clone();
+
+        assertFalse(copy.isReadOnly());
+        assertTrue(isLazy(copy));
+
+        IonStruct limits = (IonStruct) copy.get("limits");
+        assertFalse(isLazy(copy));
+        assertTrue(isLazy(copy.get("service")));
+        assertTrue(isLazy(limits));
+        assertNotSame(template.get("limits"), limits);
+        assertFalse(limits.isReadOnly());
+
+        limits.put("rate", SYSTEM.newInt(20));
+        assertTrue(isLazy(copy.get("service")));
+        assertTrue(isLazy(limits.get("burst")));
+
+        IonStruct expected = (IonStruct) SYSTEM.singleValue(TEMPLATE);
+        assertEquals(expected, template);
+        ((IonStruct) expected.get("limits")).put("rate", SYSTEM.newInt(20));
+        assertEquals(expected, copy);
+        assertEquals(expected.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    public void testCloneOfUntouchedCloneSharesOriginal()
+    {
+        IonStruct template = template();
+        IonStruct copy = template.clone();
+        IonStruct copyOfCopy = copy.clone();
+        assertTrue(isLazy(copy));
+        assertTrue(isLazy(copyOfCopy));
+
+        ((IonList) ((IonStruct) copy.get("service")).get("hosts")).add(SYSTEM.newSymbol("d"));
+        ((IonStruct) copyOfCopy.get("service")).remove("hosts");
+
+        assertEquals(template, SYSTEM.singleValue(TEMPLATE));
+        assertEquals(SYSTEM.singleValue("[a, b, c, d]"),
+                     ((IonStruct) copy.get("service")).get("hosts"));
+        assertEquals(1, ((IonStruct) copyOfCopy.get("service")).size());
+    }
+
+    @Test
+    public void testMutableValuesAreCopiedEagerly()
+    {
+        IonStruct original = (IonStruct) SYSTEM.singleValue(TEMPLATE);
+        IonStruct copy = original.clone();
+        assertFalse(isLazy(copy));
+
+        ((IonStruct) original.get("limits")).put("rate", SYSTEM.newInt(20));
+        assertEquals(SYSTEM.singleValue(TEMPLATE), copy);
+    }
+
+    @Test
+    public void testWriteWithoutCopying()
+        throws IOException
+    {
+        IonStruct copy = template().clone();
+        copy.setTypeAnnotations("changed");
+        IonValue service = copy.get("service");
+
+        StringBuilder text = new StringBuilder();
+        IonWriter writer = SYSTEM.newTextWriter(text);
+        copy.writeTo(writer);
+        writer.close();
+        assertTrue(isLazy(service));
+
+        IonStruct expected = (IonStruct) SYSTEM.singleValue(TEMPLATE);
+        expected.setTypeAnnotations("changed");
+        assertEquals(expected, SYSTEM.singleValue(text.toString()));
+    }
+
+    @Test
+    public void testCloneOfReadOnlyDatagram()
+    {
+        IonDatagram dg = SYSTEM.getLoader().load(TEMPLATE + " [1, 2]");
+        dg.makeReadOnly();
+
+        IonDatagram copy = dg.clone();
+        assertTrue(isLazy(copy.get(0)));
+        assertTrue(isLazy(copy.get(1)));
+        ((IonList) copy.get(1)).add(SYSTEM.newInt(3));
+
+        assertEquals(SYSTEM.getLoader().load(TEMPLATE + " [1, 2]"), dg);
+        assertEquals(SYSTEM.getLoader().load(TEMPLATE + " [1, 2, 3]"), copy);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonSexp;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Test;
+
+public class ContainerCapacityTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static byte[] binary(IonValue value)
+    {
+        return SYSTEM.newDatagram(value).getBytes();
+    }
+
+    private static int capacity(IonValue container)
+    {
+        IonValueLite[] children = ((IonContainerLite) container)._children;
+        return (children == null) ? 0 : children.length;
+    }
+
+    @Test
+    public void testUniformSexpIsSizedFromFirstChild()
+    {
+        IonSexp list = SYSTEM.newEmptySexp();
+        for (int i = 1000; i < 2000; i++)
+        {
+            list.add(SYSTEM.newInt(i));
+        }
+
+        IonSexp loaded = (IonSexp) SYSTEM.singleValue(binary(list));
+        assertEquals(list, loaded);
+        assertTrue(capacity(loaded) >= 1000);
+        assertTrue(capacity(loaded) <= 1000 + 1000 / 8);
+    }
+
+    @Test
+    public void testOverestimateIsTrimmed()
+    {
+        IonList list = SYSTEM.newEmptyList();
+        list.add(SYSTEM.newInt(0));
+        for (int i = 0; i < 10; i++)
+        {
+            list.add(SYSTEM.newString("a fairly long string value " + i));
+        }
+
+        IonList loaded = (IonList) SYSTEM.singleValue(binary(list));
+        assertEquals(list, loaded);
+        assertEquals(11, capacity(loaded));
+    }
+
+    @Test
+    public void testLargeStructIsIndexed()
+    {
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        for (int i = 0; i < 100; i++)
+        {
+            struct.add("f" + i, SYSTEM.newInt(i));
+        }
+
+        IonStruct loaded = (IonStruct) SYSTEM.singleValue(binary(struct));
+        assertEquals(struct, loaded);
+        assertTrue(capacity(loaded) >= 100);
+        assertEquals(SYSTEM.newInt(42), loaded.get("f42"));
+
+        loaded.put("f42", SYSTEM.newInt(-1));
+        loaded.add("f0", SYSTEM.newInt(-2));
+        assertEquals(101, loaded.size());
+        assertEquals(SYSTEM.newInt(-1), loaded.get("f42"));
+    }
+
+    @Test
+    public void testTextIsNotSized()
+    {
+        IonList loaded = (IonList) SYSTEM.singleValue("[a, b, c, d, e]");
+        assertEquals(8, capacity(loaded));
+    }
+
+    @Test
+    public void testLargeFieldDoesNotInflateIndex()
+    {
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        struct.add("a", SYSTEM.newBool(true));
+        struct.add("b", SYSTEM.newBlob(new byte[2 * 1024 * 1024]));
+
+        IonStructLite loaded = (IonStructLite) SYSTEM.singleValue(binary(struct));
+        assertEquals(struct, loaded);
+        assertEquals(2, capacity(loaded));
+        assertEquals(0, loaded.fieldIndexSlotCount());
+
+        // The index is built at the usual size once the struct grows.
+        for (int i = 0; i < 10; i++)
+        {
+            loaded.add("f" + i, SYSTEM.newInt(i));
+        }
+        assertTrue(loaded.fieldIndexSlotCount() <= 64);
+        assertEquals(SYSTEM.newInt(7), loaded.get("f7"));
+        assertEquals(null, loaded.validate());
+    }
+
+    @Test
+    public void testLoadedStructIndexIsSizedFromChildren()
+    {
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        for (int i = 0; i < 100; i++)
+        {
+            struct.add("f" + i, SYSTEM.newInt(i));
+        }
+        struct.add("big", SYSTEM.newBlob(new byte[1024 * 1024]));
+
+        IonStructLite loaded = (IonStructLite) SYSTEM.singleValue(binary(struct));
+        assertEquals(struct, loaded);
+        assertEquals(101, capacity(loaded));
+        assertTrue(loaded.fieldIndexSlotCount() > 0);
+        assertTrue(loaded.fieldIndexSlotCount() <= 512);
+        assertEquals(SYSTEM.newInt(42), loaded.get("f42"));
+        assertEquals(null, loaded.validate());
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonContainer;
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Test;
+
+public class LazyMaterializationTest
+{
+    private static final IonSystem EAGER = IonSystemBuilder.standard().build();
+
+    private static final IonSystem LAZY =
+        IonSystemBuilder.standard()
+                        .withLazyMaterializationEnabled(true)
+                        .withStreamCopyOptimized(true)
+                        .build();
+
+    private static final String DATA =
+        "{name:\"one\", tags:[a, b::c, \"d\"], nested:{deeper:(x 1 2.0 3e0)}}\n" +
+        "ann::[1, {f:sym}, null.list, []]\n" +
+        "{a:1,b:2,c:3,d:4,e:5,f:6,g:[7]}\n" +
+        "{wrapper:$ion_symbol_table::{symbols:[\"not_a_symbol_table\"]}}\n" +
+        "2019-01-01T\n";
+
+    private static byte[] binary(String text)
+    {
+        return EAGER.getLoader().load(text).getBytes();
+    }
+
+    private static boolean isLazy(IonValue value)
+    {
+        return ((IonContainerLite) value).isLazy();
+    }
+
+    private static void assertFullyMaterialized(IonValue value)
+    {
+        if (value instanceof IonContainer)
+        {
+            assertFalse(isLazy(value));
+            for (IonValue child : (IonContainer) value)
+            {
+                assertFullyMaterialized(child);
+            }
+        }
+    }
+
+
+    @Test
+    public void testLoadMatchesEagerLoad()
+    {
+        byte[] data = binary(DATA);
+
+        IonDatagram expected = EAGER.getLoader().load(data);
+        IonDatagram actual = LAZY.getLoader().load(data);
+
+        assertTrue(isLazy(actual.get(0)));
+        assertEquals(expected, actual);
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    @Test
+    public void testLoadWithSeveralSymbolTables()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(binary("{first:[a, b]}"));
+        out.write(binary("{second:[c, d]} third::{e:f}"));
+        byte[] data = out.toByteArray();
+
+        IonDatagram expected = EAGER.getLoader().load(data);
+        IonDatagram actual = LAZY.getLoader().load(data);
+        assertEquals(expected, actual);
+        assertArrayEquals(expected.getBytes(), actual.getBytes());
+    }
+
+    @Test
+    public void testChildrenDecodedOnFirstAccess()
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+
+        IonStruct first = (IonStruct) dg.get(0);
+        assertTrue(isLazy(first));
+
+        IonStruct nested = (IonStruct) first.get("nested");
+        assertFalse(isLazy(first));
+        assertTrue(isLazy(nested));
+        assertTrue(isLazy(first.get("tags")));
+
+        assertEquals(EAGER.singleValue("(x 1 2.0 3e0)"), nested.get("deeper"));
+        assertFalse(isLazy(nested));
+        assertTrue(isLazy(first.get("tags")));
+
+        // Containers that look like symbol tables are never left undecoded.
+        IonStruct wrapper = (IonStruct) dg.get(3);
+        IonValue symtab = wrapper.get("wrapper");
+        assertFalse(isLazy(symtab));
+        assertEquals(EAGER.getLoader().load(DATA).get(3), wrapper);
+        assertEquals(1, ((IonStruct) symtab).size());
+    }
+
+    @Test
+    public void testMutation()
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+
+        IonStruct first = (IonStruct) dg.get(0);
+        first.put("added", LAZY.newInt(5));
+        assertEquals(4, first.size());
+        assertEquals(LAZY.newInt(5), first.get("added"));
+
+        IonList ann = (IonList) dg.get(1);
+        ann.clear();
+        assertFalse(isLazy(ann));
+        assertEquals(0, ann.size());
+        assertEquals("ann::[]", ann.toString());
+
+        IonStruct third = (IonStruct) dg.get(2);
+        third.remove("g");
+        assertEquals(6, third.size());
+
+        IonDatagram reloaded = EAGER.getLoader().load(dg.getBytes());
+        assertEquals(dg, reloaded);
+    }
+
+    @Test
+    public void testCloneAndMakeReadOnly()
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+        IonValue first = dg.get(0);
+
+        IonValue copy = first.clone();
+        assertEquals(first, copy);
+
+        dg.makeReadOnly();
+        assertFullyMaterialized(dg);
+        assertEquals(EAGER.getLoader().load(DATA), dg);
+    }
+
+    @Test
+    public void testIterateAndSingleValue()
+    {
+        byte[] data = binary(DATA);
+
+        Iterator<IonValue> expected = EAGER.iterate(data);
+        Iterator<IonValue> actual = LAZY.iterate(data);
+        while (expected.hasNext())
+        {
+            IonValue value = actual.next();
+            if (value instanceof IonContainer)
+            {
+                assertTrue(isLazy(value));
+            }
+            assertEquals(expected.next(), value);
+        }
+        assertFalse(actual.hasNext());
+
+        IonValue single = LAZY.singleValue(binary("{a:[1,2,3]}"));
+        assertTrue(isLazy(single));
+        assertEquals(EAGER.singleValue("{a:[1,2,3]}"), single);
+    }
+
+    @Test
+    public void testTextIsLoadedEagerly()
+    {
+        IonDatagram dg = LAZY.getLoader().load(DATA.getBytes());
+        assertFalse(isLazy(dg.get(0)));
+        assertEquals(EAGER.getLoader().load(DATA), dg);
+    }
+
+    @Test
+    public void testWriteWithoutMaterializing()
+        throws IOException
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+        IonStruct first = (IonStruct) dg.get(0);
+        first.setTypeAnnotations("changed");
+
+        StringBuilder text = new StringBuilder();
+        IonWriter writer = LAZY.newTextWriter(text);
+        dg.writeTo(writer);
+        writer.close();
+
+        assertTrue(isLazy(first));
+        assertTrue(isLazy(dg.get(1)));
+        IonDatagram expected = EAGER.getLoader().load(DATA);
+        expected.get(0).setTypeAnnotations("changed");
+        assertEquals(expected, EAGER.getLoader().load(text.toString()));
+    }
+
+    @Test
+    public void testUntouchedContainerBytesAreCopied()
+        throws IOException
+    {
+        // A list holding the int 1, with a needlessly long length field.
+        byte[] list = { (byte) 0xBE, (byte) 0x82, 0x21, 0x01 };
+        byte[] data = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+                        list[0], list[1], list[2], list[3] };
+
+        IonDatagram dg = LAZY.getLoader().load(data);
+        assertTrue(isLazy(dg.get(0)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = LAZY.newBinaryWriter(out);
+        dg.writeTo(writer);
+        writer.close();
+
+        byte[] written = out.toByteArray();
+        assertTrue(isLazy(dg.get(0)));
+        assertArrayEquals(list,
+                          Arrays.copyOfRange(written, written.length - 4,
+                                             written.length));
+
+        // Once decoded, the list is re-encoded normally.
+        assertEquals(1, ((IonList) dg.get(0)).size());
+        assertArrayEquals(new byte[] { (byte) 0xB2, 0x21, 0x01 },
+                          Arrays.copyOfRange(dg.getBytes(),
+                                             dg.getBytes().length - 3,
+                                             dg.getBytes().length));
+    }
+}
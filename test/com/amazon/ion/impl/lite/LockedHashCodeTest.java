@@ -0,0 +1,86 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.Equivalence;
+import org.junit.Test;
+
+public class LockedHashCodeTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static int cached(IonValue value)
+    {
+        return ((IonValueLite) value).cachedHashCode();
+    }
+
+    @Test
+    public void testHashCodeIsCachedOnceLocked()
+    {
+        IonStruct struct = (IonStruct) SYSTEM.singleValue("a::{x:[1, 2], y:(z)}");
+        int expected = struct.hashCode();
+        assertEquals(0, cached(struct));
+
+        struct.makeReadOnly();
+        assertEquals(0, cached(struct));
+        assertEquals(expected, struct.hashCode());
+        assertEquals(expected, cached(struct));
+
+        // Nested containers cached their own hash codes along the way.
+        IonValue list = struct.get("x");
+        assertEquals(list.hashCode(), cached(list));
+        assertEquals(0, cached(SYSTEM.singleValue("5")));
+    }
+
+    @Test
+    public void testMutableHashCodeIsNotCached()
+    {
+        IonList list = (IonList) SYSTEM.singleValue("[1, 2]");
+        int before = list.hashCode();
+        list.add(SYSTEM.newInt(3));
+        assertEquals(0, cached(list));
+        assertFalse(before == list.hashCode());
+        assertEquals(SYSTEM.singleValue("[1, 2, 3]").hashCode(), list.hashCode());
+    }
+
+    @Test
+    public void testEquivalenceWithCachedHashCodes()
+    {
+        IonValue v1 = SYSTEM.singleValue("{a:[1, 2.0, 3e0], b:x::c}");
+        IonValue v2 = SYSTEM.singleValue("{b:x::c, a:[1, 2.0, 3e0]}");
+        IonValue v3 = SYSTEM.singleValue("{a:[1, 2.0, 3e0], b:y::c}");
+        for (IonValue v : new IonValue[] { v1, v2, v3 })
+        {
+            v.makeReadOnly();
+            v.hashCode();
+        }
+
+        assertEquals(v1, v2);
+        assertFalse(v1.equals(v3));
+
+        // Hash codes don't reflect non-strict equivalence.
+        assertTrue(Equivalence.ionEqualsByContent(v1, v3));
+    }
+}
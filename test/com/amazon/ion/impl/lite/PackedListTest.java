@@ -0,0 +1,146 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonInt;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+public class PackedListTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String INTS =
+        "[0, 1, -2, 300, 9223372036854775807, -9223372036854775808, 6, 7, 8]";
+
+    private static boolean isPacked(IonValue value)
+    {
+        return ((IonContainerLite) value).isLazy();
+    }
+
+    private static IonValue load(String text)
+    {
+        IonValue value = SYSTEM.singleValue(text);
+        return SYSTEM.singleValue(SYSTEM.newDatagram(value).getBytes());
+    }
+
+
+    @Test
+    public void testIntsArePacked()
+    {
+        IonList list = (IonList) load(INTS);
+        assertTrue(isPacked(list));
+
+        assertEquals(9, list.size());
+        assertFalse(isPacked(list));
+        assertEquals(Long.MIN_VALUE, ((IonInt) list.get(5)).longValue());
+        assertEquals(SYSTEM.singleValue(INTS), list);
+
+        assertTrue(isPacked(SYSTEM.singleValue(INTS)));
+    }
+
+    @Test
+    public void testFloatsArePacked()
+    {
+        String floats = "[0e0, -0e0, 1.5e0, nan, +inf, -inf, 1e300, 2e0]";
+        IonList list = (IonList) load(floats);
+        assertTrue(isPacked(list));
+        assertEquals(SYSTEM.singleValue(floats), list);
+        assertEquals(SYSTEM.singleValue(floats).toString(), list.toString());
+    }
+
+    @Test
+    public void testListsThatCantBePacked()
+    {
+        String[] lists = {
+            "[0, 1, 2, 3, 4, 5, 6, 7, 8e0]",
+            "[0, 1, 2, 3, 4, 5, 6, 7, null.int]",
+            "[0, 1, 2, 3, 4, 5, 6, 7, a::8]",
+            "[0, 1, 2, 3, 4, 5, 6, 7, 9223372036854775808]",
+            "[0e0, 1e0, 2e0, 3e0, 4e0, 5e0, 6e0, 7e0, 8]",
+            "[0, 1, 2, 3, 4, 5, 6]",
+            "(0 1 2 3 4 5 6 7 8)",
+        };
+        for (String text : lists)
+        {
+            IonValue value = load(text);
+            assertFalse(text, isPacked(value));
+            assertEquals(text, SYSTEM.singleValue(text), value);
+        }
+    }
+
+    @Test
+    public void testMutation()
+    {
+        IonStruct struct = (IonStruct) load("{f:" + INTS + "}");
+        IonList list = (IonList) struct.get("f");
+        assertTrue(isPacked(list));
+
+        list.add(SYSTEM.newString("x"));
+        ((IonInt) list.get(0)).setValue(42);
+        assertEquals(SYSTEM.singleValue(
+                         "[42, 1, -2, 300, 9223372036854775807," +
+                         " -9223372036854775808, 6, 7, 8, \"x\"]"),
+                     list);
+    }
+
+    @Test
+    public void testCloneSharesPackedValues()
+    {
+        IonList list = (IonList) load(INTS);
+        IonList copy = list.clone();
+        assertTrue(isPacked(list));
+        assertTrue(isPacked(copy));
+
+        copy.remove(0);
+        assertEquals(8, copy.size());
+        assertEquals(9, list.size());
+    }
+
+    @Test
+    public void testWriteWithoutUnpacking()
+        throws IOException
+    {
+        IonStruct struct = (IonStruct) load("{f:ann::" + INTS + "}");
+        IonValue list = struct.get("f");
+
+        StringBuilder text = new StringBuilder();
+        IonWriter writer = SYSTEM.newTextWriter(text);
+        struct.writeTo(writer);
+        writer.close();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer = SYSTEM.newBinaryWriter(out);
+        struct.writeTo(writer);
+        writer.close();
+
+        assertTrue(isPacked(list));
+        IonValue expected = SYSTEM.singleValue("{f:ann::" + INTS + "}");
+        assertEquals(expected, SYSTEM.singleValue(text.toString()));
+        assertEquals(expected, SYSTEM.singleValue(out.toByteArray()));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Test;
+
+public class ReadOnlyCompactionTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static IonStruct struct(String... fieldNames)
+    {
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        for (int i = 0; i < fieldNames.length; i++)
+        {
+            // Distinct instances, as a text parser would produce.
+            struct.add(new String(fieldNames[i]), SYSTEM.newInt(i));
+        }
+        return struct;
+    }
+
+    @Test
+    public void testChildArraysAreTrimmed()
+    {
+        IonList list = SYSTEM.newEmptyList();
+        for (int i = 0; i < 5; i++)
+        {
+            list.add(SYSTEM.newInt(i));
+        }
+        IonList empty = SYSTEM.newEmptyList();
+        empty.add(SYSTEM.newInt(1));
+        empty.remove(0);
+        list.add(empty);
+
+        IonContainerLite lite = (IonContainerLite) list;
+        assertTrue(lite._children.length > lite._child_count);
+
+        list.makeReadOnly();
+        assertEquals(6, lite._children.length);
+        assertNull(((IonContainerLite) empty)._children);
+        assertEquals(SYSTEM.singleValue("[0,1,2,3,4,[]]"), list);
+    }
+
+    @Test
+    public void testFieldNamesAreShared()
+    {
+        IonStruct small = struct("name", "id");
+        IonStruct large = struct("a", "b", "c", "d", "e", "f", "name", "id");
+        IonList list = SYSTEM.newEmptyList();
+        list.add(small);
+        list.add(large);
+
+        assertNotSame(small.get("name").getFieldName(),
+                      large.get("name").getFieldName());
+
+        list.makeReadOnly();
+        assertSame(small.get("name").getFieldName(),
+                   large.get("name").getFieldName());
+        assertSame(small.get("id").getFieldName(),
+                   large.get("id").getFieldName());
+        assertEquals(7, ((IonValueLite) large.get("id"))._elementid());
+        assertEquals(SYSTEM.newInt(7), large.get(new String("id")));
+    }
+
+    @Test
+    public void testFieldNamesAreSharedAcrossDatagram()
+    {
+        IonDatagram dg = SYSTEM.newDatagram();
+        dg.add(struct("name"));
+        dg.add(struct("name"));
+
+        dg.makeReadOnly();
+        assertSame(((IonStruct) dg.get(0)).get("name").getFieldName(),
+                   ((IonStruct) dg.get(1)).get("name").getFieldName());
+    }
+
+    @Test
+    public void testLockedScalarFieldKeepsItsName()
+    {
+        IonStruct struct = struct("name");
+        String name = struct.get("name").getFieldName();
+
+        // A lone scalar has no other names to share with.
+        struct.get("name").makeReadOnly();
+        assertSame(name, struct.get("name").getFieldName());
+        assertTrue(struct.get("name").isReadOnly());
+    }
+
+    @Test
+    public void testAnnotationsAreTrimmed()
+    {
+        IonValue value = SYSTEM.newInt(1);
+        value.addTypeAnnotation("a");
+        value.addTypeAnnotation("b");
+        value.addTypeAnnotation("c");
+        value.removeTypeAnnotation("b");
+
+        IonValue unannotated = SYSTEM.newInt(2);
+        unannotated.addTypeAnnotation("x");
+        unannotated.clearTypeAnnotations();
+
+        value.makeReadOnly();
+        unannotated.makeReadOnly();
+        assertArrayEquals(new String[] { "a", "c" }, value.getTypeAnnotations());
+        assertEquals(0, unannotated.getTypeAnnotations().length);
+        assertEquals(SYSTEM.singleValue("a::c::1"), value);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class StructFieldIndexTest
+{
+    private static void assertSameMappings(Map<String, Integer> expected,
+                                           StructFieldIndex actual)
+    {
+        int used = 0;
+        for (int slot = 0; slot < actual.slotCount(); slot++)
+        {
+            if (actual.isUsed(slot))
+            {
+                used++;
+                assertEquals(expected.get(actual.keyAt(slot)),
+                             Integer.valueOf(actual.valueAt(slot)));
+            }
+        }
+        assertEquals(expected.size(), used);
+
+        for (Map.Entry<String, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue().intValue(), actual.get(e.getKey(), 0));
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap()
+    {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        StructFieldIndex actual = new StructFieldIndex(4);
+
+        for (int i = 0; i < 20000; i++)
+        {
+            // Few distinct keys, so entries collide, get replaced and get
+            // removed from the middle of probe sequences.
+            int k = random.nextInt(300);
+            String key = (k == 0) ? null : "k" + k;
+            if (random.nextInt(3) == 0)
+            {
+                expected.remove(key);
+                actual.remove(key, 0);
+            }
+            else
+            {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? -1 : previous.intValue(),
+                             actual.put(key, 0, i));
+            }
+            assertEquals(expected.containsKey(key) ? expected.get(key).intValue() : -1,
+                         actual.get(key, 0));
+        }
+        assertSameMappings(expected, actual);
+
+        StructFieldIndex copy = new StructFieldIndex(actual);
+        copy.put("new", 0, 1);
+        assertSameMappings(expected, actual);
+        expected.put("new", 1);
+        assertSameMappings(expected, copy);
+    }
+
+    @Test
+    public void testEqualKeysThatAreNotIdentical()
+    {
+        StructFieldIndex index = new StructFieldIndex(0);
+        index.put("name", 0, 3);
+        assertEquals(3, index.get(new String("name"), 0));
+        assertEquals(3, index.put(new String("name"), 0, 5));
+        assertEquals(5, index.get("name", 0));
+        index.remove(new String("name"), 0);
+        assertEquals(-1, index.get("name", 0));
+    }
+
+    @Test
+    public void testSidKeysMatchHashMap()
+    {
+        Random random = new Random(7);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        StructFieldIndex actual = new StructFieldIndex(4);
+        actual.put("text", 12, 0);
+
+        for (int i = 1; i < 20000; i++)
+        {
+            int sid = random.nextInt(300);
+            if (random.nextInt(3) == 0)
+            {
+                expected.remove(sid);
+                actual.remove(null, sid);
+            }
+            else
+            {
+                Integer previous = expected.put(sid, i);
+                assertEquals(previous == null ? -1 : previous.intValue(),
+                             actual.put(null, sid, i));
+            }
+            assertEquals(expected.containsKey(sid) ? expected.get(sid).intValue() : -1,
+                         actual.get(null, sid));
+        }
+
+        int used = 0;
+        for (int slot = 0; slot < actual.slotCount(); slot++)
+        {
+            if (actual.isUsed(slot) && actual.keyAt(slot) == null)
+            {
+                used++;
+                assertEquals(expected.get(actual.sidAt(slot)),
+                             Integer.valueOf(actual.valueAt(slot)));
+            }
+        }
+        assertEquals(expected.size(), used);
+
+        // Text keys are separate from symbol IDs.
+        assertEquals(0, actual.get("text", 12));
+        StructFieldIndex copy = new StructFieldIndex(actual);
+        copy.remove(null, 12);
+        assertEquals(expected.containsKey(12) ? expected.get(12).intValue() : -1,
+                     actual.get(null, 12));
+        assertEquals(-1, copy.get(null, 12));
+        assertEquals(0, copy.get("text", 12));
+    }
+}
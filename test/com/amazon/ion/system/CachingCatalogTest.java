@@ -0,0 +1,349 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachingCatalogTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    @Rule
+    public TemporaryFolder myFolder = new TemporaryFolder();
+
+    private static SymbolTable table(String name, int version)
+    {
+        StringBuilder text = new StringBuilder();
+        text.append("$ion_shared_symbol_table::{name:\"").append(name)
+            .append("\", version:").append(version).append(", symbols:[");
+        for (int i = 0; i < version; i++)
+        {
+            text.append('"').append(name).append(i).append("\",");
+        }
+        text.append("]}");
+        return SYSTEM.newSharedSymbolTable(SYSTEM.newReader(text.toString()));
+    }
+
+    /**
+     * Loads the versions of one table that are in {@code myVersions},
+     * recording calls.
+     */
+    private static final class CountingLoader
+        implements CachingCatalog.Loader
+    {
+        final List<String> myCalls = new ArrayList<String>();
+        final String myName;
+        final int[] myVersions;
+
+        CountingLoader(String name, int... versions)
+        {
+            myName = name;
+            myVersions = versions;
+        }
+
+        public synchronized SymbolTable loadTable(String name, int version)
+        {
+            myCalls.add(name + "@" + version);
+            if (! name.equals(myName)) return null;
+
+            List<Integer> available = new ArrayList<Integer>();
+            for (int v : myVersions)
+            {
+                if (v == version) return table(name, v);
+                available.add(v);
+            }
+            if (available.isEmpty()) return null;
+
+            int best = available.get(available.size() - 1);
+            if (version != 0)
+            {
+                best = SimpleCatalog.bestMatch(version, available);
+            }
+            return table(name, best);
+        }
+    }
+
+    private static int size(CachingCatalog catalog)
+    {
+        int size = 0;
+        for (Iterator<SymbolTable> i = catalog.iterator(); i.hasNext(); i.next())
+        {
+            size++;
+        }
+        return size;
+    }
+
+    @Test
+    public void testLoadsOnceAndCountsHits()
+    {
+        CountingLoader loader = new CountingLoader("T", 1, 2);
+        CachingCatalog catalog = new CachingCatalog(loader, 10);
+
+        SymbolTable t1 = catalog.getTable("T", 1);
+        assertEquals(1, t1.getVersion());
+        assertSame(t1, catalog.getTable("T", 1));
+        assertEquals(2, catalog.getTable("T").getVersion());
+        assertEquals(2, catalog.getTable("T", 5).getVersion());
+        assertNull(catalog.getTable("U", 1));
+        assertNull(catalog.getTable("U", 1));
+
+        assertEquals("[T@1, T@0, T@5, U@1, U@1]", loader.myCalls.toString());
+        assertEquals(1, catalog.getHitCount());
+        assertEquals(5, catalog.getMissCount());
+        assertEquals(5, catalog.getLoadCount());
+        assertTrue(catalog.getTotalLoadTime() > 0);
+        assertEquals(3, size(catalog));
+    }
+
+    @Test
+    public void testFailedLoadFailsAllWaiters()
+        throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        CachingCatalog.Loader loader = new CachingCatalog.Loader()
+        {
+            public SymbolTable loadTable(String name, int version)
+                throws IOException
+            {
+                if (calls.getAndIncrement() == 0)
+                {
+                    started.countDown();
+                    try
+                    {
+                        release.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new IOException(e.toString());
+                    }
+                    throw new IOException("transient");
+                }
+                return table(name, version);
+            }
+        };
+        final CachingCatalog catalog = new CachingCatalog(loader, 10);
+
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger nulls = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        if (catalog.getTable("T", 1) == null)
+                        {
+                            nulls.incrementAndGet();
+                        }
+                    }
+                    catch (IonException e)
+                    {
+                        assertTrue(e.getCause() instanceof IOException);
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            threads[i].start();
+            if (i == 0) started.await();
+        }
+        // Give the other threads time to wait on the load.
+        Thread.sleep(100);
+        release.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(0, nulls.get());
+        // Any thread arriving after the failure loads the table again.
+        assertEquals(threads.length, failures.get() + (calls.get() - 1));
+        assertTrue(failures.get() >= 1);
+
+        assertEquals(1, catalog.getTable("T", 1).getVersion());
+    }
+
+    @Test
+    public void testFailedLoadIsRetried()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        CachingCatalog catalog = new CachingCatalog(new CachingCatalog.Loader()
+        {
+            public SymbolTable loadTable(String name, int version)
+            {
+                if (calls.getAndIncrement() == 0)
+                {
+                    throw new IllegalStateException("transient");
+                }
+                return table(name, version);
+            }
+        }, 10);
+
+        try
+        {
+            catalog.getTable("T", 2);
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(2, catalog.getTable("T", 2).getVersion());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed()
+    {
+        CountingLoader loader = new CountingLoader("T", 1, 2, 3);
+        CachingCatalog catalog = new CachingCatalog(loader, 2);
+
+        SymbolTable t1 = catalog.getTable("T", 1);
+        catalog.getTable("T", 2);
+        assertSame(t1, catalog.getTable("T", 1));
+        catalog.getTable("T", 3);
+
+        assertEquals(1, catalog.getEvictionCount());
+        assertSame(t1, catalog.getTable("T", 1));
+        assertEquals(2, catalog.getTable("T", 2).getVersion());
+        assertEquals("[T@1, T@2, T@3, T@2]", loader.myCalls.toString());
+        assertEquals(2, size(catalog));
+    }
+
+    @Test
+    public void testPutTablesAreKept()
+    {
+        CachingCatalog catalog = new CachingCatalog(new CountingLoader("P", 1), 1);
+        SymbolTable put = table("P", 3);
+        catalog.putTable(put);
+
+        catalog.getTable("P", 1);
+        catalog.getTable("P", 4);
+        assertEquals(1, catalog.getEvictionCount());
+        assertSame(put, catalog.getTable("P", 3));
+        assertSame(put, catalog.getTable("P"));
+
+        // The loader has only version 1, so the put table is the best match.
+        assertSame(put, catalog.getTable("P", 2));
+
+        assertSame(put, catalog.removeTable("P", 3));
+        assertEquals(1, catalog.getTable("P", 3).getVersion());
+    }
+
+    @Test
+    public void testWithoutLoader()
+    {
+        CachingCatalog catalog = new CachingCatalog(null, 1);
+        assertNull(catalog.getTable("T"));
+        SymbolTable t2 = table("T", 2);
+        catalog.putTable(t2);
+        assertSame(t2, catalog.getTable("T", 1));
+        assertSame(t2, catalog.getTable("T"));
+        assertEquals(1, catalog.getHitCount());
+        assertEquals(2, catalog.getMissCount());
+        assertEquals(0, catalog.getLoadCount());
+    }
+
+    private void write(File file, SymbolTable table)
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            IonWriter writer = SYSTEM.newBinaryWriter(out);
+            table.writeTo(writer);
+            writer.close();
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    @Test
+    public void testDirectoryLoader()
+        throws IOException
+    {
+        File root = myFolder.getRoot();
+        write(new File(root, "T.1.ion"), table("T", 1));
+        write(new File(root, "T.3.ion"), table("T", 3));
+        write(new File(root, "com/example/U.2.ion"), table("com/example/U", 2));
+        new File(root, "T.notes.ion").createNewFile();
+
+        CachingCatalog catalog =
+            new CachingCatalog(CachingCatalog.directoryLoader(root), 10);
+        assertEquals(3, catalog.getTable("T").getVersion());
+        assertEquals(1, catalog.getTable("T", 1).getVersion());
+        assertEquals(3, catalog.getTable("T", 2).getVersion());
+        assertEquals("T2", catalog.getTable("T", 3).findKnownSymbol(3));
+        assertEquals(2, catalog.getTable("com/example/U", 1).getVersion());
+        assertNull(catalog.getTable("V"));
+        assertNull(catalog.getTable("com/other/V", 1));
+
+        // Readers resolve imports through the catalog.
+        IonSystem system = IonSystemBuilder.standard().withCatalog(catalog).build();
+        assertSame(catalog.getTable("T", 3), system.getCatalog().getTable("T", 3));
+    }
+
+    @Test
+    public void testDirectoryLoaderStaysInDirectory()
+        throws IOException
+    {
+        File root = myFolder.newFolder("tables");
+        File outside = myFolder.getRoot();
+        write(new File(outside, "x.1.ion"), table("../x", 1));
+        write(new File(outside, "y.1.ion"), table("tables/../../y", 1));
+        write(new File(root, "z.1.ion"), table("./z", 1));
+        write(new File(root, "sub/w.1.ion"), table("sub/w", 1));
+
+        CachingCatalog catalog =
+            new CachingCatalog(CachingCatalog.directoryLoader(root), 10);
+        assertNull(catalog.getTable("../x", 1));
+        assertNull(catalog.getTable("../x"));
+        assertNull(catalog.getTable("tables/../../y", 1));
+        assertNull(catalog.getTable("./z", 1));
+        assertNull(catalog.getTable(new File(outside, "x").getPath(), 1));
+        assertNull(catalog.getTable("sub//w", 1));
+        assertNull(catalog.getTable("sub\\w", 1));
+        assertEquals(1, catalog.getTable("sub/w", 1).getVersion());
+    }
+}
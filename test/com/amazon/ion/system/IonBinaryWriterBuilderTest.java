@@ -26,6 +26,10 @@ import static org.junit.Assert.fail;
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.IonType;
+import com.amazon.ion.LocalSymbolTableStatistics;
+import com.amazon.ion.SymbolHandle;
+import com.amazon.ion.SymbolHandleWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl.Symtabs;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
@@ -387,4 +391,72 @@ public class IonBinaryWriterBuilderTest
         b.setImports(new SymbolTable[0]);
         assertArrayEquals(new SymbolTable[0], b.getImports());
     }
+
+
+    //-------------------------------------------------------------------------
+
+    @Test
+    public void testLocalSymbolTableLimits()
+        throws IOException
+    {
+        IonBinaryWriterBuilder b =
+            IonBinaryWriterBuilder.standard().withLocalSymbolTableLimits(2, 0);
+        assertEquals(2, b.getLocalSymbolTableMaxSymbols());
+        assertEquals(0, b.getLocalSymbolTableMaxBytes());
+        assertEquals(2, b.immutable().getLocalSymbolTableMaxSymbols());
+        assertEquals(0, IonBinaryWriterBuilder.standard().getLocalSymbolTableMaxSymbols());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = b.build(out);
+        for (int i = 0; i < 5; i++)
+        {
+            writer.writeSymbol("s" + i);
+        }
+        LocalSymbolTableStatistics statistics =
+            writer.asFacet(LocalSymbolTableStatistics.class);
+        assertEquals(2, statistics.getRolloverCount());
+        writer.close();
+
+        IonSystem system = IonSystemBuilder.standard().build();
+        assertEquals(system.getLoader().load("s0 s1 s2 s3 s4"),
+                     system.getLoader().load(out.toByteArray()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLocalSymbolTableLimitsImmutability()
+    {
+        IonBinaryWriterBuilder.standard().immutable().setLocalSymbolTableLimits(1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLocalSymbolTableLimits()
+    {
+        IonBinaryWriterBuilder.standard().withLocalSymbolTableLimits(0, -1);
+    }
+
+    @Test
+    public void testSymbolHandles()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        SymbolHandleWriter handles = writer.asFacet(SymbolHandleWriter.class);
+        SymbolHandle event = handles.newSymbolHandle("event");
+        SymbolHandle id = handles.newSymbolHandle("id");
+        assertEquals("event", event.getText());
+
+        for (int i = 0; i < 3; i++)
+        {
+            handles.addTypeAnnotationHandle(event);
+            writer.stepIn(IonType.STRUCT);
+            handles.setFieldNameHandle(id);
+            handles.writeSymbolHandle(event);
+            writer.stepOut();
+        }
+        writer.close();
+
+        IonSystem system = IonSystemBuilder.standard().build();
+        assertEquals(system.getLoader().load("event::{id:event} event::{id:event} event::{id:event}"),
+                     system.getLoader().load(out.toByteArray()));
+    }
 }
@@ -23,7 +23,10 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
 import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonText;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.impl._Private_IonWriter;
 import java.io.ByteArrayOutputStream;
@@ -134,6 +137,33 @@ public class IonSystemBuilderTest
     }
 
 
+    @Test
+    public void testStringInterner()
+    {
+        StringInterner interner = new StringInterner(64);
+        IonSystemBuilder b = IonSystemBuilder.standard().copy();
+        assertEquals(null, b.getStringInterner());
+        b.setStringInterner(interner);
+        assertSame(interner, b.getStringInterner());
+        assertSame(interner, b.copy().getStringInterner());
+
+        IonSystem ion = b.build();
+        IonDatagram dg = ion.getLoader().load("\"USD\" USD [\"USD\", USD]");
+        IonList list = (IonList) dg.get(2);
+        String text = ((IonText) dg.get(0)).stringValue();
+        assertSame(text, ((IonText) dg.get(1)).stringValue());
+        assertSame(text, ((IonText) list.get(0)).stringValue());
+        assertSame(text, ((IonText) list.get(1)).stringValue());
+        assertEquals(3, interner.getHitCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStringInternerLockCheck()
+    {
+        IonSystemBuilder.standard().setStringInterner(new StringInterner(1));
+    }
+
+
     //-------------------------------------------------------------------------
 
     @Test
@@ -434,4 +434,22 @@ public class IonTextWriterBuilderTest
         assertEquals(99, b2.getLongStringThreshold());
         b2.setLongStringThreshold(80);
     }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCompactContainerWidthImmutability()
+    {
+        IonTextWriterBuilder b = IonTextWriterBuilder.pretty();
+        b.setCompactContainerWidth(40);
+
+        IonTextWriterBuilder b2 = b.immutable();
+        assertEquals(40, b2.getCompactContainerWidth());
+        assertEquals(40, b2.copy().getCompactContainerWidth());
+        b2.setCompactContainerWidth(80);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCompactContainerWidth()
+    {
+        IonTextWriterBuilder.pretty().withCompactContainerWidth(-1);
+    }
 }
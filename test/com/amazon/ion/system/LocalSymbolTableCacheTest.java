@@ -0,0 +1,160 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+public class LocalSymbolTableCacheTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static byte[] message(String text)
+    {
+        return SYSTEM.getLoader().load(text).getBytes();
+    }
+
+    /**
+     * Reads the single struct in a message, checking its field.
+     */
+    private static SymbolTable readMessage(IonReaderBuilder builder,
+                                           byte[] message,
+                                           String field,
+                                           String value)
+    {
+        IonReader reader = builder.build(message);
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals(field, reader.getFieldName());
+        assertEquals(value, reader.stringValue());
+        reader.stepOut();
+        assertNull(reader.next());
+        return reader.getSymbolTable();
+    }
+
+    @Test
+    public void testReadersShareTables()
+    {
+        LocalSymbolTableCache cache = new LocalSymbolTableCache(10);
+        IonReaderBuilder builder =
+            IonReaderBuilder.standard().withSymbolTableCache(cache);
+        byte[] message = message("{first:one}");
+
+        SymbolTable symtab = readMessage(builder, message, "first", "one");
+        assertTrue(symtab.isReadOnly());
+        assertSame(symtab, readMessage(builder, message, "first", "one"));
+        assertSame(symtab, readMessage(builder, message("{first:one}"), "first", "one"));
+
+        SymbolTable other = readMessage(builder, message("{second:two}"), "second", "two");
+        assertNotSame(symtab, other);
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        // Without the cache, each reader builds its own.
+        IonReaderBuilder plain = IonReaderBuilder.standard();
+        assertNotSame(readMessage(plain, message, "first", "one"),
+                      readMessage(plain, message, "first", "one"));
+    }
+
+    @Test
+    public void testAppendToCachedTable()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard()
+                                                 .withLocalSymbolTableAppendEnabled()
+                                                 .build(out);
+        writer.writeSymbol("a");
+        writer.flush();
+        writer.writeSymbol("b");
+        writer.close();
+        byte[] message = out.toByteArray();
+
+        LocalSymbolTableCache cache = new LocalSymbolTableCache(10);
+        IonReaderBuilder builder =
+            IonReaderBuilder.standard().withSymbolTableCache(cache);
+        for (int i = 0; i < 3; i++)
+        {
+            IonReader reader = builder.build(message);
+            assertEquals(IonType.SYMBOL, reader.next());
+            assertEquals("a", reader.stringValue());
+            SymbolTable first = reader.getSymbolTable();
+            assertEquals(IonType.SYMBOL, reader.next());
+            assertEquals("b", reader.stringValue());
+            assertNotSame(first, reader.getSymbolTable());
+            assertEquals("a", reader.getSymbolTable().findKnownSymbol(10));
+        }
+        assertEquals(4, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testFillingEmptiesCache()
+    {
+        LocalSymbolTableCache cache = new LocalSymbolTableCache(1);
+        IonReaderBuilder builder =
+            IonReaderBuilder.standard().withSymbolTableCache(cache);
+        readMessage(builder, message("{a:b}"), "a", "b");
+        readMessage(builder, message("{c:d}"), "c", "d");
+        readMessage(builder, message("{a:b}"), "a", "b");
+        assertEquals(0, cache.getHitCount());
+        readMessage(builder, message("{a:b}"), "a", "b");
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testStreamsAndTextAreNotCached()
+    {
+        LocalSymbolTableCache cache = new LocalSymbolTableCache(10);
+        IonReaderBuilder builder =
+            IonReaderBuilder.standard().withSymbolTableCache(cache);
+        byte[] message = message("{a:b}");
+        for (int i = 0; i < 2; i++)
+        {
+            IonReader reader = builder.build(new ByteArrayInputStream(message));
+            assertEquals(IonType.STRUCT, reader.next());
+            reader = builder.build("$ion_symbol_table::{symbols:[\"x\"]} $10");
+            assertEquals("x", reader.next() == null ? null : reader.stringValue());
+        }
+        assertEquals(0, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    public void testBuilderProperty()
+    {
+        LocalSymbolTableCache cache = new LocalSymbolTableCache(10);
+        IonReaderBuilder builder = IonReaderBuilder.standard();
+        assertNull(builder.getSymbolTableCache());
+        builder.setSymbolTableCache(cache);
+        assertSame(cache, builder.immutable().getSymbolTableCache());
+        assertSame(cache, builder.copy().getSymbolTableCache());
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.ReadOnlyValueException;
+import com.amazon.ion.SymbolTable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Test;
+
+public class SnapshotCatalogTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static SymbolTable table(String name, int version, String symbols)
+    {
+        return SYSTEM.newSharedSymbolTable(SYSTEM.newReader(
+            "$ion_shared_symbol_table::{name:\"" + name + "\", version:"
+            + version + ", symbols:[" + symbols + "]}"));
+    }
+
+    private final SymbolTable myFruit1 = table("fruit", 1, "\"apple\", \"banana\"");
+    private final SymbolTable myFruit3 =
+        table("fruit", 3, "\"apple\", \"banana\", null, \"cherry\", \"apple\", \"\u00e9t\u00e9\"");
+    private final SymbolTable myColors = table("colors", 1, "\"red\", \"green\"");
+
+    private byte[] snapshot()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotCatalog.write(Arrays.asList(SYSTEM.getSystemSymbolTable(),
+                                            myFruit1, myFruit3, myColors),
+                              out);
+        return out.toByteArray();
+    }
+
+    private static void checkSameSymbols(SymbolTable expected, SymbolTable actual)
+    {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getMaxId(), actual.getMaxId());
+        assertTrue(actual.isSharedTable());
+        assertTrue(actual.isReadOnly());
+        assertFalse(actual.isSubstitute());
+
+        Iterator<String> names = actual.iterateDeclaredSymbolNames();
+        for (int sid = 1; sid <= expected.getMaxId(); sid++)
+        {
+            String text = expected.findKnownSymbol(sid);
+            assertEquals(text, actual.findKnownSymbol(sid));
+            assertEquals(text, names.next());
+            if (text != null)
+            {
+                assertEquals(expected.findSymbol(text), actual.findSymbol(text));
+                assertEquals(expected.find(text).getSid(), actual.find(text).getSid());
+                assertEquals(text, actual.intern(text).getText());
+            }
+        }
+        assertFalse(names.hasNext());
+        assertNull(actual.findKnownSymbol(expected.getMaxId() + 1));
+        assertEquals(UNKNOWN_SYMBOL_ID, actual.findSymbol("missing"));
+        assertNull(actual.find("missing"));
+    }
+
+    private void checkCatalog(SnapshotCatalog catalog)
+    {
+        assertEquals(3, catalog.size());
+        checkSameSymbols(myFruit1, catalog.getTable("fruit", 1));
+        checkSameSymbols(myFruit3, catalog.getTable("fruit", 3));
+        checkSameSymbols(myColors, catalog.getTable("colors", 1));
+
+        // Lookups without an exact match are like SimpleCatalog's.
+        assertEquals(3, catalog.getTable("fruit").getVersion());
+        assertEquals(3, catalog.getTable("fruit", 2).getVersion());
+        assertEquals(3, catalog.getTable("fruit", 7).getVersion());
+        assertNull(catalog.getTable("vegetables"));
+        assertNull(catalog.getTable("vegetables", 1));
+    }
+
+    @Test
+    public void testLoadFromBuffer()
+        throws IOException
+    {
+        checkCatalog(SnapshotCatalog.load(ByteBuffer.wrap(snapshot())));
+    }
+
+    @Test
+    public void testLoadFromStream()
+        throws IOException
+    {
+        checkCatalog(SnapshotCatalog.load(new ByteArrayInputStream(snapshot())));
+    }
+
+    @Test
+    public void testLoadFromFile()
+        throws IOException
+    {
+        File file = File.createTempFile("symbols", ".snapshot");
+        try
+        {
+            FileOutputStream out = new FileOutputStream(file);
+            try
+            {
+                out.write(snapshot());
+            }
+            finally
+            {
+                out.close();
+            }
+            checkCatalog(SnapshotCatalog.load(file));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testReadingImportingData()
+        throws IOException
+    {
+        SnapshotCatalog catalog = SnapshotCatalog.load(ByteBuffer.wrap(snapshot()));
+        IonSystem system = IonSystemBuilder.standard().withCatalog(catalog).build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = SYSTEM.newBinaryWriter(out, myFruit3, myColors);
+        writer.writeValues(SYSTEM.newReader("{cherry:red, '\u00e9t\u00e9':green}"));
+        writer.close();
+
+        IonDatagram dg = system.getLoader().load(out.toByteArray());
+        IonStruct struct = (IonStruct) dg.get(0);
+        assertEquals("red", struct.get("cherry").toString());
+        assertEquals("green", struct.get("\u00e9t\u00e9").toString());
+        assertSame(catalog.getTable("fruit", 3),
+                   struct.getSymbolTable().getImportedTables()[0]);
+    }
+
+    @Test
+    public void testWriteTo()
+        throws IOException
+    {
+        SnapshotCatalog catalog = SnapshotCatalog.load(ByteBuffer.wrap(snapshot()));
+        StringBuilder text = new StringBuilder();
+        IonWriter writer = SYSTEM.newTextWriter(text);
+        catalog.getTable("fruit", 3).writeTo(writer);
+        writer.close();
+
+        checkSameSymbols(myFruit3, SYSTEM.newSharedSymbolTable(
+            SYSTEM.newReader(text.toString())));
+    }
+
+    @Test(expected = ReadOnlyValueException.class)
+    public void testInternNewSymbol()
+        throws IOException
+    {
+        SnapshotCatalog.load(ByteBuffer.wrap(snapshot())).getTable("colors").intern("blue");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateTables()
+        throws IOException
+    {
+        SnapshotCatalog.write(Arrays.asList(myColors, table("colors", 1, "\"x\"")),
+                              new ByteArrayOutputStream());
+    }
+
+    @Test(expected = IonException.class)
+    public void testNotSnapshot()
+    {
+        SnapshotCatalog.load(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }));
+    }
+
+    @Test(expected = IonException.class)
+    public void testTruncatedSnapshot()
+        throws IOException
+    {
+        byte[] snapshot = snapshot();
+        SnapshotCatalog.load(ByteBuffer.wrap(snapshot, 0, snapshot.length - 8));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class StringInternerTest
+{
+    @Test
+    public void testIntern()
+    {
+        StringInterner interner = new StringInterner(16);
+        String first = new String("ACTIVE");
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(new String("ACTIVE")));
+        assertSame(first, interner.intern(new String("ACTIVE")));
+        assertNull(interner.intern(null));
+
+        assertEquals(2, interner.getHitCount());
+        assertEquals(1, interner.getMissCount());
+        assertEquals(2.0 / 3, interner.getHitRate(), 0);
+    }
+
+    @Test
+    public void testLongStringsAreNotInterned()
+    {
+        StringInterner interner = new StringInterner(16, 3);
+        assertEquals(3, interner.getMaxLength());
+        interner.intern("abcd");
+        String abcd = new String("abcd");
+        assertSame(abcd, interner.intern(abcd));
+        assertEquals(0, interner.getHitCount() + interner.getMissCount());
+        assertEquals(0, interner.getHitRate(), 0);
+    }
+
+    @Test
+    public void testTableIsBounded()
+    {
+        StringInterner interner = new StringInterner(100);
+        assertEquals(128, interner.getCapacity());
+        for (int i = 0; i < 10000; i++)
+        {
+            interner.intern("s" + i);
+        }
+        assertEquals(10000, interner.getMissCount());
+
+        interner.clear();
+        String s = new String("s1");
+        assertSame(s, interner.intern(s));
+    }
+
+    @Test
+    public void testCountsFromManyThreads()
+        throws InterruptedException
+    {
+        final StringInterner interner = new StringInterner(16);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 1000; j++)
+                    {
+                        interner.intern("s" + (j % 4));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(8000, interner.getHitCount() + interner.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity()
+    {
+        new StringInterner(0);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.Equivalence.Difference;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ReaderEquivalenceTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final Equivalence STRICT = new Equivalence.Builder().build();
+
+    private static List<String> diff(Equivalence equivalence,
+                                     String first,
+                                     String second,
+                                     int max)
+    {
+        // Compare text to binary, so that both reader kinds are exercised.
+        IonReader r1 = SYSTEM.newReader(first);
+        IonReader r2 = SYSTEM.newReader(SYSTEM.getLoader().load(second).getBytes());
+        List<String> result = new ArrayList<String>();
+        for (Difference d : equivalence.ionReaderDiff(r1, r2, max))
+        {
+            result.add(d.toString());
+        }
+        return result;
+    }
+
+    private static void assertSameAsDom(Equivalence equivalence,
+                                        String first,
+                                        String second)
+    {
+        IonDatagram dg1 = SYSTEM.getLoader().load(first);
+        IonDatagram dg2 = SYSTEM.getLoader().load(second);
+        boolean expected = dg1.size() == dg2.size();
+        for (int i = 0; expected && i < dg1.size(); i++)
+        {
+            expected = equivalence.ionValueEquals(dg1.get(i), dg2.get(i));
+        }
+
+        assertEquals(first + " vs " + second, expected,
+                     equivalence.ionReaderEquals(SYSTEM.newReader(first),
+                                                 SYSTEM.newReader(second)));
+    }
+
+    @Test
+    public void testMatchesDomEquivalence()
+    {
+        String[] values = {
+            "1", "2", "a::1", "1.0", "1.00", "1e0", "1.0000001e0", "null",
+            "null.int", "true", "\"x\"", "x", "$0", "{{Zm9v}}", "{{\"foo\"}}",
+            "2019-01-01T", "2019-01-01T00:00Z", "2019-01-01T00:00-00:00",
+            "12345678901234567890", "[1, 2]", "(1 2)", "[2, 1]", "{a:1, b:2}",
+            "{b:2, a:1}", "{a:1, a:1, a:2}", "{a:2, a:1, a:1}", "{a:1, a:2, a:2}",
+            "{a:[1, {b:c}]}", "{a:[1, {b:d}]}", "{a:x::1}", "1 2", "",
+        };
+        Equivalence[] equivalences = {
+            STRICT,
+            new Equivalence.Builder().withStrict(false).build(),
+            new Equivalence.Builder().withEpsilon(1e-6).build(),
+        };
+        for (Equivalence equivalence : equivalences)
+        {
+            for (String first : values)
+            {
+                for (String second : values)
+                {
+                    assertSameAsDom(equivalence, first, second);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPaths()
+    {
+        List<String> diffs =
+            diff(STRICT,
+                 "{a:[1, {b:c, d:e}], 'odd name':1} x 1 2",
+                 "{a:[1, {b:c, d:f}], 'odd name':x::1, extra:1} y::x \"1\"",
+                 10);
+
+        List<String> expected = new ArrayList<String>();
+        expected.add("[0].a[1].d: values differ");
+        expected.add("[0].'odd name': annotations differ");
+        expected.add("[0].extra: field only in second");
+        expected.add("[1]: annotations differ");
+        expected.add("[2]: type INT differs from STRING");
+        expected.add("[3]: value only in first");
+        assertEquals(expected, diffs);
+    }
+
+    @Test
+    public void testMaxDifferences()
+    {
+        List<String> diffs = diff(STRICT, "[1, 2, 3] 4", "[0, 0, 0] 0", 2);
+        assertEquals(2, diffs.size());
+        assertEquals("[0][0]: values differ", diffs.get(0));
+        assertEquals("[0][1]: values differ", diffs.get(1));
+
+        assertTrue(diff(STRICT, "[1, 2, 3] 4", "[1, 2, 3] 4", 1).isEmpty());
+    }
+
+    @Test
+    public void testComparesFromCurrentDepth()
+    {
+        IonReader r1 = SYSTEM.newReader("{a:[1, 2, 3]}");
+        IonReader r2 = SYSTEM.newReader("[1, 2, 3]");
+        r1.next();
+        r1.stepIn();
+        r1.next();
+        r1.stepIn();
+        r2.next();
+        r2.stepIn();
+
+        assertTrue(STRICT.ionReaderEquals(r1, r2));
+        r1.stepOut();
+        r2.stepOut();
+        assertFalse(STRICT.ionReaderEquals(r1, SYSTEM.newReader("1")));
+    }
+
+    @Test
+    public void testUnknownFieldNamesAreNotText()
+    {
+        // $10 is a symbol of an import that isn't in the catalog.
+        String unknown =
+            "$ion_symbol_table::{imports:[{name:\"missing\", version:1, max_id:20}]}"
+            + " {$10:1}";
+        IonReader r1 = SYSTEM.newReader(unknown);
+        IonReader r2 = SYSTEM.newReader("{'$10':1}");
+
+        List<String> diffs = new ArrayList<String>();
+        for (Difference d : STRICT.ionReaderDiff(r1, r2, 10))
+        {
+            diffs.add(d.toString());
+        }
+
+        List<String> expected = new ArrayList<String>();
+        expected.add("[0].$10: field only in first");
+        expected.add("[0].'$10': field only in second");
+        assertEquals(expected, diffs);
+
+        assertTrue(STRICT.ionReaderEquals(SYSTEM.newReader(unknown),
+                                          SYSTEM.newReader(unknown)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxDifferencesMustBePositive()
+    {
+        STRICT.ionReaderDiff(SYSTEM.newReader("1"), SYSTEM.newReader("1"), 0);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.impl._Private_IonSystem;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+public class SymbolTableCompactorTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    /**
+     * Writes values that each have their own symbol table. Every tenth
+     * value uses a new symbol.
+     */
+    private static byte[] finishedOften(int count)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (int i = 0; i < count; i++)
+        {
+            writer.addTypeAnnotation("event");
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("name");
+            writer.writeString("value " + i);
+            writer.setFieldName("kind");
+            writer.writeSymbol("kind" + (i / 10));
+            writer.stepOut();
+            writer.finish();
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static int symbolTableCount(byte[] data)
+    {
+        int count = 0;
+        IonReader reader = ((_Private_IonSystem) SYSTEM).newSystemReader(data);
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            SymbolToken[] annotations = reader.getTypeAnnotationSymbols();
+            if (type == IonType.STRUCT
+                && annotations.length != 0
+                && annotations[0].getSid() == ION_SYMBOL_TABLE_SID)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void assertSameData(byte[] expected, byte[] actual)
+    {
+        assertEquals(SYSTEM.getLoader().load(expected),
+                     SYSTEM.getLoader().load(actual));
+    }
+
+    @Test
+    public void testMergesIntoOneTable()
+        throws IOException
+    {
+        byte[] input = finishedOften(50);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SymbolTableCompactor.Report report =
+            new SymbolTableCompactor().compact(input, out);
+        byte[] output = out.toByteArray();
+
+        assertSameData(input, output);
+        assertEquals(50, symbolTableCount(input));
+        assertEquals(1, symbolTableCount(output));
+
+        assertEquals(input.length, report.getInputSize());
+        assertEquals(output.length, report.getOutputSize());
+        assertEquals(input.length - output.length, report.getBytesSaved());
+        assertTrue(report.getBytesSaved() > 0);
+        assertEquals(50, report.getInputSymbolTableCount());
+        assertEquals(1, report.getOutputSymbolTableCount());
+        assertTrue(report.getSymbolTableTimeSaved() <= report.getInputSymbolTableTime());
+    }
+
+    @Test
+    public void testAppendsPerSegment()
+        throws IOException
+    {
+        byte[] input = finishedOften(50);
+        SymbolTableCompactor compactor =
+            new SymbolTableCompactor(IonReaderBuilder.standard(),
+                                     IonBinaryWriterBuilder.standard(),
+                                     10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SymbolTableCompactor.Report report =
+            compactor.compact(new ByteArrayInputStream(input), out);
+        byte[] output = out.toByteArray();
+
+        assertSameData(input, output);
+        // Each segment of ten values uses one new symbol.
+        assertEquals(5, symbolTableCount(output));
+        assertEquals(5, report.getOutputSymbolTableCount());
+        assertEquals(50, report.getInputSymbolTableCount());
+        assertEquals(input.length, report.getInputSize());
+        assertEquals(output.length, report.getOutputSize());
+    }
+
+    @Test
+    public void testCountsInputAppends()
+        throws IOException
+    {
+        SymbolTableCompactor compactor =
+            new SymbolTableCompactor(IonReaderBuilder.standard(),
+                                     IonBinaryWriterBuilder.standard(),
+                                     10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compactor.compact(finishedOften(50), out);
+        byte[] appended = out.toByteArray();
+        assertEquals(5, symbolTableCount(appended));
+
+        // The table and its four appends each count once.
+        out = new ByteArrayOutputStream();
+        SymbolTableCompactor.Report report =
+            new SymbolTableCompactor().compact(appended, out);
+        assertSameData(appended, out.toByteArray());
+        assertEquals(5, report.getInputSymbolTableCount());
+        assertEquals(1, report.getOutputSymbolTableCount());
+    }
+
+    @Test
+    public void testSegmentsWithoutNewSymbols()
+        throws IOException
+    {
+        byte[] input = finishedOften(10);
+        SymbolTableCompactor compactor =
+            new SymbolTableCompactor(IonReaderBuilder.standard(),
+                                     IonBinaryWriterBuilder.standard(),
+                                     3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SymbolTableCompactor.Report report = compactor.compact(input, out);
+
+        assertSameData(input, out.toByteArray());
+        assertEquals(1, symbolTableCount(out.toByteArray()));
+        assertEquals(1, report.getOutputSymbolTableCount());
+    }
+
+    @Test
+    public void testTextInput()
+        throws IOException
+    {
+        byte[] input = "a::{b:c} d e".getBytes("UTF-8");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SymbolTableCompactor.Report report =
+            new SymbolTableCompactor().compact(input, out);
+
+        assertSameData(input, out.toByteArray());
+        assertEquals(0, report.getInputSymbolTableCount());
+        assertEquals(1, report.getOutputSymbolTableCount());
+        assertEquals(0, report.getSymbolTableTimeSaved());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSegmentSize()
+    {
+        new SymbolTableCompactor(IonReaderBuilder.standard(),
+                                 IonBinaryWriterBuilder.standard(),
+                                 -1);
+    }
+}